@@ -0,0 +1,13 @@
+package jadx.api;
+
+import jadx.core.dex.nodes.RootNode;
+
+public class JadxBenchAccess {
+
+	public static RootNode getRoot(JadxDecompiler decompiler) {
+		return decompiler.getRoot();
+	}
+
+	private JadxBenchAccess() {
+	}
+}
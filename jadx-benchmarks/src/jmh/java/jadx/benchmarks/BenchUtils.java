@@ -0,0 +1,126 @@
+package jadx.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxBenchAccess;
+import jadx.api.JadxDecompiler;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+import static jadx.core.utils.files.FileUtils.copyStream;
+
+/**
+ * Fixtures for benchmarks, all inputs are local files prepared by build (see 'jadx-benchmarks/build.gradle'):
+ * <ul>
+ * <li>'samples' - compiled classes from 'jadx-samples' module packed into jar</li>
+ * <li>'apk' - small test application from 'jadx-core' test resources</li>
+ * </ul>
+ */
+public final class BenchUtils {
+
+	public static final String SAMPLES = "samples";
+	public static final String APK = "apk";
+
+	private BenchUtils() {
+	}
+
+	public static File getInput(String name) {
+		String path;
+		switch (name) {
+			case SAMPLES:
+				path = System.getProperty("jadx.bench.samples");
+				break;
+			case APK:
+				path = System.getProperty("jadx.bench.apk");
+				break;
+			default:
+				throw new JadxRuntimeException("Unknown benchmark input: " + name);
+		}
+		if (path == null) {
+			throw new JadxRuntimeException("Path for benchmark input '" + name + "' not set, run benchmarks using gradle 'jmh' task");
+		}
+		File file = new File(path);
+		if (!file.exists()) {
+			throw new JadxRuntimeException("Benchmark input file not found: " + file.getAbsolutePath());
+		}
+		return file;
+	}
+
+	/**
+	 * Single thread and no resources to reduce noise
+	 */
+	public static JadxArgs makeArgs(File input) {
+		JadxArgs args = new JadxArgs();
+		args.setInputFile(input);
+		args.setThreadsCount(1);
+		args.setSkipResources(true);
+		return args;
+	}
+
+	public static JadxDecompiler loadDecompiler(JadxArgs args) {
+		JadxDecompiler decompiler = new JadxDecompiler(args);
+		decompiler.load();
+		return decompiler;
+	}
+
+	public static RootNode getRoot(JadxDecompiler decompiler) {
+		return JadxBenchAccess.getRoot(decompiler);
+	}
+
+	public static byte[] readZipEntry(File file, String entryName) throws IOException {
+		try (ZipFile zipFile = new ZipFile(file)) {
+			ZipEntry entry = zipFile.getEntry(entryName);
+			if (entry == null) {
+				throw new IOException("Entry '" + entryName + "' not found in " + file);
+			}
+			return readEntry(zipFile, entry);
+		}
+	}
+
+	/**
+	 * Read content of all zip entries with names ends with specified suffix
+	 */
+	public static List<byte[]> readZipEntries(File file, String suffix) throws IOException {
+		List<byte[]> list = new ArrayList<>();
+		try (ZipFile zipFile = new ZipFile(file)) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			for (ZipEntry entry : Collections.list(entries)) {
+				if (!entry.isDirectory() && entry.getName().endsWith(suffix)) {
+					list.add(readEntry(zipFile, entry));
+				}
+			}
+		}
+		return list;
+	}
+
+	public static byte[] readResource(String name) throws IOException {
+		try (InputStream in = BenchUtils.class.getResourceAsStream(name)) {
+			if (in == null) {
+				throw new IOException("Resource not found: " + name);
+			}
+			return readAll(in);
+		}
+	}
+
+	private static byte[] readEntry(ZipFile zipFile, ZipEntry entry) throws IOException {
+		try (InputStream in = zipFile.getInputStream(entry)) {
+			return readAll(in);
+		}
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		copyStream(in, out);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,52 @@
+package jadx.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.JadxDecompiler;
+import jadx.core.ProcessClass;
+import jadx.core.codegen.CodeGen;
+import jadx.core.dex.nodes.ClassNode;
+
+/**
+ * Code generation ({@link CodeGen#generate(ClassNode)}) for all processed classes from 'samples' input
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CodeGenBenchmark {
+
+	private JadxDecompiler decompiler;
+	private List<ClassNode> classes;
+
+	@Setup
+	public void setup() {
+		decompiler = BenchUtils.loadDecompiler(BenchUtils.makeArgs(BenchUtils.getInput(BenchUtils.SAMPLES)));
+		classes = BenchUtils.getRoot(decompiler).getClasses(false);
+		for (ClassNode cls : classes) {
+			ProcessClass.process(cls);
+		}
+	}
+
+	@Benchmark
+	public void generate(Blackhole bh) {
+		for (ClassNode cls : classes) {
+			bh.consume(CodeGen.generate(cls));
+		}
+	}
+
+	@TearDown
+	public void close() {
+		decompiler.close();
+	}
+}
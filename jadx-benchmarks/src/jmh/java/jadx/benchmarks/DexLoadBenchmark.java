@@ -0,0 +1,50 @@
+package jadx.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jadx.api.JadxArgs;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.files.InputFile;
+
+/**
+ * Dex loading: create nodes for all classes, methods and fields ({@link RootNode#load(List)}).
+ * Input files opened (and jar converted to dex) once in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DexLoadBenchmark {
+
+	@Param({ BenchUtils.SAMPLES, BenchUtils.APK })
+	public String input;
+
+	private JadxArgs args;
+	private List<InputFile> inputFiles;
+
+	@Setup
+	public void setup() throws Exception {
+		File file = BenchUtils.getInput(input);
+		args = BenchUtils.makeArgs(file);
+		inputFiles = new ArrayList<>();
+		InputFile.addFilesFrom(file, inputFiles, args.isSkipSources());
+	}
+
+	@Benchmark
+	public RootNode load() {
+		RootNode root = new RootNode(args);
+		root.load(inputFiles);
+		return root;
+	}
+}
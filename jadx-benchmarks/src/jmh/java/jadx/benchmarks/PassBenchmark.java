@@ -0,0 +1,121 @@
+package jadx.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jadx.api.JadxDecompiler;
+import jadx.core.Jadx;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.dex.visitors.DepthTraversal;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * Run one pass from {@link Jadx#getPassesList} on all classes from 'samples' input.
+ * <p>
+ * Before each invocation classes reloaded and all preceding passes applied,
+ * so only selected pass measured. Class attributes are not reset by unload,
+ * so passes changing class level data see results of previous invocation.
+ * For repeated passes (like CodeShrinkVisitor) first occurrence used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PassBenchmark {
+
+	@Param({
+			"DebugInfoParseVisitor",
+			"BlockSplitter",
+			"BlockProcessor",
+			"BlockExceptionHandler",
+			"BlockFinish",
+			"SSATransform",
+			"ConstructorVisitor",
+			"InitCodeVariables",
+			"MarkFinallyVisitor",
+			"ConstInlineVisitor",
+			"TypeInferenceVisitor",
+			"DebugInfoApplyVisitor",
+			"DeboxingVisitor",
+			"ModVisitor",
+			"CodeShrinkVisitor",
+			"ReSugarCode",
+			"RegionMakerVisitor",
+			"IfRegionVisitor",
+			"ReturnVisitor",
+			"CleanRegions",
+			"SimplifyVisitor",
+			"CheckRegions",
+			"ExtractFieldInit",
+			"FixAccessModifiers",
+			"ProcessAnonymous",
+			"ClassModifier",
+			"MethodInlineVisitor",
+			"EnumVisitor",
+			"LoopRegionVisitor",
+			"ProcessVariables",
+			"PrepareForCodeGen",
+			"DependencyCollector",
+			"RenameVisitor"
+	})
+	public String pass;
+
+	private JadxDecompiler decompiler;
+	private List<ClassNode> classes;
+	private List<IDexTreeVisitor> passes;
+	private int passIndex;
+
+	@Setup
+	public void setup() {
+		decompiler = BenchUtils.loadDecompiler(BenchUtils.makeArgs(BenchUtils.getInput(BenchUtils.SAMPLES)));
+		RootNode root = BenchUtils.getRoot(decompiler);
+		classes = root.getClasses(false);
+		passes = root.getPasses();
+		passIndex = -1;
+		for (int i = 0; i < passes.size(); i++) {
+			if (passes.get(i).getClass().getSimpleName().equals(pass)) {
+				passIndex = i;
+				break;
+			}
+		}
+		if (passIndex == -1) {
+			throw new JadxRuntimeException("Pass not found: " + pass);
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareClasses() {
+		for (ClassNode cls : classes) {
+			cls.unload();
+			cls.load();
+			for (int i = 0; i < passIndex; i++) {
+				DepthTraversal.visit(passes.get(i), cls);
+			}
+		}
+	}
+
+	@Benchmark
+	public void runPass() {
+		IDexTreeVisitor visitor = passes.get(passIndex);
+		for (ClassNode cls : classes) {
+			DepthTraversal.visit(visitor, cls);
+		}
+	}
+
+	@TearDown
+	public void close() {
+		decompiler.close();
+	}
+}
@@ -0,0 +1,81 @@
+package jadx.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.xmlgen.BinaryXMLContext;
+import jadx.core.xmlgen.BinaryXMLParser;
+import jadx.core.xmlgen.ResTableParser;
+
+/**
+ * Resources decoding: resources table ({@link ResTableParser#decode}) and binary xml ({@link BinaryXMLParser#parse}).
+ * Resources table taken from 'apk' input or bundled android framework 'resources.arsc' (big one).
+ * All data read into memory in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResourcesBenchmark {
+	private static final String ANDROID = "android";
+
+	@Param({ ANDROID, BenchUtils.APK })
+	public String arsc;
+
+	private JadxDecompiler decompiler;
+	private RootNode root;
+	private BinaryXMLContext xmlContext;
+	private byte[] arscData;
+	private List<byte[]> xmlFiles;
+
+	@Setup
+	public void setup() throws IOException {
+		File apk = BenchUtils.getInput(BenchUtils.APK);
+		JadxArgs args = BenchUtils.makeArgs(apk);
+		args.setSkipResources(false);
+		decompiler = BenchUtils.loadDecompiler(args);
+		root = BenchUtils.getRoot(decompiler);
+		xmlContext = new BinaryXMLContext(root);
+		if (arsc.equals(ANDROID)) {
+			arscData = BenchUtils.readResource("/resources.arsc");
+		} else {
+			arscData = BenchUtils.readZipEntry(apk, "resources.arsc");
+		}
+		xmlFiles = BenchUtils.readZipEntries(apk, ".xml");
+	}
+
+	@Benchmark
+	public ResTableParser decodeTable() throws IOException {
+		ResTableParser parser = new ResTableParser(root);
+		parser.decode(new ByteArrayInputStream(arscData));
+		return parser;
+	}
+
+	@Benchmark
+	public void parseXml(Blackhole bh) throws IOException {
+		for (byte[] xml : xmlFiles) {
+			bh.consume(new BinaryXMLParser(xmlContext).parse(new ByteArrayInputStream(xml)));
+		}
+	}
+
+	@TearDown
+	public void close() {
+		decompiler.close();
+	}
+}
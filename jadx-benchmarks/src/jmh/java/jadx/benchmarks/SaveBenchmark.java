@@ -0,0 +1,60 @@
+package jadx.benchmarks;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * End-to-end decompilation: load input and save sources and resources ({@link JadxDecompiler#save()})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SaveBenchmark {
+
+	@Param({ BenchUtils.SAMPLES, BenchUtils.APK })
+	public String input;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Path outDir;
+
+	@Setup(Level.Invocation)
+	public void createOutDir() {
+		outDir = FileUtils.createTempDir("jadx-bench-out");
+	}
+
+	@Benchmark
+	public void save() {
+		File file = BenchUtils.getInput(input);
+		JadxArgs args = BenchUtils.makeArgs(file);
+		args.setSkipResources(false);
+		args.setThreadsCount(threads);
+		args.setOutDir(outDir.toFile());
+		try (JadxDecompiler decompiler = new JadxDecompiler(args)) {
+			decompiler.load();
+			decompiler.save();
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void deleteOutDir() {
+		FileUtils.deleteDir(outDir.toFile());
+	}
+}
@@ -37,12 +37,18 @@ public class JadxCLIArgs {
 	@Parameter(names = { "-dr", "--output-dir-res" }, description = "output directory for resources")
 	protected String outDirRes;
 
+	@Parameter(names = { "--output-src-archive" }, description = "save sources into zip/jar file instead of directory")
+	protected String outSrcArchive;
+
 	@Parameter(names = { "-r", "--no-res" }, description = "do not decode resources")
 	protected boolean skipResources = false;
 
 	@Parameter(names = { "-s", "--no-src" }, description = "do not decompile source code")
 	protected boolean skipSources = false;
 
+	@Parameter(names = { "--smali" }, description = "save smali code near decompiled sources")
+	protected boolean saveSmali = false;
+
 	@Parameter(names = { "--single-class" }, description = "decompile a single class")
 	protected String singleClass = null;
 
@@ -55,6 +61,18 @@ public class JadxCLIArgs {
 	@Parameter(names = { "-j", "--threads-count" }, description = "processing threads count")
 	protected int threadsCount = JadxArgs.DEFAULT_THREADS_COUNT;
 
+	@Parameter(names = { "--code-cache-dir" }, description = "directory for persistent cache of decompiled code")
+	protected String codeCacheDir;
+
+	@Parameter(names = { "--code-cache-size-limit" }, description = "max size of code cache in MB, least recently used entries removed (0 - no limit)")
+	protected int codeCacheSizeLimit = JadxArgs.DEFAULT_CODE_CACHE_SIZE_LIMIT;
+
+	@Parameter(names = { "--profile-report" }, description = "save time and allocations of decompilation passes to JSON file")
+	protected String profileReport;
+
+	@Parameter(names = { "--method-time-limit" }, description = "max time in ms to decompile one method, dump it in fallback mode if exceeded (0 - no limit)")
+	protected int methodTimeLimit = 0;
+
 	@Parameter(names = { "--show-bad-code" }, description = "show inconsistent code (incorrectly decompiled)")
 	protected boolean showInconsistentCode = false;
 
@@ -181,9 +199,15 @@ public class JadxCLIArgs {
 		args.setOutDir(FileUtils.toFile(outDir));
 		args.setOutDirSrc(FileUtils.toFile(outDirSrc));
 		args.setOutDirRes(FileUtils.toFile(outDirRes));
+		args.setOutSrcArchive(FileUtils.toFile(outSrcArchive));
 		args.setOutputFormat(JadxArgs.OutputFormatEnum.valueOf(outputFormat.toUpperCase()));
 		args.setThreadsCount(threadsCount);
+		args.setCodeCacheDir(FileUtils.toFile(codeCacheDir));
+		args.setCodeCacheSizeLimit(codeCacheSizeLimit);
+		args.setProfileReport(FileUtils.toFile(profileReport));
+		args.setMethodTimeLimit(methodTimeLimit);
 		args.setSkipSources(skipSources);
+		args.setSaveSmali(saveSmali);
 		if (singleClass != null) {
 			args.setClassFilter(className -> singleClass.equals(className));
 		}
@@ -227,6 +251,10 @@ public class JadxCLIArgs {
 		return outDirRes;
 	}
 
+	public String getOutSrcArchive() {
+		return outSrcArchive;
+	}
+
 	public boolean isSkipResources() {
 		return skipResources;
 	}
@@ -235,10 +263,30 @@ public class JadxCLIArgs {
 		return skipSources;
 	}
 
+	public boolean isSaveSmali() {
+		return saveSmali;
+	}
+
 	public int getThreadsCount() {
 		return threadsCount;
 	}
 
+	public String getCodeCacheDir() {
+		return codeCacheDir;
+	}
+
+	public int getCodeCacheSizeLimit() {
+		return codeCacheSizeLimit;
+	}
+
+	public String getProfileReport() {
+		return profileReport;
+	}
+
+	public int getMethodTimeLimit() {
+		return methodTimeLimit;
+	}
+
 	public boolean isFallbackMode() {
 		return fallbackMode;
 	}
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 public class JadxCLIArgsTest {
 
@@ -30,6 +31,25 @@ public class JadxCLIArgsTest {
 		assertThat(parse("").isSkipSources(), is(false));
 	}
 
+	@Test
+	public void testSmaliOption() {
+		assertThat(parse("--smali").isSaveSmali(), is(true));
+		assertThat(parse("--smali").toJadxArgs().isSaveSmali(), is(true));
+		assertThat(parse("").isSaveSmali(), is(false));
+	}
+
+	@Test
+	public void testProfileReportOption() {
+		assertThat(parse("--profile-report", "report.json").toJadxArgs().getProfileReport().getName(), is("report.json"));
+		assertThat(parse("").toJadxArgs().getProfileReport(), is(nullValue()));
+	}
+
+	@Test
+	public void testMethodTimeLimitOption() {
+		assertThat(parse("--method-time-limit", "500").toJadxArgs().getMethodTimeLimit(), is(500));
+		assertThat(parse("").toJadxArgs().getMethodTimeLimit(), is(0));
+	}
+
 	@Test
 	public void testOptionsOverride() {
 		assertThat(override(new JadxCLIArgs(), "--no-imports").isUseImports(), is(false));
@@ -2,10 +2,20 @@ package jadx.api;
 
 import java.util.Map;
 
+import org.jetbrains.annotations.Nullable;
+
 public interface ICodeInfo {
 	String getCodeStr();
 
 	Map<Integer, Integer> getLineMapping();
 
 	Map<CodePosition, Object> getAnnotations();
+
+	/**
+	 * Annotation lookup by position without iteration over all annotations
+	 */
+	@Nullable
+	default Object getAnnotationAt(int line, int offset) {
+		return getAnnotations().get(new CodePosition(line, offset));
+	}
 }
@@ -16,14 +16,39 @@ public class JadxArgs {
 	public static final String DEFAULT_SRC_DIR = "sources";
 	public static final String DEFAULT_RES_DIR = "resources";
 
+	public static final int DEFAULT_CODE_CACHE_SIZE_LIMIT = 512;
+
 	private List<File> inputFiles = new ArrayList<>(1);
 
 	private File outDir;
 	private File outDirSrc;
 	private File outDirRes;
+	private File outSrcArchive;
 
 	private int threadsCount = DEFAULT_THREADS_COUNT;
 
+	/**
+	 * Directory for persistent cache of generated code, disabled if null
+	 */
+	private File codeCacheDir;
+
+	/**
+	 * Max size of code cache in megabytes, least recently used entries removed if exceeded.
+	 * Disabled if zero.
+	 */
+	private int codeCacheSizeLimit = DEFAULT_CODE_CACHE_SIZE_LIMIT;
+
+	/**
+	 * Collect time and allocations of every pass and save report to this file, disabled if null
+	 */
+	private File profileReport;
+
+	/**
+	 * Max time in milliseconds spent by passes on one method,
+	 * if exceeded method will be dumped in fallback mode. Disabled if zero.
+	 */
+	private int methodTimeLimit = 0;
+
 	private boolean cfgOutput = false;
 	private boolean rawCFGOutput = false;
 
@@ -36,6 +61,7 @@ public class JadxArgs {
 
 	private boolean skipResources = false;
 	private boolean skipSources = false;
+	private boolean saveSmali = false;
 
 	/**
 	 * Predicate that allows to filter the classes to be process based on their full name
@@ -122,6 +148,49 @@ public class JadxArgs {
 		this.threadsCount = threadsCount;
 	}
 
+	public File getOutSrcArchive() {
+		return outSrcArchive;
+	}
+
+	/**
+	 * Save sources into one zip/jar file instead of output directory
+	 */
+	public void setOutSrcArchive(File outSrcArchive) {
+		this.outSrcArchive = outSrcArchive;
+	}
+
+	public File getCodeCacheDir() {
+		return codeCacheDir;
+	}
+
+	public void setCodeCacheDir(File codeCacheDir) {
+		this.codeCacheDir = codeCacheDir;
+	}
+
+	public int getCodeCacheSizeLimit() {
+		return codeCacheSizeLimit;
+	}
+
+	public void setCodeCacheSizeLimit(int codeCacheSizeLimit) {
+		this.codeCacheSizeLimit = codeCacheSizeLimit;
+	}
+
+	public File getProfileReport() {
+		return profileReport;
+	}
+
+	public void setProfileReport(File profileReport) {
+		this.profileReport = profileReport;
+	}
+
+	public int getMethodTimeLimit() {
+		return methodTimeLimit;
+	}
+
+	public void setMethodTimeLimit(int methodTimeLimit) {
+		this.methodTimeLimit = methodTimeLimit;
+	}
+
 	public boolean isCfgOutput() {
 		return cfgOutput;
 	}
@@ -194,6 +263,14 @@ public class JadxArgs {
 		this.skipSources = skipSources;
 	}
 
+	public boolean isSaveSmali() {
+		return saveSmali;
+	}
+
+	public void setSaveSmali(boolean saveSmali) {
+		this.saveSmali = saveSmali;
+	}
+
 	public Predicate<String> getClassFilter() {
 		return classFilter;
 	}
@@ -332,7 +409,12 @@ public class JadxArgs {
 				+ ", outDir=" + outDir
 				+ ", outDirSrc=" + outDirSrc
 				+ ", outDirRes=" + outDirRes
+				+ ", outSrcArchive=" + outSrcArchive
 				+ ", threadsCount=" + threadsCount
+				+ ", codeCacheDir=" + codeCacheDir
+				+ ", codeCacheSizeLimit=" + codeCacheSizeLimit
+				+ ", profileReport=" + profileReport
+				+ ", methodTimeLimit=" + methodTimeLimit
 				+ ", cfgOutput=" + cfgOutput
 				+ ", rawCFGOutput=" + rawCFGOutput
 				+ ", fallbackMode=" + fallbackMode
@@ -340,6 +422,7 @@ public class JadxArgs {
 				+ ", useImports=" + useImports
 				+ ", skipResources=" + skipResources
 				+ ", skipSources=" + skipSources
+				+ ", saveSmali=" + saveSmali
 				+ ", deobfuscationOn=" + deobfuscationOn
 				+ ", deobfuscationForceSave=" + deobfuscationForceSave
 				+ ", useSourceNameAsClassAlias=" + useSourceNameAsClassAlias
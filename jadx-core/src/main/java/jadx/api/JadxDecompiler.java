@@ -1,8 +1,8 @@
 package jadx.api;
 
+import java.io.Closeable;
 import java.io.File;
-import java.io.StringWriter;
-import java.nio.file.Path;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -16,17 +16,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import org.jetbrains.annotations.Nullable;
-import org.jf.baksmali.Adaptors.ClassDefinition;
-import org.jf.baksmali.BaksmaliOptions;
-import org.jf.dexlib2.DexFileFactory;
-import org.jf.dexlib2.Opcodes;
-import org.jf.dexlib2.dexbacked.DexBackedClassDef;
-import org.jf.dexlib2.dexbacked.DexBackedDexFile;
-import org.jf.util.IndentingWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jadx.core.Jadx;
+import jadx.core.codegen.SmaliGen;
 import jadx.core.dex.attributes.AFlag;
 import jadx.core.dex.attributes.nodes.LineAttrNode;
 import jadx.core.dex.nodes.ClassNode;
@@ -35,9 +29,16 @@ import jadx.core.dex.nodes.MethodNode;
 import jadx.core.dex.nodes.RootNode;
 import jadx.core.dex.visitors.SaveCode;
 import jadx.core.export.ExportGradleProject;
-import jadx.core.utils.Utils;
+import jadx.core.utils.ClassUnloadTracker;
+import jadx.core.utils.ClassesScheduler;
+import jadx.core.utils.PassProfiler;
 import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.CodeOutput;
+import jadx.core.utils.files.DirCodeOutput;
 import jadx.core.utils.files.InputFile;
+import jadx.core.utils.files.ZipCodeOutput;
+import jadx.core.utils.files.ZipFilesCache;
+import jadx.core.xmlgen.BinaryXMLContext;
 import jadx.core.xmlgen.BinaryXMLParser;
 import jadx.core.xmlgen.ResourcesSaver;
 
@@ -66,7 +67,7 @@ import jadx.core.xmlgen.ResourcesSaver;
  * </code>
  * </pre>
  */
-public final class JadxDecompiler {
+public final class JadxDecompiler implements Closeable {
 	private static final Logger LOG = LoggerFactory.getLogger(JadxDecompiler.class);
 
 	private JadxArgs args;
@@ -76,7 +77,9 @@ public final class JadxDecompiler {
 	private List<JavaClass> classes;
 	private List<ResourceFile> resources;
 
-	private BinaryXMLParser xmlParser;
+	private BinaryXMLContext xmlContext;
+	private final ZipFilesCache zipFilesCache = new ZipFilesCache();
+	private CodeOutput codeOutput;
 
 	private Map<ClassNode, JavaClass> classesMap = new ConcurrentHashMap<>();
 	private Map<MethodNode, JavaMethod> methodsMap = new ConcurrentHashMap<>();
@@ -108,7 +111,9 @@ public final class JadxDecompiler {
 		root = null;
 		classes = null;
 		resources = null;
-		xmlParser = null;
+		xmlContext = null;
+		zipFilesCache.close();
+		closeCodeOutput();
 
 		classesMap.clear();
 		methodsMap.clear();
@@ -155,6 +160,15 @@ public final class JadxDecompiler {
 			LOG.error("Save interrupted", e);
 			Thread.currentThread().interrupt();
 		}
+		closeCodeOutput();
+		saveProfileReport();
+	}
+
+	private void saveProfileReport() {
+		PassProfiler profiler = root == null ? null : root.getProfiler();
+		if (profiler != null) {
+			profiler.saveReport(args.getProfileReport());
+		}
 	}
 
 	public ExecutorService getSaveExecutor() {
@@ -186,19 +200,78 @@ public final class JadxDecompiler {
 			appendResourcesSave(executor, resOutDir);
 		}
 		if (saveSources) {
-			appendSourcesSave(executor, sourcesOutDir);
+			CodeOutput output = openCodeOutput(sourcesOutDir);
+			appendSourcesSave(executor, output);
+			if (args.isSaveSmali()) {
+				appendSmaliSave(executor, output);
+			}
 		}
 		return executor;
 	}
 
+	/**
+	 * Archive output stays open until save finished or decompiler closed
+	 */
+	private CodeOutput openCodeOutput(File sourcesOutDir) {
+		closeCodeOutput();
+		File archive = args.getOutSrcArchive();
+		if (archive == null) {
+			codeOutput = new DirCodeOutput(sourcesOutDir);
+		} else {
+			try {
+				codeOutput = new ZipCodeOutput(archive);
+			} catch (IOException e) {
+				throw new JadxRuntimeException("Failed to create sources archive: " + archive, e);
+			}
+		}
+		return codeOutput;
+	}
+
+	private void closeCodeOutput() {
+		if (codeOutput != null) {
+			try {
+				codeOutput.close();
+			} catch (IOException e) {
+				LOG.error("Failed to close code output: {}", codeOutput, e);
+			}
+			codeOutput = null;
+		}
+	}
+
 	private void appendResourcesSave(ExecutorService executor, File outDir) {
 		for (ResourceFile resourceFile : getResources()) {
 			executor.execute(new ResourcesSaver(outDir, resourceFile));
 		}
 	}
 
-	private void appendSourcesSave(ExecutorService executor, File outDir) {
+	/**
+	 * Save smali for all classes (including inner) near sources.
+	 * Smali code not stored in class nodes to keep memory usage low.
+	 */
+	private void appendSmaliSave(ExecutorService executor, CodeOutput output) {
+		Predicate<String> classFilter = args.getClassFilter();
+		for (ClassNode cls : root.getClasses(true)) {
+			if (classFilter != null && !classFilter.test(cls.getTopParentClass().getFullName())) {
+				continue;
+			}
+			executor.execute(() -> {
+				try {
+					String smali = cls.dex().getSmaliGen().generate(cls);
+					if (smali == null) {
+						LOG.error("Failed to find smali class {}", SmaliGen.getClassType(cls));
+						return;
+					}
+					output.write(cls.getClassInfo().getAliasFullPath() + ".smali", smali);
+				} catch (Exception e) {
+					LOG.error("Error saving smali: {}", cls.getFullName(), e);
+				}
+			});
+		}
+	}
+
+	private void appendSourcesSave(ExecutorService executor, CodeOutput output) {
 		final Predicate<String> classFilter = args.getClassFilter();
+		List<ClassNode> saveList = new ArrayList<>();
 		for (JavaClass cls : getClasses()) {
 			if (cls.getClassNode().contains(AFlag.DONT_GENERATE)) {
 				continue;
@@ -206,12 +279,25 @@ public final class JadxDecompiler {
 			if (classFilter != null && !classFilter.test(cls.getFullName())) {
 				continue;
 			}
+			saveList.add(cls.getClassNode());
+		}
+		ClassUnloadTracker unloadTracker = new ClassUnloadTracker(saveList);
+		// tasks don't bound to classes, next class selected by scheduler at task start
+		ClassesScheduler scheduler = new ClassesScheduler(saveList);
+		for (int i = 0; i < saveList.size(); i++) {
 			executor.execute(() -> {
+				ClassNode cls = scheduler.next();
+				if (cls == null) {
+					return;
+				}
 				try {
-					cls.decompile();
-					SaveCode.save(outDir, cls.getClassNode());
+					cls.decompile(unloadTracker);
+					SaveCode.save(output, cls);
 				} catch (Exception e) {
 					LOG.error("Error saving class: {}", cls.getFullName(), e);
+				} finally {
+					scheduler.classDone(cls);
+					unloadTracker.classSaved(cls);
 				}
 			});
 		}
@@ -292,38 +378,46 @@ public final class JadxDecompiler {
 	}
 
 	void generateSmali(ClassNode cls) {
-		Path path = cls.dex().getDexFile().getPath();
-		String className = Utils.makeQualifiedObjectName(cls.getClassInfo().getType().getObject());
 		try {
-			DexBackedDexFile dexFile = DexFileFactory.loadDexFile(path.toFile(), Opcodes.getDefault());
-			boolean decompiled = false;
-			for (DexBackedClassDef classDef : dexFile.getClasses()) {
-				if (classDef.getType().equals(className)) {
-					ClassDefinition classDefinition = new ClassDefinition(new BaksmaliOptions(), classDef);
-					StringWriter sw = new StringWriter();
-					classDefinition.writeTo(new IndentingWriter(sw));
-					cls.setSmali(sw.toString());
-					decompiled = true;
-					break;
-				}
-			}
-			if (!decompiled) {
-				LOG.error("Failed to find smali class {}", className);
+			String smali = cls.dex().getSmaliGen().generate(cls);
+			if (smali == null) {
+				LOG.error("Failed to find smali class {}", SmaliGen.getClassType(cls));
+			} else {
+				cls.setSmali(smali);
 			}
 		} catch (Exception e) {
 			LOG.error("Error generating smali", e);
 		}
 	}
 
+	/**
+	 * Release opened input files
+	 */
+	@Override
+	public void close() {
+		reset();
+	}
+
+	ZipFilesCache getZipFilesCache() {
+		return zipFilesCache;
+	}
+
 	RootNode getRoot() {
 		return root;
 	}
 
-	synchronized BinaryXMLParser getXmlParser() {
-		if (xmlParser == null) {
-			xmlParser = new BinaryXMLParser(root);
+	/**
+	 * Parser holds state of one document, so new instance returned on every call
+	 */
+	BinaryXMLParser getXmlParser() {
+		return new BinaryXMLParser(getXmlContext());
+	}
+
+	private synchronized BinaryXMLContext getXmlContext() {
+		if (xmlContext == null) {
+			xmlContext = new BinaryXMLContext(root);
 		}
-		return xmlParser;
+		return xmlContext;
 	}
 
 	Map<ClassNode, JavaClass> getClassesMap() {
@@ -385,11 +479,7 @@ public final class JadxDecompiler {
 
 	@Nullable
 	public JavaNode getJavaNodeAtPosition(ICodeInfo codeInfo, int line, int offset) {
-		Map<CodePosition, Object> map = codeInfo.getAnnotations();
-		if (map.isEmpty()) {
-			return null;
-		}
-		Object obj = map.get(new CodePosition(line, offset));
+		Object obj = codeInfo.getAnnotationAt(line, offset);
 		if (obj == null) {
 			return null;
 		}
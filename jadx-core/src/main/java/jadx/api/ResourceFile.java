@@ -56,6 +56,10 @@ public class ResourceFile {
 		return type;
 	}
 
+	JadxDecompiler getDecompiler() {
+		return decompiler;
+	}
+
 	public ResContainer loadContent() {
 		return ResourcesLoader.loadContent(decompiler, this);
 	}
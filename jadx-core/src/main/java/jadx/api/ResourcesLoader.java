@@ -21,6 +21,8 @@ import jadx.core.utils.Utils;
 import jadx.core.utils.android.Res9patchStreamDecoder;
 import jadx.core.utils.exceptions.JadxException;
 import jadx.core.utils.files.InputFile;
+import jadx.core.utils.files.ZipFilesCache;
+import jadx.core.utils.files.ZipFilesCache.ZipFileRef;
 import jadx.core.utils.files.ZipSecurity;
 import jadx.core.xmlgen.ResContainer;
 import jadx.core.xmlgen.ResTableParser;
@@ -59,7 +61,8 @@ public final class ResourcesLoader {
 					return decoder.decode(file.length(), inputStream);
 				}
 			} else {
-				try (ZipFile zipFile = new ZipFile(zipRef.getZipFile())) {
+				try (ZipFileRef zipFileRef = openZip(rf, zipRef.getZipFile())) {
+					ZipFile zipFile = zipFileRef.getZipFile();
 					ZipEntry entry = zipFile.getEntry(zipRef.getEntryName());
 					if (entry == null) {
 						throw new IOException("Zip entry not found: " + zipRef);
@@ -77,6 +80,12 @@ public final class ResourcesLoader {
 		}
 	}
 
+	private static ZipFileRef openZip(ResourceFile rf, File file) throws IOException {
+		JadxDecompiler decompiler = rf.getDecompiler();
+		ZipFilesCache zipFilesCache = decompiler != null ? decompiler.getZipFilesCache() : new ZipFilesCache();
+		return zipFilesCache.open(file);
+	}
+
 	static ResContainer loadContent(JadxDecompiler jadxRef, ResourceFile rf) {
 		try {
 			return decodeStream(rf, (size, is) -> loadContent(jadxRef, rf, is));
@@ -127,14 +136,17 @@ public final class ResourcesLoader {
 		if (file == null) {
 			return;
 		}
-		try (ZipFile zip = new ZipFile(file)) {
-			Enumeration<? extends ZipEntry> entries = zip.entries();
+		ZipFilesCache zipFilesCache = jadxRef.getZipFilesCache();
+		try (ZipFileRef zipFileRef = zipFilesCache.open(file)) {
+			Enumeration<? extends ZipEntry> entries = zipFileRef.getZipFile().entries();
 			while (entries.hasMoreElements()) {
 				ZipEntry entry = entries.nextElement();
 				if (ZipSecurity.isValidZipEntry(entry)) {
 					addEntry(list, file, entry);
 				}
 			}
+			// keep zip opened for resources loading
+			zipFilesCache.keepOpened(file);
 		} catch (Exception e) {
 			LOG.debug("Not a zip file: {}", file.getAbsolutePath());
 			addResourceFile(list, file);
@@ -1,13 +1,19 @@
 package jadx.core;
 
+import java.util.List;
+
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import jadx.api.ICodeInfo;
+import jadx.core.cache.DiskCodeCache;
 import jadx.core.codegen.CodeGen;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.visitors.DepthTraversal;
 import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.utils.ClassUnloadTracker;
 import jadx.core.utils.ErrorsCounter;
+import jadx.core.utils.PassProfiler;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
 import static jadx.core.dex.nodes.ProcessState.LOADED;
@@ -21,12 +27,19 @@ public final class ProcessClass {
 	}
 
 	public static void process(ClassNode cls) {
+		process(cls, true);
+	}
+
+	/**
+	 * @param fastPath check state without lock, should be disabled if class can be unloaded concurrently
+	 */
+	private static void process(ClassNode cls, boolean fastPath) {
 		ClassNode topParentClass = cls.getTopParentClass();
 		if (topParentClass != cls) {
-			process(topParentClass);
+			process(topParentClass, fastPath);
 			return;
 		}
-		if (cls.getState() == PROCESS_COMPLETE) {
+		if (fastPath && cls.getState() == PROCESS_COMPLETE) {
 			// nothing to do
 			return;
 		}
@@ -37,9 +50,7 @@ public final class ProcessClass {
 				}
 				if (cls.getState() == LOADED) {
 					cls.setState(PROCESS_STARTED);
-					for (IDexTreeVisitor visitor : cls.root().getPasses()) {
-						DepthTraversal.visit(visitor, cls);
-					}
+					runPasses(cls);
 					cls.setState(PROCESS_COMPLETE);
 				}
 			} catch (Throwable e) {
@@ -48,18 +59,65 @@ public final class ProcessClass {
 		}
 	}
 
+	private static void runPasses(ClassNode cls) {
+		PassProfiler profiler = cls.root().getProfiler();
+		if (profiler != null) {
+			profiler.startClass();
+		}
+		try {
+			for (IDexTreeVisitor visitor : cls.root().getPasses()) {
+				DepthTraversal.visit(visitor, cls);
+			}
+		} finally {
+			if (profiler != null) {
+				profiler.finishClass();
+			}
+		}
+	}
+
 	@NotNull
 	public static ICodeInfo generateCode(ClassNode cls) {
+		return generateCode(cls, null);
+	}
+
+	/**
+	 * @param unloadTracker set only for batch save, dependencies released after code generation
+	 */
+	@NotNull
+	public static ICodeInfo generateCode(ClassNode cls, @Nullable ClassUnloadTracker unloadTracker) {
 		ClassNode topParentClass = cls.getTopParentClass();
 		if (topParentClass != cls) {
-			return generateCode(topParentClass);
+			return generateCode(topParentClass, unloadTracker);
 		}
 		try {
-			process(cls);
-			cls.getDependencies().forEach(ProcessClass::process);
+			DiskCodeCache codeCache = cls.root().getCodeCache();
+			if (codeCache != null) {
+				ICodeInfo cachedCode = codeCache.load(cls);
+				if (cachedCode != null) {
+					return cachedCode;
+				}
+			}
+			boolean fastPath = unloadTracker == null;
+			process(cls, fastPath);
+			List<ClassNode> deps = cls.getDependencies();
+			if (unloadTracker != null) {
+				unloadTracker.acquire(deps);
+			}
+			try {
+				for (ClassNode dep : deps) {
+					process(dep, fastPath);
+				}
 
-			// TODO: unload class (need to build dependency tree or allow to load class several times)
-			return CodeGen.generate(cls);
+				ICodeInfo code = CodeGen.generate(cls);
+				if (codeCache != null) {
+					codeCache.save(cls, code);
+				}
+				return code;
+			} finally {
+				if (unloadTracker != null) {
+					unloadTracker.release(deps);
+				}
+			}
 		} catch (Throwable e) {
 			throw new JadxRuntimeException("Failed to generate code for class: " + cls.getFullName(), e);
 		}
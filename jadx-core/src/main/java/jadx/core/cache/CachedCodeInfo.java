@@ -0,0 +1,50 @@
+package jadx.core.cache;
+
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.api.CodePosition;
+import jadx.api.ICodeInfo;
+import jadx.core.codegen.CodeAnnotations;
+
+final class CachedCodeInfo implements ICodeInfo {
+	private final String code;
+	private final Map<Integer, Integer> lineMapping;
+	private final Map<CodePosition, Object> annotations;
+
+	CachedCodeInfo(String code, Map<Integer, Integer> lineMapping, Map<CodePosition, Object> annotations) {
+		this.code = code;
+		this.lineMapping = lineMapping;
+		this.annotations = annotations;
+	}
+
+	@Override
+	public String getCodeStr() {
+		return code;
+	}
+
+	@Override
+	public Map<Integer, Integer> getLineMapping() {
+		return lineMapping;
+	}
+
+	@Override
+	public Map<CodePosition, Object> getAnnotations() {
+		return annotations;
+	}
+
+	@Nullable
+	@Override
+	public Object getAnnotationAt(int line, int offset) {
+		if (annotations instanceof CodeAnnotations) {
+			return ((CodeAnnotations) annotations).get(line, offset);
+		}
+		return annotations.get(new CodePosition(line, offset));
+	}
+
+	@Override
+	public String toString() {
+		return code;
+	}
+}
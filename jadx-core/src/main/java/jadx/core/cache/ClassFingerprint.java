@@ -0,0 +1,246 @@
+package jadx.core.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.android.dex.Code;
+import com.android.dex.Code.CatchHandler;
+import com.android.dex.Code.Try;
+import com.android.dex.Dex.Section;
+import com.android.dx.io.IndexType;
+import com.android.dx.io.instructions.DecodedInstruction;
+import com.android.dx.io.instructions.ShortArrayCodeOutput;
+
+import jadx.core.dex.attributes.AType;
+import jadx.core.dex.attributes.AttrNode;
+import jadx.core.dex.info.FieldInfo;
+import jadx.core.dex.info.MethodInfo;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.DexNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.Utils;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Calculate hash of class content with all dex indexes resolved to names,
+ * so same class from different dex files gets same fingerprint.
+ * Inner classes included into fingerprint of parent class.
+ * <p>
+ * Should be calculated before class processing, because passes change node attributes.
+ */
+public final class ClassFingerprint {
+	private static final Logger LOG = LoggerFactory.getLogger(ClassFingerprint.class);
+
+	private static final int DBG_END_SEQUENCE = 0x00;
+	private static final int DBG_ADVANCE_PC = 0x01;
+	private static final int DBG_ADVANCE_LINE = 0x02;
+	private static final int DBG_START_LOCAL = 0x03;
+	private static final int DBG_START_LOCAL_EXTENDED = 0x04;
+	private static final int DBG_END_LOCAL = 0x05;
+	private static final int DBG_RESTART_LOCAL = 0x06;
+	private static final int DBG_SET_FILE = 0x09;
+
+	private final DexNode dex;
+	private final MessageDigest md;
+
+	private ClassFingerprint(DexNode dex) throws NoSuchAlgorithmException {
+		this.dex = dex;
+		this.md = MessageDigest.getInstance("SHA-256");
+	}
+
+	/**
+	 * @return hex string or null if class content can't be hashed
+	 */
+	@Nullable
+	public static String calc(ClassNode cls) {
+		try {
+			ClassFingerprint fingerprint = new ClassFingerprint(cls.dex());
+			fingerprint.addClass(cls);
+			return FileUtils.bytesToHex(fingerprint.md.digest());
+		} catch (Exception e) {
+			LOG.debug("Can't calculate fingerprint for class: {}", cls, e);
+			return null;
+		}
+	}
+
+	static String hash(String str) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			return FileUtils.bytesToHex(md.digest(str.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new JadxRuntimeException("SHA-256 not available", e);
+		}
+	}
+
+	private void addClass(ClassNode cls) {
+		add(cls.getRawName());
+		add(cls.getAccessFlags().rawValue());
+		add(String.valueOf(cls.getSuperClass()));
+		add(Utils.listToString(cls.getInterfaces()));
+		add(Utils.listToString(cls.getGenerics()));
+		addAttr(cls, AType.SOURCE_FILE);
+		addAttr(cls, AType.ANNOTATION_LIST);
+
+		add(cls.getFields().size());
+		for (FieldNode field : cls.getFields()) {
+			add(field.getFieldInfo().getRawFullId());
+			add(field.getAccessFlags().rawValue());
+			add(String.valueOf(field.getType()));
+			addAttr(field, AType.FIELD_INIT);
+			addAttr(field, AType.ANNOTATION_LIST);
+		}
+		add(cls.getMethods().size());
+		for (MethodNode mth : cls.getMethods()) {
+			add(mth.getMethodInfo().getShortId());
+			add(mth.getAccessFlags().rawValue());
+			addAttr(mth, AType.ANNOTATION_LIST);
+			addAttr(mth, AType.ANNOTATION_MTH_PARAMETERS);
+			addCode(mth.readCode());
+		}
+		add(cls.getInnerClasses().size());
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			addClass(innerCls);
+		}
+	}
+
+	private void addCode(@Nullable Code code) {
+		if (code == null) {
+			add(-1);
+			return;
+		}
+		add(code.getRegistersSize());
+		add(code.getInsSize());
+		add(code.getOutsSize());
+
+		short[] insnsData = code.getInstructions();
+		// replace indexes in instructions with resolved values,
+		// encoded instruction size not changed, so branch offsets are preserved
+		ShortArrayCodeOutput out = new ShortArrayCodeOutput(insnsData.length);
+		for (DecodedInstruction insn : DecodedInstruction.decodeAll(insnsData)) {
+			if (insn != null) {
+				IndexType indexType = insn.getIndexType();
+				if (indexType == null || indexType == IndexType.NONE || indexType == IndexType.UNKNOWN) {
+					// no index or payload pseudo-instruction
+					insn.encode(out);
+				} else {
+					addIndex(indexType, insn.getIndex());
+					insn.withIndex(0).encode(out);
+				}
+			}
+		}
+		for (short unit : out.getArray()) {
+			md.update((byte) unit);
+			md.update((byte) (unit >>> 8));
+		}
+
+		for (Try tryItem : code.getTries()) {
+			add(tryItem.getStartAddress());
+			add(tryItem.getInstructionCount());
+			add(tryItem.getCatchHandlerIndex());
+		}
+		for (CatchHandler handler : code.getCatchHandlers()) {
+			for (int typeIndex : handler.getTypeIndexes()) {
+				add(String.valueOf(dex.getType(typeIndex)));
+			}
+			for (int addr : handler.getAddresses()) {
+				add(addr);
+			}
+			add(handler.getCatchAllAddress());
+		}
+		int debugInfoOffset = code.getDebugInfoOffset();
+		if (debugInfoOffset != 0) {
+			addDebugInfo(dex.openSection(debugInfoOffset));
+		}
+	}
+
+	private void addIndex(IndexType indexType, int index) {
+		switch (indexType) {
+			case STRING_REF:
+				add(dex.getString(index));
+				break;
+			case TYPE_REF:
+				add(String.valueOf(dex.getType(index)));
+				break;
+			case FIELD_REF:
+				add(FieldInfo.fromDex(dex, index).getRawFullId());
+				break;
+			case METHOD_REF:
+				add(MethodInfo.fromDex(dex, index).getRawFullId());
+				break;
+			default:
+				// can't resolve, raw index depends on dex layout
+				throw new JadxRuntimeException("Unsupported index type: " + indexType);
+		}
+	}
+
+	private void addDebugInfo(Section section) {
+		add(section.readUleb128()); // line start
+		int paramsCount = section.readUleb128();
+		for (int i = 0; i < paramsCount; i++) {
+			addStringRef(section.readUleb128p1());
+		}
+		int c = section.readByte() & 0xFF;
+		while (c != DBG_END_SEQUENCE) {
+			add(c);
+			switch (c) {
+				case DBG_ADVANCE_PC:
+				case DBG_END_LOCAL:
+				case DBG_RESTART_LOCAL:
+					add(section.readUleb128());
+					break;
+				case DBG_ADVANCE_LINE:
+					add(section.readSleb128());
+					break;
+				case DBG_START_LOCAL:
+					add(section.readUleb128());
+					addStringRef(section.readUleb128p1());
+					addTypeRef(section.readUleb128p1());
+					break;
+				case DBG_START_LOCAL_EXTENDED:
+					add(section.readUleb128());
+					addStringRef(section.readUleb128p1());
+					addTypeRef(section.readUleb128p1());
+					addStringRef(section.readUleb128p1());
+					break;
+				case DBG_SET_FILE:
+					addStringRef(section.readUleb128p1());
+					break;
+				default:
+					// special opcodes and prologue/epilogue markers don't have arguments
+					break;
+			}
+			c = section.readByte() & 0xFF;
+		}
+	}
+
+	private void addStringRef(int index) {
+		add(String.valueOf(dex.getString(index)));
+	}
+
+	private void addTypeRef(int index) {
+		add(String.valueOf(dex.getType(index)));
+	}
+
+	private void addAttr(AttrNode node, AType<?> type) {
+		add(String.valueOf(node.get(type)));
+	}
+
+	private void add(String str) {
+		md.update(str.getBytes(StandardCharsets.UTF_8));
+		md.update((byte) 0);
+	}
+
+	private void add(int value) {
+		md.update((byte) value);
+		md.update((byte) (value >>> 8));
+		md.update((byte) (value >>> 16));
+		md.update((byte) (value >>> 24));
+	}
+}
@@ -0,0 +1,571 @@
+package jadx.core.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.CodePosition;
+import jadx.api.ICodeInfo;
+import jadx.api.JadxArgs;
+import jadx.core.Jadx;
+import jadx.core.codegen.CodeAnnotations;
+import jadx.core.codegen.CodeWriter;
+import jadx.core.codegen.LineMapping;
+import jadx.core.codegen.TypeGen;
+import jadx.core.dex.attributes.AFlag;
+import jadx.core.dex.attributes.nodes.LineAttrNode;
+import jadx.core.dex.info.ClassInfo;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+
+/**
+ * Persistent storage for generated class code.
+ * <p>
+ * Entry stored in directory for current jadx version and code generation options,
+ * file name is a class fingerprint (see {@link ClassFingerprint}).
+ * Entry also contains fingerprints of all classes reachable through dependencies (transitive closure)
+ * and used only if all of them not changed.
+ * Fingerprints for this check also include fingerprints of all super types
+ * (see {@link #calcHierarchyFingerprint(ClassNode)}), because processing uses class hierarchy.
+ * Total size limited by {@link JadxArgs#getCodeCacheSizeLimit()}, see {@link #cleanup()}.
+ */
+public class DiskCodeCache {
+	private static final Logger LOG = LoggerFactory.getLogger(DiskCodeCache.class);
+
+	private static final int FORMAT_VERSION = 2;
+	private static final String ENTRY_EXT = ".jcc";
+
+	private static final byte REF_CLASS = 0;
+	private static final byte REF_METHOD = 1;
+	private static final byte REF_FIELD = 2;
+
+	private final RootNode root;
+	private final Path baseDir;
+	private final Path cacheDir;
+	private final long sizeLimit;
+	private final AtomicLong cacheSize = new AtomicLong();
+	private final Map<ClassNode, String> fingerprints = new HashMap<>();
+	private final Map<ClassNode, String> hierarchyFingerprints = new HashMap<>();
+
+	public DiskCodeCache(RootNode root, File baseDir) {
+		this.root = root;
+		this.baseDir = baseDir.toPath();
+		String optionsHash = ClassFingerprint.hash(buildOptionsKey(root.getArgs()));
+		this.cacheDir = this.baseDir.resolve(optionsHash);
+		this.sizeLimit = root.getArgs().getCodeCacheSizeLimit() * 1024L * 1024L;
+	}
+
+	/**
+	 * Calculate fingerprints for top classes, must be called before any class processing.
+	 */
+	public void init(List<ClassNode> classes) {
+		for (ClassNode cls : classes) {
+			String fingerprint = ClassFingerprint.calc(cls);
+			if (fingerprint != null) {
+				fingerprints.put(cls, fingerprint);
+			}
+		}
+		for (ClassNode cls : classes) {
+			calcHierarchyFingerprint(cls);
+		}
+		if (sizeLimit > 0) {
+			cleanup();
+		}
+	}
+
+	/**
+	 * Class fingerprint combined with fingerprints of super types (including super types of inner classes).
+	 *
+	 * @return null if fingerprint of class or one of super types not available
+	 */
+	@Nullable
+	private String calcHierarchyFingerprint(ClassNode cls) {
+		if (hierarchyFingerprints.containsKey(cls)) {
+			return hierarchyFingerprints.get(cls);
+		}
+		// protect from cycles in broken hierarchy
+		hierarchyFingerprints.put(cls, null);
+		String fingerprint = fingerprints.get(cls);
+		if (fingerprint == null) {
+			return null;
+		}
+		List<ArgType> superTypes = new ArrayList<>();
+		collectSuperTypes(cls, superTypes);
+		StringBuilder sb = new StringBuilder(fingerprint);
+		for (ArgType superType : superTypes) {
+			ClassNode superCls = root.resolveClass(ClassInfo.fromType(root, superType));
+			if (superCls == null) {
+				// class from classpath, not changed for same jadx version
+				continue;
+			}
+			ClassNode topSuperCls = superCls.getTopParentClass();
+			if (topSuperCls == cls) {
+				continue;
+			}
+			String superFingerprint = calcHierarchyFingerprint(topSuperCls);
+			if (superFingerprint == null) {
+				return null;
+			}
+			sb.append(':').append(topSuperCls.getRawName()).append('=').append(superFingerprint);
+		}
+		String hierarchyFingerprint = ClassFingerprint.hash(sb.toString());
+		hierarchyFingerprints.put(cls, hierarchyFingerprint);
+		return hierarchyFingerprint;
+	}
+
+	private static void collectSuperTypes(ClassNode cls, List<ArgType> superTypes) {
+		if (cls.getSuperClass() != null) {
+			superTypes.add(cls.getSuperClass());
+		}
+		superTypes.addAll(cls.getInterfaces());
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			collectSuperTypes(innerCls, superTypes);
+		}
+	}
+
+	/**
+	 * Collect class and all classes reachable through dependencies with hierarchy fingerprints
+	 *
+	 * @return null if one of fingerprints not available
+	 */
+	@Nullable
+	private Map<ClassNode, String> collectCheckedClasses(ClassNode cls) {
+		Map<ClassNode, String> checked = new LinkedHashMap<>();
+		Deque<ClassNode> queue = new ArrayDeque<>();
+		queue.add(cls);
+		while (!queue.isEmpty()) {
+			ClassNode next = queue.poll();
+			if (checked.containsKey(next)) {
+				continue;
+			}
+			String fingerprint = hierarchyFingerprints.get(next);
+			if (fingerprint == null) {
+				return null;
+			}
+			checked.put(next, fingerprint);
+			queue.addAll(next.getDependencies());
+		}
+		return checked;
+	}
+
+	@Nullable
+	public ICodeInfo load(ClassNode cls) {
+		String fingerprint = fingerprints.get(cls);
+		if (fingerprint == null) {
+			return null;
+		}
+		Path entryPath = getEntryPath(fingerprint);
+		if (!Files.exists(entryPath)) {
+			return null;
+		}
+		ICodeInfo codeInfo;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entryPath)))) {
+			codeInfo = readEntry(cls, in);
+		} catch (Exception e) {
+			LOG.warn("Failed to read code cache entry for class: {}", cls, e);
+			return null;
+		}
+		touch(entryPath);
+		return codeInfo;
+	}
+
+	/**
+	 * Last modified time used as last access time for remove of least recently used entries
+	 */
+	private static void touch(Path entryPath) {
+		try {
+			Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (Exception e) {
+			LOG.debug("Failed to update code cache entry time: {}", entryPath, e);
+		}
+	}
+
+	public void save(ClassNode cls, ICodeInfo codeInfo) {
+		String fingerprint = fingerprints.get(cls);
+		if (fingerprint == null || codeInfo == CodeWriter.EMPTY) {
+			return;
+		}
+		if (isTimeLimitReached(cls)) {
+			return;
+		}
+		Map<ClassNode, String> checkedClasses = collectCheckedClasses(cls);
+		if (checkedClasses == null) {
+			return;
+		}
+		Path entryPath = getEntryPath(fingerprint);
+		try {
+			Path entryDir = entryPath.getParent();
+			Files.createDirectories(entryDir);
+			// write to temp file and move to allow concurrent access from several jadx instances
+			Path tmpPath = Files.createTempFile(entryDir, fingerprint, ".tmp");
+			try {
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+					writeEntry(cls, codeInfo, checkedClasses, out);
+				}
+				Files.move(tmpPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tmpPath);
+			}
+			if (sizeLimit > 0 && cacheSize.addAndGet(Files.size(entryPath)) > sizeLimit) {
+				cleanup();
+			}
+		} catch (Exception e) {
+			LOG.warn("Failed to save code cache entry for class: {}", cls, e);
+		}
+	}
+
+	/**
+	 * Remove least recently used entries of all jadx versions and options if cache size exceeds limit.
+	 * Cache reduced to 3/4 of limit to not repeat this check on every save.
+	 */
+	private synchronized void cleanup() {
+		if (!Files.isDirectory(baseDir)) {
+			cacheSize.set(0);
+			return;
+		}
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(baseDir)) {
+			files = stream.filter(file -> file.getFileName().toString().endsWith(ENTRY_EXT))
+					.collect(Collectors.toList());
+		} catch (Exception e) {
+			LOG.warn("Failed to check code cache size: {}", baseDir, e);
+			return;
+		}
+		List<CacheEntry> entries = new ArrayList<>(files.size());
+		long total = 0;
+		for (Path file : files) {
+			try {
+				BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+				entries.add(new CacheEntry(file, attrs.size(), attrs.lastModifiedTime().toMillis()));
+				total += attrs.size();
+			} catch (IOException e) {
+				// removed by other jadx instance
+			}
+		}
+		if (total > sizeLimit) {
+			long target = sizeLimit / 4 * 3;
+			entries.sort(Comparator.comparingLong(entry -> entry.lastModified));
+			int removed = 0;
+			for (CacheEntry entry : entries) {
+				if (total <= target) {
+					break;
+				}
+				try {
+					Files.deleteIfExists(entry.path);
+					total -= entry.size;
+					removed++;
+				} catch (IOException e) {
+					LOG.debug("Failed to remove code cache entry: {}", entry.path, e);
+				}
+			}
+			LOG.debug("Code cache size limit reached, removed entries: {}", removed);
+		}
+		cacheSize.set(total);
+	}
+
+	private static final class CacheEntry {
+		private final Path path;
+		private final long size;
+		private final long lastModified;
+
+		private CacheEntry(Path path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+	}
+
+	/**
+	 * Method time limit depends on machine load, so don't keep fallback code from such run
+	 */
+	private static boolean isTimeLimitReached(ClassNode cls) {
+		for (MethodNode mth : cls.getMethods()) {
+			if (mth.contains(AFlag.TIME_LIMIT_REACHED)) {
+				return true;
+			}
+		}
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			if (isTimeLimitReached(innerCls)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Path getEntryPath(String fingerprint) {
+		return cacheDir.resolve(fingerprint.substring(0, 2)).resolve(fingerprint + ENTRY_EXT);
+	}
+
+	private void writeEntry(ClassNode cls, ICodeInfo codeInfo, Map<ClassNode, String> checkedClasses,
+			DataOutputStream out) throws IOException {
+		out.writeInt(FORMAT_VERSION);
+		writeString(out, codeInfo.getCodeStr());
+
+		Map<Integer, Integer> lineMapping = codeInfo.getLineMapping();
+		out.writeInt(lineMapping.size());
+		for (Map.Entry<Integer, Integer> entry : lineMapping.entrySet()) {
+			out.writeInt(entry.getKey());
+			out.writeInt(entry.getValue());
+		}
+
+		out.writeInt(checkedClasses.size());
+		for (Map.Entry<ClassNode, String> entry : checkedClasses.entrySet()) {
+			out.writeUTF(entry.getKey().getRawName());
+			out.writeUTF(entry.getValue());
+		}
+		List<ClassNode> deps = cls.getDependencies();
+		out.writeInt(deps.size());
+		for (ClassNode dep : deps) {
+			out.writeUTF(dep.getRawName());
+		}
+
+		List<Map.Entry<CodePosition, Object>> annotations = new ArrayList<>();
+		for (Map.Entry<CodePosition, Object> entry : codeInfo.getAnnotations().entrySet()) {
+			// instructions not stored, only references to class nodes
+			Object value = entry.getValue();
+			if (value instanceof ClassNode || value instanceof MethodNode || value instanceof FieldNode) {
+				annotations.add(entry);
+			}
+		}
+		out.writeInt(annotations.size());
+		for (Map.Entry<CodePosition, Object> entry : annotations) {
+			CodePosition pos = entry.getKey();
+			out.writeInt(pos.getLine());
+			out.writeInt(pos.getOffset());
+			writeNodeRef(out, (LineAttrNode) entry.getValue());
+		}
+
+		List<LineAttrNode> nodes = new ArrayList<>();
+		collectNodes(cls, nodes);
+		List<LineAttrNode> definitions = new ArrayList<>();
+		List<LineAttrNode> skipped = new ArrayList<>();
+		for (LineAttrNode node : nodes) {
+			if (node.getDecompiledLine() != 0) {
+				definitions.add(node);
+			}
+			if (node.contains(AFlag.DONT_GENERATE)) {
+				skipped.add(node);
+			}
+		}
+		out.writeInt(definitions.size());
+		for (LineAttrNode node : definitions) {
+			writeNodeRef(out, node);
+			out.writeInt(node.getDecompiledLine());
+		}
+		out.writeInt(skipped.size());
+		for (LineAttrNode node : skipped) {
+			writeNodeRef(out, node);
+		}
+	}
+
+	@Nullable
+	private ICodeInfo readEntry(ClassNode cls, DataInputStream in) throws IOException {
+		if (in.readInt() != FORMAT_VERSION) {
+			return null;
+		}
+		String code = readString(in);
+
+		int linesCount = in.readInt();
+		Map<Integer, Integer> lineMapping;
+		if (linesCount == 0) {
+			lineMapping = Collections.emptyMap();
+		} else {
+			LineMapping map = new LineMapping(linesCount);
+			for (int i = 0; i < linesCount; i++) {
+				map.add(in.readInt(), in.readInt());
+			}
+			lineMapping = map;
+		}
+
+		int checkedCount = in.readInt();
+		for (int i = 0; i < checkedCount; i++) {
+			ClassNode checkedCls = resolveClass(in.readUTF());
+			String fingerprint = in.readUTF();
+			if (checkedCls == null || !fingerprint.equals(hierarchyFingerprints.get(checkedCls))) {
+				// class itself, super type or dependency (direct or transitive) changed
+				return null;
+			}
+		}
+		int depsCount = in.readInt();
+		List<ClassNode> deps = new ArrayList<>(depsCount);
+		for (int i = 0; i < depsCount; i++) {
+			ClassNode dep = resolveClass(in.readUTF());
+			if (dep == null) {
+				return null;
+			}
+			deps.add(dep);
+		}
+
+		int annCount = in.readInt();
+		CodeAnnotations annotations = new CodeAnnotations(annCount);
+		for (int i = 0; i < annCount; i++) {
+			int line = in.readInt();
+			int offset = in.readInt();
+			LineAttrNode node = readNodeRef(in);
+			if (node == null) {
+				return null;
+			}
+			annotations.add(line, offset, node);
+		}
+
+		int defCount = in.readInt();
+		List<LineAttrNode> definitions = new ArrayList<>(defCount);
+		int[] defLines = new int[defCount];
+		for (int i = 0; i < defCount; i++) {
+			LineAttrNode node = readNodeRef(in);
+			if (node == null) {
+				return null;
+			}
+			definitions.add(node);
+			defLines[i] = in.readInt();
+		}
+
+		int skippedCount = in.readInt();
+		List<LineAttrNode> skipped = new ArrayList<>(skippedCount);
+		for (int i = 0; i < skippedCount; i++) {
+			LineAttrNode node = readNodeRef(in);
+			if (node == null) {
+				return null;
+			}
+			skipped.add(node);
+		}
+
+		// entry is valid, apply class nodes changes usually made by processing and code generation
+		for (int i = 0; i < defCount; i++) {
+			definitions.get(i).setDecompiledLine(defLines[i]);
+		}
+		for (LineAttrNode node : skipped) {
+			node.add(AFlag.DONT_GENERATE);
+		}
+		cls.setDependencies(deps);
+		return new CachedCodeInfo(code, lineMapping, annotations);
+	}
+
+	private static void collectNodes(ClassNode cls, List<LineAttrNode> nodes) {
+		nodes.add(cls);
+		nodes.addAll(cls.getFields());
+		nodes.addAll(cls.getMethods());
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			collectNodes(innerCls, nodes);
+		}
+	}
+
+	private static void writeNodeRef(DataOutputStream out, LineAttrNode node) throws IOException {
+		if (node instanceof ClassNode) {
+			out.writeByte(REF_CLASS);
+			out.writeUTF(((ClassNode) node).getRawName());
+		} else if (node instanceof MethodNode) {
+			MethodNode mth = (MethodNode) node;
+			out.writeByte(REF_METHOD);
+			out.writeUTF(mth.getParentClass().getRawName());
+			out.writeUTF(mth.getMethodInfo().getShortId());
+		} else {
+			FieldNode field = (FieldNode) node;
+			out.writeByte(REF_FIELD);
+			out.writeUTF(field.getParentClass().getRawName());
+			out.writeUTF(getFieldId(field));
+		}
+	}
+
+	@Nullable
+	private LineAttrNode readNodeRef(DataInputStream in) throws IOException {
+		byte refType = in.readByte();
+		ClassNode cls = resolveClass(in.readUTF());
+		switch (refType) {
+			case REF_CLASS:
+				return cls;
+
+			case REF_METHOD: {
+				String shortId = in.readUTF();
+				return cls == null ? null : cls.searchMethodByShortId(shortId);
+			}
+
+			case REF_FIELD: {
+				String fieldId = in.readUTF();
+				if (cls != null) {
+					for (FieldNode field : cls.getFields()) {
+						if (getFieldId(field).equals(fieldId)) {
+							return field;
+						}
+					}
+				}
+				return null;
+			}
+
+			default:
+				throw new IOException("Unknown node reference type: " + refType);
+		}
+	}
+
+	@Nullable
+	private ClassNode resolveClass(String rawName) {
+		return root.resolveClass(ClassInfo.fromName(root, rawName));
+	}
+
+	private static String getFieldId(FieldNode field) {
+		return field.getFieldInfo().getName() + ':' + TypeGen.signature(field.getFieldInfo().getType());
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * All options which can change generated code
+	 */
+	public static String buildOptionsKey(JadxArgs args) {
+		return "format=" + FORMAT_VERSION
+				+ ", version=" + Jadx.getVersion()
+				+ ", outputFormat=" + args.getOutputFormat()
+				+ ", fallbackMode=" + args.isFallbackMode()
+				+ ", methodTimeLimit=" + args.getMethodTimeLimit()
+				+ ", showInconsistentCode=" + args.isShowInconsistentCode()
+				+ ", useImports=" + args.isUseImports()
+				+ ", debugInfo=" + args.isDebugInfo()
+				+ ", inlineAnonymousClasses=" + args.isInlineAnonymousClasses()
+				+ ", escapeUnicode=" + args.isEscapeUnicode()
+				+ ", replaceConsts=" + args.isReplaceConsts()
+				+ ", respectBytecodeAccModifiers=" + args.isRespectBytecodeAccModifiers()
+				+ ", fsCaseSensitive=" + args.isFsCaseSensitive()
+				+ ", renameCaseSensitive=" + args.isRenameCaseSensitive()
+				+ ", renameValid=" + args.isRenameValid()
+				+ ", renamePrintable=" + args.isRenamePrintable()
+				+ ", newLine=" + CodeWriter.NL;
+	}
+}
@@ -1,5 +1,6 @@
 package jadx.core.clsp;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
@@ -16,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -90,11 +92,11 @@ public class ClsSet {
 		k = 0;
 		for (ClassNode cls : list) {
 			if (cls.getAccessFlags().isPublic()) {
-				NClass nClass = getCls(cls.getRawName(), names);
+				NClass nClass = getCls(cls.getRawName(), names::get);
 				if (nClass == null) {
 					throw new JadxRuntimeException("Missing class: " + cls);
 				}
-				nClass.setParents(makeParentsArray(cls, names));
+				nClass.setParents(makeParentsArray(cls, names::get));
 				classes[k] = nClass;
 				k++;
 			}
@@ -140,17 +142,17 @@ public class ClsSet {
 		}
 	}
 
-	public static NClass[] makeParentsArray(ClassNode cls, Map<String, NClass> names) {
+	public static NClass[] makeParentsArray(ClassNode cls, Function<String, NClass> resolver) {
 		List<NClass> parents = new ArrayList<>(1 + cls.getInterfaces().size());
 		ArgType superClass = cls.getSuperClass();
 		if (superClass != null) {
-			NClass c = getCls(superClass.getObject(), names);
+			NClass c = getCls(superClass.getObject(), resolver);
 			if (c != null) {
 				parents.add(c);
 			}
 		}
 		for (ArgType iface : cls.getInterfaces()) {
-			NClass c = getCls(iface.getObject(), names);
+			NClass c = getCls(iface.getObject(), resolver);
 			if (c != null) {
 				parents.add(c);
 			}
@@ -162,8 +164,8 @@ public class ClsSet {
 		return parents.toArray(new NClass[size]);
 	}
 
-	private static NClass getCls(String fullName, Map<String, NClass> names) {
-		NClass cls = names.get(fullName);
+	private static NClass getCls(String fullName, Function<String, NClass> resolver) {
+		NClass cls = resolver.apply(fullName);
 		if (cls == null) {
 			LOG.debug("Class not found: {}", fullName);
 		}
@@ -332,7 +334,7 @@ public class ClsSet {
 	}
 
 	private void load(InputStream input) throws IOException, DecodeException {
-		try (DataInputStream in = new DataInputStream(input)) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(input))) {
 			byte[] header = new byte[JADX_CLS_SET_HEADER.length()];
 			int readHeaderLength = in.read(header);
 			int version = in.readByte();
@@ -487,6 +489,10 @@ public class ClsSet {
 		return new String(bytes, STRING_CHARSET);
 	}
 
+	NClass[] getClasses() {
+		return classes;
+	}
+
 	public int getClassesCount() {
 		return classes.length;
 	}
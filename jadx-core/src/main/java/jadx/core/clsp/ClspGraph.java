@@ -1,14 +1,18 @@
 package jadx.core.clsp;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -22,84 +26,227 @@ import jadx.core.utils.exceptions.JadxRuntimeException;
 
 /**
  * Classes hierarchy graph with methods additional info
+ * <p>
+ * Classes from bundled classpath file (android platform) loaded once and shared by all instances,
+ * application classes added to each graph separately and hide shared classes with same name.
+ * <p>
+ * Every class has dense integer id: classpath classes numbered from zero, application classes after them.
+ * Ancestors of class stored as sorted ids array (see {@link NClass#getAncestorIds()}),
+ * so hierarchy checks don't need names lookups.
  */
 public class ClspGraph {
 	private static final Logger LOG = LoggerFactory.getLogger(ClspGraph.class);
 
-	private final Map<String, Set<String>> ancestorCache = Collections.synchronizedMap(new WeakHashMap<>());
-	private Map<String, NClass> nameMap;
+	private static volatile BaseClasses sharedClasses;
 
-	private final Set<String> missingClasses = new HashSet<>();
+	private BaseClasses baseClasses;
+	private final Map<String, NClass> appClsMap = new HashMap<>();
+	private List<NClass> appClasses = Collections.emptyList();
+	/**
+	 * Application classes implementing class with name from key
+	 */
+	private Map<String, List<String>> appImplementations = Collections.emptyMap();
+
+	private final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Immutable classes set with lazy built reverse implementations index, can be shared between graphs
+	 */
+	private static final class BaseClasses {
+		private final Map<String, NClass> clsMap;
+		private final NClass[] classes;
+		private volatile int[][] implementations;
+
+		private BaseClasses(ClsSet set) {
+			Map<String, NClass> map = new HashMap<>(set.getClassesCount());
+			set.addToMap(map);
+			this.clsMap = Collections.unmodifiableMap(map);
+			this.classes = set.getClasses();
+		}
+
+		/**
+		 * @return ids of classes implementing class with specified id
+		 */
+		private int[] getImplementations(int id) {
+			int[][] arr = implementations;
+			if (arr == null) {
+				synchronized (this) {
+					arr = implementations;
+					if (arr == null) {
+						arr = buildImplementations();
+						implementations = arr;
+					}
+				}
+			}
+			return arr[id];
+		}
+
+		private int[][] buildImplementations() {
+			int count = classes.length;
+			int[] sizes = new int[count];
+			for (NClass cls : classes) {
+				for (int ancId : getAncestorIds(cls)) {
+					sizes[ancId]++;
+				}
+			}
+			int[][] arr = new int[count][];
+			for (int i = 0; i < count; i++) {
+				arr[i] = new int[sizes[i]];
+				sizes[i] = 0;
+			}
+			// classes iterated in ids order, so result arrays are sorted
+			for (NClass cls : classes) {
+				for (int ancId : getAncestorIds(cls)) {
+					arr[ancId][sizes[ancId]++] = cls.getId();
+				}
+			}
+			return arr;
+		}
+	}
 
 	public void load() throws IOException, DecodeException {
-		ClsSet set = new ClsSet();
-		set.loadFromClstFile();
-		addClasspath(set);
+		if (baseClasses != null) {
+			throw new JadxRuntimeException("Classpath already loaded");
+		}
+		baseClasses = getSharedClasses();
+	}
+
+	/**
+	 * Load bundled classpath on first call. Classes from this set must not be changed.
+	 */
+	private static BaseClasses getSharedClasses() throws IOException, DecodeException {
+		BaseClasses classes = sharedClasses;
+		if (classes == null) {
+			synchronized (ClspGraph.class) {
+				classes = sharedClasses;
+				if (classes == null) {
+					ClsSet set = new ClsSet();
+					set.loadFromClstFile();
+					classes = new BaseClasses(set);
+					sharedClasses = classes;
+				}
+			}
+		}
+		return classes;
 	}
 
 	public void addClasspath(ClsSet set) {
-		if (nameMap == null) {
-			nameMap = new HashMap<>(set.getClassesCount());
-			set.addToMap(nameMap);
+		if (baseClasses == null) {
+			baseClasses = new BaseClasses(set);
 		} else {
 			throw new JadxRuntimeException("Classpath already loaded");
 		}
 	}
 
 	public void addApp(List<ClassNode> classes) {
-		if (nameMap == null) {
+		if (baseClasses == null) {
 			throw new JadxRuntimeException("Classpath must be loaded first");
 		}
 		int size = classes.size();
-		NClass[] nClasses = new NClass[size];
-		int k = 0;
+		List<NClass> nClasses = new ArrayList<>(size);
+		int firstId = baseClasses.classes.length;
 		for (ClassNode cls : classes) {
-			nClasses[k++] = addClass(cls);
+			String rawName = cls.getRawName();
+			NClass nClass = new NClass(rawName, firstId + nClasses.size());
+			appClsMap.put(rawName, nClass);
+			nClasses.add(nClass);
 		}
 		for (int i = 0; i < size; i++) {
-			nClasses[i].setParents(ClsSet.makeParentsArray(classes.get(i), nameMap));
+			nClasses.get(i).setParents(ClsSet.makeParentsArray(classes.get(i), this::getCls));
+		}
+		appClasses = nClasses;
+		appImplementations = buildAppImplementations(nClasses);
+	}
+
+	private Map<String, List<String>> buildAppImplementations(List<NClass> nClasses) {
+		Map<String, List<String>> map = new HashMap<>();
+		for (NClass cls : nClasses) {
+			for (int ancId : getAncestorIds(cls)) {
+				String ancName = getClsById(ancId).getName();
+				map.computeIfAbsent(ancName, k -> new ArrayList<>()).add(cls.getName());
+			}
+		}
+		return map;
+	}
+
+	@Nullable
+	private NClass getCls(String fullName) {
+		NClass appCls = appClsMap.get(fullName);
+		if (appCls != null) {
+			return appCls;
+		}
+		return baseClasses.clsMap.get(fullName);
+	}
+
+	private NClass getClsById(int id) {
+		NClass[] classes = baseClasses.classes;
+		if (id < classes.length) {
+			return classes[id];
 		}
+		return appClasses.get(id - classes.length);
 	}
 
 	public boolean isClsKnown(String fullName) {
-		return nameMap.containsKey(fullName);
+		return getCls(fullName) != null;
 	}
 
 	public NClass getClsDetails(ArgType type) {
-		return nameMap.get(type.getObject());
+		return getCls(type.getObject());
 	}
 
 	@Nullable
 	public NMethod getMethodDetails(MethodInfo methodInfo) {
-		NClass cls = nameMap.get(methodInfo.getDeclClass().getRawName());
+		NClass cls = getCls(methodInfo.getDeclClass().getRawName());
 		if (cls == null) {
 			return null;
 		}
 		return cls.getMethodsMap().get(methodInfo.getShortId());
 	}
 
-	private NClass addClass(ClassNode cls) {
-		String rawName = cls.getRawName();
-		NClass nClass = new NClass(rawName, -1);
-		nameMap.put(rawName, nClass);
-		return nClass;
-	}
-
 	/**
 	 * @return {@code clsName} instanceof {@code implClsName}
 	 */
 	public boolean isImplements(String clsName, String implClsName) {
-		Set<String> anc = getAncestors(clsName);
-		return anc.contains(implClsName);
+		NClass cls = getCls(clsName);
+		if (cls == null) {
+			missingClasses.add(clsName);
+			return false;
+		}
+		return isImplements(getAncestorIds(cls), implClsName);
+	}
+
+	/**
+	 * Check by name: application class can hide classpath class with same name,
+	 * but classpath classes still reference hidden one.
+	 */
+	private boolean isImplements(int[] ancestorIds, String implClsName) {
+		NClass implCls = getCls(implClsName);
+		if (implCls == null) {
+			return false;
+		}
+		if (Arrays.binarySearch(ancestorIds, implCls.getId()) >= 0) {
+			return true;
+		}
+		NClass baseCls = baseClasses.clsMap.get(implClsName);
+		return baseCls != null && baseCls != implCls
+				&& Arrays.binarySearch(ancestorIds, baseCls.getId()) >= 0;
 	}
 
 	public List<String> getImplementations(String clsName) {
 		List<String> list = new ArrayList<>();
-		for (String cls : nameMap.keySet()) {
-			if (isImplements(cls, clsName)) {
-				list.add(cls);
+		NClass baseCls = baseClasses.clsMap.get(clsName);
+		if (baseCls != null) {
+			for (int id : baseClasses.getImplementations(baseCls.getId())) {
+				String name = baseClasses.classes[id].getName();
+				if (!appClsMap.containsKey(name)) {
+					list.add(name);
+				}
 			}
 		}
+		List<String> appList = appImplementations.get(clsName);
+		if (appList != null) {
+			list.addAll(appList);
+		}
 		return list;
 	}
 
@@ -107,48 +254,97 @@ public class ClspGraph {
 		if (clsName.equals(implClsName)) {
 			return clsName;
 		}
-		NClass cls = nameMap.get(implClsName);
+		NClass implCls = getCls(implClsName);
+		if (implCls == null) {
+			missingClasses.add(clsName);
+			return null;
+		}
+		NClass cls = getCls(clsName);
 		if (cls == null) {
 			missingClasses.add(clsName);
 			return null;
 		}
-		if (isImplements(clsName, implClsName)) {
+		int[] ancestorIds = getAncestorIds(cls);
+		if (isImplements(ancestorIds, implClsName)) {
 			return implClsName;
 		}
-		Set<String> anc = getAncestors(clsName);
-		return searchCommonParent(anc, cls);
+		return searchCommonParent(ancestorIds, implCls);
 	}
 
-	private String searchCommonParent(Set<String> anc, NClass cls) {
-		for (NClass p : cls.getParents()) {
-			String name = p.getName();
-			if (anc.contains(name)) {
-				return name;
+	/**
+	 * Depth-first search in parents of {@code implCls} for first class from {@code ancestorIds}
+	 */
+	@Nullable
+	private String searchCommonParent(int[] ancestorIds, NClass implCls) {
+		Set<NClass> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<NClass> stack = new ArrayDeque<>();
+		pushParents(stack, implCls);
+		while (!stack.isEmpty()) {
+			NClass p = stack.pop();
+			if (!visited.add(p)) {
+				continue;
 			}
-			String r = searchCommonParent(anc, p);
-			if (r != null) {
-				return r;
+			if (isImplements(ancestorIds, p.getName())) {
+				return p.getName();
 			}
+			pushParents(stack, p);
 		}
 		return null;
 	}
 
-	public Set<String> getAncestors(String clsName) {
-		Set<String> result = ancestorCache.get(clsName);
-		if (result != null) {
-			return result;
+	private static void pushParents(Deque<NClass> stack, NClass cls) {
+		NClass[] parents = cls.getParents();
+		for (int i = parents.length - 1; i >= 0; i--) {
+			stack.push(parents[i]);
+		}
+	}
+
+	/**
+	 * Sorted ids of all ancestors including class itself, cached in class node.
+	 * Hierarchy loops are allowed (can be found in obfuscated code).
+	 */
+	static int[] getAncestorIds(NClass cls) {
+		int[] ids = cls.getAncestorIds();
+		if (ids != null) {
+			return ids;
+		}
+		Set<NClass> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<NClass> stack = new ArrayDeque<>();
+		stack.push(cls);
+		while (!stack.isEmpty()) {
+			NClass c = stack.pop();
+			if (visited.add(c)) {
+				for (NClass p : c.getParents()) {
+					stack.push(p);
+				}
+			}
+		}
+		ids = new int[visited.size()];
+		int k = 0;
+		for (NClass c : visited) {
+			ids[k++] = c.getId();
 		}
-		NClass cls = nameMap.get(clsName);
+		Arrays.sort(ids);
+		cls.setAncestorIds(ids);
+		return ids;
+	}
+
+	public Set<String> getAncestors(String clsName) {
+		NClass cls = getCls(clsName);
 		if (cls == null) {
 			missingClasses.add(clsName);
 			return Collections.emptySet();
 		}
+		Set<String> result = cls.getAncestors();
+		if (result != null) {
+			return result;
+		}
 		result = new HashSet<>();
 		addAncestorsNames(cls, result);
 		if (result.isEmpty()) {
 			result = Collections.emptySet();
 		}
-		ancestorCache.put(clsName, result);
+		cls.setAncestors(result);
 		return result;
 	}
 
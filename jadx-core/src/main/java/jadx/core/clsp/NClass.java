@@ -6,6 +6,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
 
 import jadx.core.dex.nodes.GenericInfo;
 
@@ -19,6 +22,8 @@ public class NClass {
 	private NClass[] parents;
 	private Map<String, NMethod> methodsMap = Collections.emptyMap();
 	private List<GenericInfo> generics = Collections.emptyList();
+	private volatile Set<String> ancestors;
+	private volatile int[] ancestorIds;
 
 	public NClass(String name, int id) {
 		this.name = name;
@@ -72,6 +77,30 @@ public class NClass {
 		this.generics = generics;
 	}
 
+	/**
+	 * Cached ancestors names, computed by {@link ClspGraph#getAncestors(String)}
+	 */
+	@Nullable
+	public Set<String> getAncestors() {
+		return ancestors;
+	}
+
+	public void setAncestors(Set<String> ancestors) {
+		this.ancestors = ancestors;
+	}
+
+	/**
+	 * Cached sorted ids of ancestors, computed by {@link ClspGraph}
+	 */
+	@Nullable
+	public int[] getAncestorIds() {
+		return ancestorIds;
+	}
+
+	public void setAncestorIds(int[] ancestorIds) {
+		this.ancestorIds = ancestorIds;
+	}
+
 	@Override
 	public int hashCode() {
 		return name.hashCode();
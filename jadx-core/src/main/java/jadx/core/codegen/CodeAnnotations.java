@@ -0,0 +1,171 @@
+package jadx.core.codegen;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.api.CodePosition;
+
+/**
+ * Code annotations stored in sorted arrays: position packed into {@code long} ('line' in high bits, 'offset' in low),
+ * values in parallel array. Lookup by position use binary search.
+ * <p>
+ * Annotations mostly added in code order, so insertion usually is just append.
+ * Map view is read only, {@link CodePosition} objects created only on iteration.
+ */
+public final class CodeAnnotations extends AbstractMap<CodePosition, Object> {
+	private static final int INITIAL_CAPACITY = 8;
+
+	private long[] positions;
+	private Object[] values;
+	private int size;
+
+	public CodeAnnotations() {
+		this(INITIAL_CAPACITY);
+	}
+
+	public CodeAnnotations(int capacity) {
+		this.positions = new long[capacity];
+		this.values = new Object[capacity];
+	}
+
+	private static long pack(int line, int offset) {
+		return (long) line << 32 | offset & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Add annotation, replace previous value at same position
+	 */
+	public void add(int line, int offset, Object value) {
+		long pos = pack(line, offset);
+		int count = size;
+		if (count == 0 || positions[count - 1] < pos) {
+			ensureCapacity(count + 1);
+			positions[count] = pos;
+			values[count] = value;
+			size++;
+			return;
+		}
+		int idx = Arrays.binarySearch(positions, 0, count, pos);
+		if (idx >= 0) {
+			values[idx] = value;
+			return;
+		}
+		int insertAt = -idx - 1;
+		ensureCapacity(count + 1);
+		System.arraycopy(positions, insertAt, positions, insertAt + 1, count - insertAt);
+		System.arraycopy(values, insertAt, values, insertAt + 1, count - insertAt);
+		positions[insertAt] = pos;
+		values[insertAt] = value;
+		size++;
+	}
+
+	@Nullable
+	public Object get(int line, int offset) {
+		int idx = Arrays.binarySearch(positions, 0, size, pack(line, offset));
+		return idx >= 0 ? values[idx] : null;
+	}
+
+	int getLine(int index) {
+		return (int) (positions[index] >>> 32);
+	}
+
+	int getOffset(int index) {
+		return (int) positions[index];
+	}
+
+	Object getValue(int index) {
+		return values[index];
+	}
+
+	interface EntryFilter {
+		boolean test(int line, Object value);
+	}
+
+	/**
+	 * Remove entries accepted by filter and release unused capacity
+	 */
+	void removeIf(EntryFilter filter) {
+		int k = 0;
+		for (int i = 0; i < size; i++) {
+			Object value = values[i];
+			if (!filter.test(getLine(i), value)) {
+				positions[k] = positions[i];
+				values[k] = value;
+				k++;
+			}
+		}
+		size = k;
+		positions = Arrays.copyOf(positions, k);
+		values = Arrays.copyOf(values, k);
+	}
+
+	private void ensureCapacity(int capacity) {
+		int len = positions.length;
+		if (capacity > len) {
+			int newLen = Math.max(capacity, len + (len >> 1) + 1);
+			positions = Arrays.copyOf(positions, newLen);
+			values = Arrays.copyOf(values, newLen);
+		}
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (key instanceof CodePosition) {
+			CodePosition pos = (CodePosition) key;
+			return get(pos.getLine(), pos.getOffset());
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (key instanceof CodePosition) {
+			CodePosition pos = (CodePosition) key;
+			return Arrays.binarySearch(positions, 0, size, pack(pos.getLine(), pos.getOffset())) >= 0;
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Set<Entry<CodePosition, Object>> entrySet() {
+		return new AbstractSet<Entry<CodePosition, Object>>() {
+			@Override
+			public Iterator<Entry<CodePosition, Object>> iterator() {
+				return new Iterator<Entry<CodePosition, Object>>() {
+					private int index = 0;
+
+					@Override
+					public boolean hasNext() {
+						return index < size;
+					}
+
+					@Override
+					public Entry<CodePosition, Object> next() {
+						if (index >= size) {
+							throw new NoSuchElementException();
+						}
+						int i = index++;
+						CodePosition pos = new CodePosition(getLine(i), getOffset(i));
+						return new AbstractMap.SimpleImmutableEntry<>(pos, values[i]);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+}
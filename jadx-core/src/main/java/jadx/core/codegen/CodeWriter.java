@@ -3,9 +3,7 @@ package jadx.core.codegen;
 import java.io.File;
 import java.io.PrintWriter;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -45,8 +43,10 @@ public class CodeWriter implements ICodeInfo {
 
 	private int line = 1;
 	private int offset = 0;
-	private Map<CodePosition, Object> annotations = Collections.emptyMap();
-	private Map<Integer, Integer> lineMap = Collections.emptyMap();
+	@Nullable
+	private CodeAnnotations annotations;
+	@Nullable
+	private LineMapping lineMap;
 
 	public CodeWriter() {
 		this.buf = new StringBuilder();
@@ -129,12 +129,17 @@ public class CodeWriter implements ICodeInfo {
 
 	CodeWriter add(CodeWriter code) {
 		line--;
-		for (Map.Entry<CodePosition, Object> entry : code.annotations.entrySet()) {
-			CodePosition pos = entry.getKey();
-			attachAnnotation(entry.getValue(), new CodePosition(line + pos.getLine(), pos.getOffset()));
+		CodeAnnotations codeAnnotations = code.annotations;
+		if (codeAnnotations != null) {
+			for (int i = 0; i < codeAnnotations.size(); i++) {
+				attachAnnotation(codeAnnotations.getValue(i), line + codeAnnotations.getLine(i), codeAnnotations.getOffset(i));
+			}
 		}
-		for (Map.Entry<Integer, Integer> entry : code.lineMap.entrySet()) {
-			attachSourceLine(line + entry.getKey(), entry.getValue());
+		LineMapping codeLineMap = code.lineMap;
+		if (codeLineMap != null) {
+			for (int i = 0; i < codeLineMap.size(); i++) {
+				attachSourceLine(line + codeLineMap.getLine(i), codeLineMap.getSourceLineAt(i));
+			}
 		}
 		line += code.line;
 		offset = code.offset;
@@ -226,29 +231,41 @@ public class CodeWriter implements ICodeInfo {
 
 	public void attachDefinition(LineAttrNode obj) {
 		attachAnnotation(obj);
-		attachAnnotation(new DefinitionWrapper(obj), new CodePosition(line, offset));
+		attachAnnotation(new DefinitionWrapper(obj), line, offset);
 	}
 
 	public void attachAnnotation(Object obj) {
-		attachAnnotation(obj, new CodePosition(line, offset + 1));
+		attachAnnotation(obj, line, offset + 1);
 	}
 
 	public void attachLineAnnotation(Object obj) {
-		attachAnnotation(obj, new CodePosition(line, 0));
+		attachAnnotation(obj, line, 0);
 	}
 
-	private Object attachAnnotation(Object obj, CodePosition pos) {
-		if (annotations.isEmpty()) {
-			annotations = new HashMap<>();
+	private void attachAnnotation(Object obj, int annLine, int annOffset) {
+		if (annotations == null) {
+			annotations = new CodeAnnotations();
 		}
-		return annotations.put(pos, obj);
+		annotations.add(annLine, annOffset, obj);
 	}
 
 	@Override
 	public Map<CodePosition, Object> getAnnotations() {
+		if (annotations == null) {
+			return Collections.emptyMap();
+		}
 		return annotations;
 	}
 
+	@Nullable
+	@Override
+	public Object getAnnotationAt(int line, int offset) {
+		if (annotations == null) {
+			return null;
+		}
+		return annotations.get(line, offset);
+	}
+
 	public void attachSourceLine(int sourceLine) {
 		if (sourceLine == 0) {
 			return;
@@ -257,32 +274,38 @@ public class CodeWriter implements ICodeInfo {
 	}
 
 	private void attachSourceLine(int decompiledLine, int sourceLine) {
-		if (lineMap.isEmpty()) {
-			lineMap = new TreeMap<>();
+		if (lineMap == null) {
+			lineMap = new LineMapping();
 		}
-		lineMap.put(decompiledLine, sourceLine);
+		lineMap.add(decompiledLine, sourceLine);
 	}
 
 	@Override
 	public Map<Integer, Integer> getLineMapping() {
+		if (lineMap == null) {
+			return Collections.emptyMap();
+		}
 		return lineMap;
 	}
 
 	public CodeWriter finish() {
 		removeFirstEmptyLine();
-		buf.trimToSize();
 		code = buf.toString();
 		buf = null;
 
-		annotations.entrySet().removeIf(entry -> {
-			Object v = entry.getValue();
-			if (v instanceof DefinitionWrapper) {
-				LineAttrNode l = ((DefinitionWrapper) v).getNode();
-				l.setDecompiledLine(entry.getKey().getLine());
-				return true;
-			}
-			return false;
-		});
+		if (annotations != null) {
+			annotations.removeIf((annLine, value) -> {
+				if (value instanceof DefinitionWrapper) {
+					LineAttrNode l = ((DefinitionWrapper) value).getNode();
+					l.setDecompiledLine(annLine);
+					return true;
+				}
+				return false;
+			});
+		}
+		if (lineMap != null) {
+			lineMap.trimToSize();
+		}
 		return this;
 	}
 
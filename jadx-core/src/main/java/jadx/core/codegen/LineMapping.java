@@ -0,0 +1,139 @@
+package jadx.core.codegen;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Decompiled line to source line mapping stored in sorted primitive arrays.
+ * Map view is read only and iterated in decompiled lines order.
+ */
+public final class LineMapping extends AbstractMap<Integer, Integer> {
+	private static final int INITIAL_CAPACITY = 8;
+
+	private int[] lines;
+	private int[] sourceLines;
+	private int size;
+
+	public LineMapping() {
+		this(INITIAL_CAPACITY);
+	}
+
+	public LineMapping(int capacity) {
+		this.lines = new int[capacity];
+		this.sourceLines = new int[capacity];
+	}
+
+	/**
+	 * Add mapping, replace previous source line for same decompiled line
+	 */
+	public void add(int line, int sourceLine) {
+		int count = size;
+		if (count == 0 || lines[count - 1] < line) {
+			ensureCapacity(count + 1);
+			lines[count] = line;
+			sourceLines[count] = sourceLine;
+			size++;
+			return;
+		}
+		int idx = Arrays.binarySearch(lines, 0, count, line);
+		if (idx >= 0) {
+			sourceLines[idx] = sourceLine;
+			return;
+		}
+		int insertAt = -idx - 1;
+		ensureCapacity(count + 1);
+		System.arraycopy(lines, insertAt, lines, insertAt + 1, count - insertAt);
+		System.arraycopy(sourceLines, insertAt, sourceLines, insertAt + 1, count - insertAt);
+		lines[insertAt] = line;
+		sourceLines[insertAt] = sourceLine;
+		size++;
+	}
+
+	/**
+	 * @return source line or 0 if not found
+	 */
+	public int getSourceLine(int line) {
+		int idx = Arrays.binarySearch(lines, 0, size, line);
+		return idx >= 0 ? sourceLines[idx] : 0;
+	}
+
+	int getLine(int index) {
+		return lines[index];
+	}
+
+	int getSourceLineAt(int index) {
+		return sourceLines[index];
+	}
+
+	void trimToSize() {
+		if (lines.length != size) {
+			lines = Arrays.copyOf(lines, size);
+			sourceLines = Arrays.copyOf(sourceLines, size);
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		int len = lines.length;
+		if (capacity > len) {
+			int newLen = Math.max(capacity, len + (len >> 1) + 1);
+			lines = Arrays.copyOf(lines, newLen);
+			sourceLines = Arrays.copyOf(sourceLines, newLen);
+		}
+	}
+
+	@Override
+	public Integer get(Object key) {
+		if (key instanceof Integer) {
+			int idx = Arrays.binarySearch(lines, 0, size, (Integer) key);
+			if (idx >= 0) {
+				return sourceLines[idx];
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Integer && Arrays.binarySearch(lines, 0, size, (Integer) key) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Set<Entry<Integer, Integer>> entrySet() {
+		return new AbstractSet<Entry<Integer, Integer>>() {
+			@Override
+			public Iterator<Entry<Integer, Integer>> iterator() {
+				return new Iterator<Entry<Integer, Integer>>() {
+					private int index = 0;
+
+					@Override
+					public boolean hasNext() {
+						return index < size;
+					}
+
+					@Override
+					public Entry<Integer, Integer> next() {
+						if (index >= size) {
+							throw new NoSuchElementException();
+						}
+						int i = index++;
+						return new AbstractMap.SimpleImmutableEntry<>(lines[i], sourceLines[i]);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+}
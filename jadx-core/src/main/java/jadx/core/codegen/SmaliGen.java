@@ -0,0 +1,64 @@
+package jadx.core.codegen;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+import org.jf.baksmali.Adaptors.ClassDefinition;
+import org.jf.baksmali.BaksmaliOptions;
+import org.jf.dexlib2.DexFileFactory;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.dexbacked.DexBackedClassDef;
+import org.jf.dexlib2.dexbacked.DexBackedDexFile;
+import org.jf.util.IndentingWriter;
+
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.utils.Utils;
+import jadx.core.utils.files.DexFile;
+
+/**
+ * Smali code generation (using baksmali) for classes from one dex file.
+ * Dex file parsed once, class definitions indexed by type.
+ * Dex data not changed after load, so instance can be used from several threads.
+ */
+public class SmaliGen {
+
+	private final Map<String, DexBackedClassDef> classDefs;
+
+	public SmaliGen(DexFile inputDex) throws IOException {
+		DexBackedDexFile dexFile;
+		Path path = inputDex.getPath();
+		if (path != null) {
+			dexFile = DexFileFactory.loadDexFile(path.toFile(), Opcodes.getDefault());
+		} else {
+			dexFile = new DexBackedDexFile(Opcodes.getDefault(), inputDex.getDexBuf().getBytes());
+		}
+		Map<String, DexBackedClassDef> map = new HashMap<>();
+		for (DexBackedClassDef classDef : dexFile.getClasses()) {
+			map.put(classDef.getType(), classDef);
+		}
+		this.classDefs = map;
+	}
+
+	/**
+	 * @return smali code or null if class not found in dex file
+	 */
+	@Nullable
+	public String generate(ClassNode cls) throws IOException {
+		DexBackedClassDef classDef = classDefs.get(getClassType(cls));
+		if (classDef == null) {
+			return null;
+		}
+		ClassDefinition classDefinition = new ClassDefinition(new BaksmaliOptions(), classDef);
+		StringWriter sw = new StringWriter();
+		classDefinition.writeTo(new IndentingWriter(sw));
+		return sw.toString();
+	}
+
+	public static String getClassType(ClassNode cls) {
+		return Utils.makeQualifiedObjectName(cls.getClassInfo().getType().getObject());
+	}
+}
@@ -12,7 +12,6 @@ import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
-import jadx.api.CodePosition;
 import jadx.api.JadxArgs;
 import jadx.core.codegen.ClassGen;
 import jadx.core.codegen.CodeWriter;
@@ -180,7 +179,6 @@ public class JsonCodeGen {
 
 		String[] lines = codeStr.split(CodeWriter.NL);
 		Map<Integer, Integer> lineMapping = code.getLineMapping();
-		Map<CodePosition, Object> annotations = code.getAnnotations();
 		long mthCodeOffset = mth.getMethodCodeOffset() + 16;
 
 		int linesCount = lines.length;
@@ -191,7 +189,7 @@ public class JsonCodeGen {
 			JsonCodeLine jsonCodeLine = new JsonCodeLine();
 			jsonCodeLine.setCode(codeLine);
 			jsonCodeLine.setSourceLine(lineMapping.get(line));
-			Object obj = annotations.get(new CodePosition(line, 0));
+			Object obj = code.getAnnotationAt(line, 0);
 			if (obj instanceof InsnNode) {
 				int offset = ((InsnNode) obj).getOffset();
 				jsonCodeLine.setOffset("0x" + Long.toHexString(mthCodeOffset + offset * 2));
@@ -2,6 +2,7 @@ package jadx.core.deobf;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -11,6 +12,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -29,6 +35,7 @@ import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.DexNode;
 import jadx.core.dex.nodes.FieldNode;
 import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
 
 public class Deobfuscator {
 	private static final Logger LOG = LoggerFactory.getLogger(Deobfuscator.class);
@@ -44,10 +51,9 @@ public class Deobfuscator {
 	private final DeobfPresets deobfPresets;
 
 	private final Map<ClassInfo, DeobfClsInfo> clsMap = new LinkedHashMap<>();
-	private final Map<FieldInfo, String> fldMap = new HashMap<>();
-	private final Map<MethodInfo, String> mthMap = new HashMap<>();
+	private final Map<FieldInfo, String> fldMap = new ConcurrentHashMap<>();
+	private final Map<MethodInfo, String> mthMap = new ConcurrentHashMap<>();
 
-	private final Map<MethodInfo, OverridedMethodsNode> ovrdMap = new HashMap<>();
 	private final List<OverridedMethodsNode> ovrd = new ArrayList<>();
 
 	private final PackageNode rootPackage = new PackageNode("");
@@ -93,7 +99,6 @@ public class Deobfuscator {
 		mthMap.clear();
 
 		ovrd.clear();
-		ovrdMap.clear();
 	}
 
 	private void initIndexes() {
@@ -121,12 +126,89 @@ public class Deobfuscator {
 		if (DEBUG) {
 			dumpAlias();
 		}
+		List<ClassNode> classes = collectClasses();
+		resolveOverriding(classes);
+		processClasses(classes);
+		postProcess();
+	}
+
+	/**
+	 * Classes in processing order, inner classes placed right after parent class.
+	 * Class from several dex files added only once because such nodes share class, field and method infos.
+	 */
+	private List<ClassNode> collectClasses() {
+		Set<ClassInfo> added = new HashSet<>();
+		List<ClassNode> classes = new ArrayList<>();
 		for (DexNode dexNode : dexNodes) {
 			for (ClassNode cls : dexNode.getClasses()) {
-				processClass(cls);
+				collectClasses(cls, added, classes);
 			}
 		}
-		postProcess();
+		return classes;
+	}
+
+	private static void collectClasses(ClassNode cls, Set<ClassInfo> added, List<ClassNode> classes) {
+		if (isR(cls.getParentClass()) || !added.add(cls.getClassInfo())) {
+			return;
+		}
+		classes.add(cls);
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			collectClasses(innerCls, added, classes);
+		}
+	}
+
+	/**
+	 * Classes with same top parent class processed in one task.
+	 * Start indexes for new aliases calculated before for every class,
+	 * so names are the same as in sequential processing.
+	 */
+	private void processClasses(List<ClassNode> classes) {
+		int count = classes.size();
+		int[] fldStart = new int[count];
+		int[] mthStart = new int[count];
+		Map<ClassInfo, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			ClassNode cls = classes.get(i);
+			fldStart[i] = fldIndex;
+			mthStart[i] = mthIndex;
+			fldIndex += countFieldsToRename(cls);
+			mthIndex += countMethodsToRename(cls);
+			groups.computeIfAbsent(cls.getTopParentClass().getClassInfo(), c -> new ArrayList<>()).add(i);
+		}
+		List<Runnable> tasks = new ArrayList<>(groups.size());
+		for (List<Integer> group : groups.values()) {
+			tasks.add(() -> {
+				for (int i : group) {
+					processClass(classes.get(i), fldStart[i], mthStart[i]);
+				}
+			});
+		}
+		int threadsCount = Math.min(args.getThreadsCount(), tasks.size());
+		if (threadsCount <= 1) {
+			tasks.forEach(Runnable::run);
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>(tasks.size());
+			for (Runnable task : tasks) {
+				futures.add(executor.submit(task));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof JadxRuntimeException) {
+				throw (JadxRuntimeException) cause;
+			}
+			throw new JadxRuntimeException("Deobfuscation failed", cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JadxRuntimeException("Deobfuscation interrupted", e);
+		} finally {
+			executor.shutdown();
+		}
 	}
 
 	private void postProcess() {
@@ -154,52 +236,86 @@ public class Deobfuscator {
 		}
 	}
 
-	private void resolveOverriding(MethodNode mth) {
-		Set<ClassNode> clsParents = new LinkedHashSet<>();
-		collectClassHierarchy(mth.getParentClass(), clsParents);
-
-		String mthSignature = mth.getMethodInfo().makeSignature(false);
-		Set<MethodInfo> overrideSet = new LinkedHashSet<>();
-		for (ClassNode classNode : clsParents) {
-			MethodInfo methodInfo = getMthOverride(classNode.getMethods(), mthSignature);
-			if (methodInfo != null) {
-				overrideSet.add(methodInfo);
+	/**
+	 * Join methods with same signature from class hierarchy into override groups (using union-find).
+	 * Hierarchy collected once for every class and methods searched by signature map.
+	 * Groups and methods in groups ordered by first occurrence, so aliases set in post process are stable.
+	 */
+	private void resolveOverriding(List<ClassNode> classes) {
+		Map<ClassNode, Map<String, MethodInfo>> signaturesMap = new HashMap<>();
+		Map<MethodInfo, Integer> indexMap = new HashMap<>();
+		List<MethodInfo> methods = new ArrayList<>();
+		int[] parent = new int[64];
+		for (ClassNode cls : classes) {
+			Set<ClassNode> clsParents = null;
+			for (MethodNode mth : cls.getMethods()) {
+				if (!mth.isVirtual()) {
+					continue;
+				}
+				if (clsParents == null) {
+					clsParents = new LinkedHashSet<>();
+					collectClassHierarchy(cls, clsParents);
+				}
+				String mthSignature = mth.getMethodInfo().makeSignature(false);
+				int first = -1;
+				for (ClassNode classNode : clsParents) {
+					MethodInfo methodInfo = signaturesMap
+							.computeIfAbsent(classNode, Deobfuscator::buildSignaturesMap)
+							.get(mthSignature);
+					if (methodInfo == null) {
+						continue;
+					}
+					Integer idx = indexMap.get(methodInfo);
+					if (idx == null) {
+						idx = methods.size();
+						indexMap.put(methodInfo, idx);
+						methods.add(methodInfo);
+						if (idx == parent.length) {
+							parent = Arrays.copyOf(parent, idx * 2);
+						}
+						parent[idx] = idx;
+					}
+					if (first == -1) {
+						first = idx;
+					} else {
+						parent[find(parent, idx)] = find(parent, first);
+					}
+				}
 			}
 		}
-		if (overrideSet.isEmpty()) {
-			return;
-		}
-		OverridedMethodsNode overrideNode = getOverrideMethodsNode(overrideSet);
-		if (overrideNode == null) {
-			overrideNode = new OverridedMethodsNode(overrideSet);
-			ovrd.add(overrideNode);
-		}
-		for (MethodInfo overrideMth : overrideSet) {
-			if (!ovrdMap.containsKey(overrideMth)) {
-				ovrdMap.put(overrideMth, overrideNode);
-				overrideNode.add(overrideMth);
-			}
+		Map<Integer, OverridedMethodsNode> groups = new LinkedHashMap<>();
+		for (int i = 0; i < methods.size(); i++) {
+			groups.computeIfAbsent(find(parent, i), r -> new OverridedMethodsNode(new LinkedHashSet<>()))
+					.add(methods.get(i));
 		}
+		ovrd.addAll(groups.values());
 	}
 
-	private OverridedMethodsNode getOverrideMethodsNode(Set<MethodInfo> overrideSet) {
-		for (MethodInfo overrideMth : overrideSet) {
-			OverridedMethodsNode node = ovrdMap.get(overrideMth);
-			if (node != null) {
-				return node;
-			}
+	private static int find(int[] parent, int i) {
+		int root = i;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		int k = i;
+		while (parent[k] != root) {
+			int next = parent[k];
+			parent[k] = root;
+			k = next;
 		}
-		return null;
+		return root;
 	}
 
-	private MethodInfo getMthOverride(List<MethodNode> methods, String mthSignature) {
+	/**
+	 * Map method signature (without return type) to first method in class
+	 */
+	private static Map<String, MethodInfo> buildSignaturesMap(ClassNode cls) {
+		List<MethodNode> methods = cls.getMethods();
+		Map<String, MethodInfo> map = new HashMap<>(methods.size());
 		for (MethodNode m : methods) {
 			MethodInfo mthInfo = m.getMethodInfo();
-			if (mthInfo.getShortId().startsWith(mthSignature)) {
-				return mthInfo;
-			}
+			map.putIfAbsent(mthInfo.makeSignature(false), mthInfo);
 		}
-		return null;
+		return map;
 	}
 
 	private void collectClassHierarchy(ClassNode cls, Set<ClassNode> collected) {
@@ -222,10 +338,7 @@ public class Deobfuscator {
 		}
 	}
 
-	private void processClass(ClassNode cls) {
-		if (isR(cls.getParentClass())) {
-			return;
-		}
+	private void processClass(ClassNode cls, int fldStart, int mthStart) {
 		ClassInfo clsInfo = cls.getClassInfo();
 		DeobfClsInfo deobfClsInfo = clsMap.get(clsInfo);
 		if (deobfClsInfo != null) {
@@ -241,47 +354,83 @@ public class Deobfuscator {
 				clsInfo.changePkg(pkgNode.getFullAlias());
 			}
 		}
+		int fldIdx = fldStart;
 		for (FieldNode field : cls.getFields()) {
 			if (field.contains(AFlag.DONT_RENAME)) {
 				continue;
 			}
-			renameField(field);
+			String alias = isFieldToRename(field) ? makeFieldAlias(field, fldIdx++) : getFieldAlias(field);
+			if (alias != null) {
+				field.getFieldInfo().setAlias(alias);
+			}
 		}
+		int mthIdx = mthStart;
 		for (MethodNode mth : cls.getMethods()) {
-			renameMethod(mth);
+			MethodInfo methodInfo = mth.getMethodInfo();
+			if (methodInfo.isClassInit() || methodInfo.isConstructor()) {
+				continue;
+			}
+			String alias = isMethodToRename(mth) ? makeMethodAlias(mth, mthIdx++) : getMethodAlias(mth);
+			if (alias != null) {
+				methodInfo.setAlias(alias);
+			}
 		}
-		for (ClassNode innerCls : cls.getInnerClasses()) {
-			processClass(innerCls);
+	}
+
+	/**
+	 * Count of new aliases created for fields in {@link #processClass}
+	 */
+	private int countFieldsToRename(ClassNode cls) {
+		int count = 0;
+		for (FieldNode field : cls.getFields()) {
+			if (isFieldToRename(field)) {
+				count++;
+			}
 		}
+		return count;
 	}
 
-	private void renameField(FieldNode field) {
-		FieldInfo fieldInfo = field.getFieldInfo();
-		String alias = getFieldAlias(field);
-		if (alias != null) {
-			fieldInfo.setAlias(alias);
+	/**
+	 * Count of new aliases created for methods in {@link #processClass}
+	 */
+	private int countMethodsToRename(ClassNode cls) {
+		int count = 0;
+		for (MethodNode mth : cls.getMethods()) {
+			if (isMethodToRename(mth)) {
+				count++;
+			}
 		}
+		return count;
 	}
 
-	public void forceRenameField(FieldNode field) {
-		field.getFieldInfo().setAlias(makeFieldAlias(field));
+	/**
+	 * Field without alias (from previous rename or presets) and with name which should be renamed
+	 */
+	private boolean isFieldToRename(FieldNode field) {
+		FieldInfo fieldInfo = field.getFieldInfo();
+		return !field.contains(AFlag.DONT_RENAME)
+				&& !fldMap.containsKey(fieldInfo)
+				&& deobfPresets.getForFld(fieldInfo) == null
+				&& shouldRename(field.getName());
 	}
 
-	private void renameMethod(MethodNode mth) {
-		String alias = getMethodAlias(mth);
-		if (alias != null) {
-			mth.getMethodInfo().setAlias(alias);
-		}
-		if (mth.isVirtual()) {
-			resolveOverriding(mth);
-		}
+	/**
+	 * Method without alias (from override group, previous rename or presets) and with name which should be renamed
+	 */
+	private boolean isMethodToRename(MethodNode mth) {
+		MethodInfo methodInfo = mth.getMethodInfo();
+		return !methodInfo.isClassInit() && !methodInfo.isConstructor()
+				&& !mthMap.containsKey(methodInfo)
+				&& deobfPresets.getForMth(methodInfo) == null
+				&& shouldRename(mth.getName());
+	}
+
+	public void forceRenameField(FieldNode field) {
+		field.getFieldInfo().setAlias(makeFieldAlias(field));
 	}
 
 	public void forceRenameMethod(MethodNode mth) {
 		mth.getMethodInfo().setAlias(makeMethodAlias(mth));
-		if (mth.isVirtual()) {
-			resolveOverriding(mth);
-		}
 	}
 
 	public void addPackagePreset(String origPkgName, String pkgAlias) {
@@ -448,20 +597,13 @@ public class Deobfuscator {
 		alias = deobfPresets.getForFld(fieldInfo);
 		if (alias != null) {
 			fldMap.put(fieldInfo, alias);
-			return alias;
 		}
-		if (shouldRename(field.getName())) {
-			return makeFieldAlias(field);
-		}
-		return null;
+		return alias;
 	}
 
 	@Nullable
 	private String getMethodAlias(MethodNode mth) {
 		MethodInfo methodInfo = mth.getMethodInfo();
-		if (methodInfo.isClassInit() || methodInfo.isConstructor()) {
-			return null;
-		}
 		String alias = mthMap.get(methodInfo);
 		if (alias != null) {
 			return alias;
@@ -470,22 +612,26 @@ public class Deobfuscator {
 		if (alias != null) {
 			mthMap.put(methodInfo, alias);
 			methodInfo.setAliasFromPreset(true);
-			return alias;
-		}
-		if (shouldRename(mth.getName())) {
-			return makeMethodAlias(mth);
 		}
-		return null;
+		return alias;
 	}
 
 	public String makeFieldAlias(FieldNode field) {
-		String alias = String.format("f%d%s", fldIndex++, prepareNamePart(field.getName()));
+		return makeFieldAlias(field, fldIndex++);
+	}
+
+	private String makeFieldAlias(FieldNode field, int index) {
+		String alias = String.format("f%d%s", index, prepareNamePart(field.getName()));
 		fldMap.put(field.getFieldInfo(), alias);
 		return alias;
 	}
 
 	public String makeMethodAlias(MethodNode mth) {
-		String alias = String.format("m%d%s", mthIndex++, prepareNamePart(mth.getName()));
+		return makeMethodAlias(mth, mthIndex++);
+	}
+
+	private String makeMethodAlias(MethodNode mth, int index) {
+		String alias = String.format("m%d%s", index, prepareNamePart(mth.getName()));
 		mthMap.put(mth.getMethodInfo(), alias);
 		return alias;
 	}
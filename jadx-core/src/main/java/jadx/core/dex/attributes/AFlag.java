@@ -59,4 +59,5 @@ public enum AFlag {
 	EXPLICIT_PRIMITIVE_TYPE,
 
 	INCONSISTENT_CODE, // warning about incorrect decompilation
+	TIME_LIMIT_REACHED, // method decompiled in fallback mode because of time limit
 }
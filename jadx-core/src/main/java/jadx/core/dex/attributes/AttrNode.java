@@ -8,11 +8,15 @@ public abstract class AttrNode implements IAttributeNode {
 
 	private static final AttributeStorage EMPTY_ATTR_STORAGE = new EmptyAttrStorage();
 
+	/**
+	 * Flags stored directly in node, storage allocated only for attributes
+	 */
+	private long flags;
 	private AttributeStorage storage = EMPTY_ATTR_STORAGE;
 
 	@Override
 	public void add(AFlag flag) {
-		initStorage().add(flag);
+		flags |= AttributeStorage.flagBit(flag);
 	}
 
 	@Override
@@ -27,6 +31,7 @@ public abstract class AttrNode implements IAttributeNode {
 
 	@Override
 	public void copyAttributesFrom(AttrNode attrNode) {
+		flags |= attrNode.flags;
 		AttributeStorage copyFrom = attrNode.storage;
 		if (!copyFrom.isEmpty()) {
 			initStorage().addAll(copyFrom);
@@ -50,7 +55,7 @@ public abstract class AttrNode implements IAttributeNode {
 
 	@Override
 	public boolean contains(AFlag flag) {
-		return storage.contains(flag);
+		return (flags & AttributeStorage.flagBit(flag)) != 0;
 	}
 
 	@Override
@@ -75,8 +80,7 @@ public abstract class AttrNode implements IAttributeNode {
 
 	@Override
 	public void remove(AFlag flag) {
-		storage.remove(flag);
-		unloadIfEmpty();
+		flags &= ~AttributeStorage.flagBit(flag);
 	}
 
 	@Override
@@ -93,21 +97,21 @@ public abstract class AttrNode implements IAttributeNode {
 
 	@Override
 	public void clearAttributes() {
-		storage.clear();
-		unloadIfEmpty();
+		flags = 0;
+		storage = EMPTY_ATTR_STORAGE;
 	}
 
 	@Override
 	public List<String> getAttributesStringsList() {
-		return storage.getAttributeStrings();
+		return AttributeStorage.getAttributeStrings(flags, storage);
 	}
 
 	@Override
 	public String getAttributesString() {
-		return storage.toString();
+		return AttributeStorage.attributesToString(getAttributesStringsList());
 	}
 
 	public boolean isAttrStorageEmpty() {
-		return storage.isEmpty();
+		return flags == 0 && storage.isEmpty();
 	}
 }
@@ -1,38 +1,54 @@
 package jadx.core.dex.attributes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.EnumSet;
-import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import jadx.core.dex.attributes.annotations.Annotation;
 import jadx.core.dex.attributes.annotations.AnnotationsList;
 import jadx.core.utils.Utils;
+import jadx.core.utils.exceptions.JadxRuntimeException;
 
 /**
  * Storage for different attribute types:
- * 1. flags - boolean attribute (set or not)
- * 2. attribute - class instance associated with attribute type.
+ * 1. flags - boolean attribute (set or not), packed into bits of long value
+ * 2. attribute - class instance associated with attribute type,
+ * stored in small array with search by type (usually node contains only few attributes).
  */
 public class AttributeStorage {
 
-	private final Set<AFlag> flags;
-	private final Map<AType<?>, IAttribute> attributes;
+	private static final AFlag[] FLAGS = AFlag.values();
+	private static final IAttribute[] EMPTY_ATTRIBUTES = new IAttribute[0];
 
-	public AttributeStorage() {
-		flags = EnumSet.noneOf(AFlag.class);
-		attributes = new IdentityHashMap<>();
+	static {
+		if (FLAGS.length > Long.SIZE) {
+			throw new JadxRuntimeException("Flags count exceed long bits count: " + FLAGS.length);
+		}
+	}
+
+	private long flags;
+	private IAttribute[] attributes = EMPTY_ATTRIBUTES;
+	private int size;
+
+	static long flagBit(AFlag flag) {
+		return 1L << flag.ordinal();
 	}
 
 	public void add(AFlag flag) {
-		flags.add(flag);
+		flags |= flagBit(flag);
 	}
 
 	public void add(IAttribute attr) {
-		attributes.put(attr.getType(), attr);
+		int idx = indexOf(attr.getType());
+		if (idx != -1) {
+			attributes[idx] = attr;
+			return;
+		}
+		if (size == attributes.length) {
+			attributes = Arrays.copyOf(attributes, size == 0 ? 2 : size * 2);
+		}
+		attributes[size++] = attr;
 	}
 
 	public <T> void add(AType<AttrList<T>> type, T obj) {
@@ -45,21 +61,24 @@ public class AttributeStorage {
 	}
 
 	public void addAll(AttributeStorage otherList) {
-		flags.addAll(otherList.flags);
-		attributes.putAll(otherList.attributes);
+		flags |= otherList.flags;
+		for (int i = 0; i < otherList.size; i++) {
+			add(otherList.attributes[i]);
+		}
 	}
 
 	public boolean contains(AFlag flag) {
-		return flags.contains(flag);
+		return (flags & flagBit(flag)) != 0;
 	}
 
 	public <T extends IAttribute> boolean contains(AType<T> type) {
-		return attributes.containsKey(type);
+		return indexOf(type) != -1;
 	}
 
 	@SuppressWarnings("unchecked")
 	public <T extends IAttribute> T get(AType<T> type) {
-		return (T) attributes.get(type);
+		int idx = indexOf(type);
+		return idx == -1 ? null : (T) attributes[idx];
 	}
 
 	public Annotation getAnnotation(String cls) {
@@ -76,52 +95,80 @@ public class AttributeStorage {
 	}
 
 	public void remove(AFlag flag) {
-		flags.remove(flag);
+		flags &= ~flagBit(flag);
 	}
 
 	public <T extends IAttribute> void remove(AType<T> type) {
-		attributes.remove(type);
+		int idx = indexOf(type);
+		if (idx != -1) {
+			removeAt(idx);
+		}
 	}
 
 	public void remove(IAttribute attr) {
-		AType<? extends IAttribute> type = attr.getType();
-		IAttribute a = attributes.get(type);
-		if (a == attr) {
-			attributes.remove(type);
+		int idx = indexOf(attr.getType());
+		if (idx != -1 && attributes[idx] == attr) {
+			removeAt(idx);
 		}
 	}
 
 	public void clear() {
-		flags.clear();
-		attributes.clear();
+		flags = 0;
+		attributes = EMPTY_ATTRIBUTES;
+		size = 0;
+	}
+
+	private int indexOf(AType<?> type) {
+		IAttribute[] arr = attributes;
+		for (int i = 0; i < size; i++) {
+			if (arr[i].getType() == type) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void removeAt(int idx) {
+		size--;
+		System.arraycopy(attributes, idx + 1, attributes, idx, size - idx);
+		attributes[size] = null;
 	}
 
 	public List<String> getAttributeStrings() {
-		int size = flags.size() + attributes.size() + attributes.size();
-		if (size == 0) {
+		return getAttributeStrings(flags, this);
+	}
+
+	static List<String> getAttributeStrings(long flags, AttributeStorage storage) {
+		int count = Long.bitCount(flags) + storage.size;
+		if (count == 0) {
 			return Collections.emptyList();
 		}
-		List<String> list = new ArrayList<>(size);
-		for (AFlag a : flags) {
-			list.add(a.toString());
+		List<String> list = new ArrayList<>(count);
+		for (AFlag flag : FLAGS) {
+			if ((flags & flagBit(flag)) != 0) {
+				list.add(flag.toString());
+			}
 		}
-		for (IAttribute a : attributes.values()) {
-			list.add(a.toString());
+		for (int i = 0; i < storage.size; i++) {
+			list.add(storage.attributes[i].toString());
 		}
 		return list;
 	}
 
-	public boolean isEmpty() {
-		return flags.isEmpty() && attributes.isEmpty();
-	}
-
-	@Override
-	public String toString() {
-		List<String> list = getAttributeStrings();
+	static String attributesToString(List<String> list) {
 		if (list.isEmpty()) {
 			return "";
 		}
 		list.sort(String::compareTo);
 		return "A[" + Utils.listToString(list) + ']';
 	}
+
+	public boolean isEmpty() {
+		return flags == 0 && size == 0;
+	}
+
+	@Override
+	public String toString() {
+		return attributesToString(getAttributeStrings());
+	}
 }
@@ -64,7 +64,7 @@ public class ConstStorage {
 		this.replaceEnabled = args.isReplaceConsts();
 	}
 
-	public void processConstFields(ClassNode cls, List<FieldNode> staticFields) {
+	public synchronized void processConstFields(ClassNode cls, List<FieldNode> staticFields) {
 		if (!replaceEnabled || staticFields.isEmpty()) {
 			return;
 		}
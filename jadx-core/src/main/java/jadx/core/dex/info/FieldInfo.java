@@ -28,11 +28,17 @@ public final class FieldInfo {
 	}
 
 	public static FieldInfo fromDex(DexNode dex, int index) {
+		InfoStorage infoStorage = dex.root().getInfoStorage();
+		FieldInfo fieldInfo = infoStorage.getField(dex, index);
+		if (fieldInfo != null) {
+			return fieldInfo;
+		}
 		FieldId field = dex.getFieldId(index);
-		return from(dex,
+		FieldInfo newFieldInfo = from(dex,
 				ClassInfo.fromDex(dex, field.getDeclaringClassIndex()),
 				dex.getString(field.getNameIndex()),
 				dex.getType(field.getTypeIndex()));
+		return infoStorage.putField(dex, index, newFieldInfo);
 	}
 
 	public String getName() {
@@ -1,51 +1,94 @@
 package jadx.core.dex.info;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import jadx.core.dex.instructions.args.ArgType;
 import jadx.core.dex.nodes.DexNode;
 
+/**
+ * Storage for unique info objects.
+ * Method and field infos loaded from dex stored in per-dex arrays indexed by dex method/field id,
+ * reads don't use locks.
+ */
 public class InfoStorage {
 
-	private final Map<ArgType, ClassInfo> classes = new HashMap<>();
-	private final Map<Integer, MethodInfo> methods = new HashMap<>();
-	private final Map<FieldInfo, FieldInfo> fields = new HashMap<>();
+	private static final class DexInfos {
+		private final AtomicReferenceArray<MethodInfo> methods;
+		private final AtomicReferenceArray<FieldInfo> fields;
+
+		private DexInfos(DexNode dex) {
+			this.methods = new AtomicReferenceArray<>(dex.getMethodIdsCount());
+			this.fields = new AtomicReferenceArray<>(dex.getFieldIdsCount());
+		}
+	}
+
+	private final Map<ArgType, ClassInfo> classes = new ConcurrentHashMap<>();
+	private final Map<FieldInfo, FieldInfo> fields = new ConcurrentHashMap<>();
+	private volatile DexInfos[] dexInfos = new DexInfos[0];
 
 	public ClassInfo getCls(ArgType type) {
 		return classes.get(type);
 	}
 
 	public ClassInfo putCls(ClassInfo cls) {
-		synchronized (classes) {
-			ClassInfo prev = classes.put(cls.getType(), cls);
-			return prev == null ? cls : prev;
-		}
+		ClassInfo prev = classes.putIfAbsent(cls.getType(), cls);
+		return prev == null ? cls : prev;
 	}
 
-	private int generateMethodLookupId(DexNode dex, int mthId) {
-		return dex.getDexId() << 16 | mthId;
+	public MethodInfo getMethod(DexNode dex, int mthId) {
+		return getDexInfos(dex).methods.get(mthId);
 	}
 
-	public MethodInfo getMethod(DexNode dex, int mtdId) {
-		return methods.get(generateMethodLookupId(dex, mtdId));
+	public MethodInfo putMethod(DexNode dex, int mthId, MethodInfo mth) {
+		AtomicReferenceArray<MethodInfo> methods = getDexInfos(dex).methods;
+		if (methods.compareAndSet(mthId, null, mth)) {
+			return mth;
+		}
+		return methods.get(mthId);
 	}
 
-	public MethodInfo putMethod(DexNode dex, int mthId, MethodInfo mth) {
-		synchronized (methods) {
-			MethodInfo prev = methods.put(generateMethodLookupId(dex, mthId), mth);
-			return prev == null ? mth : prev;
+	public FieldInfo getField(DexNode dex, int fieldId) {
+		return getDexInfos(dex).fields.get(fieldId);
+	}
+
+	public FieldInfo putField(DexNode dex, int fieldId, FieldInfo field) {
+		AtomicReferenceArray<FieldInfo> dexFields = getDexInfos(dex).fields;
+		if (dexFields.compareAndSet(fieldId, null, field)) {
+			return field;
 		}
+		return dexFields.get(fieldId);
 	}
 
 	public FieldInfo getField(FieldInfo field) {
-		synchronized (fields) {
-			FieldInfo f = fields.get(field);
-			if (f != null) {
-				return f;
+		FieldInfo prev = fields.putIfAbsent(field, field);
+		return prev == null ? field : prev;
+	}
+
+	private DexInfos getDexInfos(DexNode dex) {
+		int dexId = dex.getDexId();
+		DexInfos[] infos = dexInfos;
+		if (dexId < infos.length) {
+			DexInfos dexInfo = infos[dexId];
+			if (dexInfo != null) {
+				return dexInfo;
 			}
-			fields.put(field, field);
-			return field;
 		}
+		return initDexInfos(dex);
+	}
+
+	private synchronized DexInfos initDexInfos(DexNode dex) {
+		int dexId = dex.getDexId();
+		DexInfos[] infos = dexInfos;
+		if (dexId < infos.length && infos[dexId] != null) {
+			return infos[dexId];
+		}
+		DexInfos[] newInfos = Arrays.copyOf(infos, Math.max(infos.length, dexId + 1));
+		DexInfos dexInfo = new DexInfos(dex);
+		newInfos[dexId] = dexInfo;
+		dexInfos = newInfos;
+		return dexInfo;
 	}
 }
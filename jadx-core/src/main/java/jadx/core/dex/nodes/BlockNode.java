@@ -12,7 +12,6 @@ import jadx.core.dex.attributes.AttrNode;
 import jadx.core.dex.attributes.nodes.IgnoreEdgeAttr;
 import jadx.core.dex.attributes.nodes.LoopInfo;
 import jadx.core.utils.BlockUtils;
-import jadx.core.utils.EmptyBitSet;
 import jadx.core.utils.InsnUtils;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
@@ -28,8 +27,9 @@ public final class BlockNode extends AttrNode implements IBlock, Comparable<Bloc
 	private List<BlockNode> successors = new ArrayList<>(1);
 	private List<BlockNode> cleanSuccessors;
 
-	// all dominators
-	private BitSet doms = EmptyBitSet.EMPTY;
+	// dominator tree preorder number and last number in subtree (used for dominance check)
+	private int domStart = -1;
+	private int domEnd = -2;
 	// dominance frontier
 	private BitSet domFrontier;
 	// immediate dominator
@@ -118,21 +118,22 @@ public final class BlockNode extends AttrNode implements IBlock, Comparable<Bloc
 	}
 
 	/**
-	 * Check if 'block' dominated on this node
+	 * Check if 'block' dominated on this node (node not dominate itself)
 	 */
 	public boolean isDominator(BlockNode block) {
-		return doms.get(block.getId());
+		return block != this && block.domStart <= domStart && domStart <= block.domEnd;
 	}
 
 	/**
-	 * Dominators of this node (exclude itself)
+	 * Set position in dominator tree: preorder number of this node and max preorder number in its subtree
 	 */
-	public BitSet getDoms() {
-		return doms;
+	public void setDomTreeRange(int start, int end) {
+		this.domStart = start;
+		this.domEnd = end;
 	}
 
-	public void setDoms(BitSet doms) {
-		this.doms = doms;
+	public void resetDomTreeRange() {
+		setDomTreeRange(-1, -2);
 	}
 
 	public BitSet getDomFrontier() {
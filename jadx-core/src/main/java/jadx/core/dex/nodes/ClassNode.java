@@ -34,6 +34,7 @@ import jadx.core.dex.nodes.parser.AnnotationsParser;
 import jadx.core.dex.nodes.parser.FieldInitAttr;
 import jadx.core.dex.nodes.parser.SignatureParser;
 import jadx.core.dex.nodes.parser.StaticValuesParser;
+import jadx.core.utils.ClassUnloadTracker;
 import jadx.core.utils.exceptions.DecodeException;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
@@ -249,10 +250,17 @@ public class ClassNode extends LineAttrNode implements ILoadable, ICodeNode {
 	}
 
 	public ICodeInfo decompile() {
+		return decompile(null);
+	}
+
+	/**
+	 * @param unloadTracker keep dependencies loaded during batch save (see {@link ClassUnloadTracker})
+	 */
+	public ICodeInfo decompile(@Nullable ClassUnloadTracker unloadTracker) {
 		if (code != null) {
 			return code;
 		}
-		ICodeInfo codeInfo = ProcessClass.generateCode(this);
+		ICodeInfo codeInfo = ProcessClass.generateCode(this, unloadTracker);
 		// TODO: don't store code in class node
 		setCode(codeInfo);
 		return codeInfo;
@@ -273,15 +281,20 @@ public class ClassNode extends LineAttrNode implements ILoadable, ICodeNode {
 		setState(LOADED);
 	}
 
+	/**
+	 * State changed before data release, so concurrent process request under class lock
+	 * never see {@link ProcessState#PROCESS_COMPLETE} for partially unloaded class
+	 */
 	@Override
 	public void unload() {
+		setState(UNLOADED);
 		for (MethodNode mth : getMethods()) {
 			mth.unload();
+			mth.setTimeBudget(null);
 		}
 		for (ClassNode innerCls : getInnerClasses()) {
 			innerCls.unload();
 		}
-		setState(UNLOADED);
 	}
 
 	private void buildCache() {
@@ -1,5 +1,6 @@
 package jadx.core.dex.nodes;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -21,6 +22,7 @@ import com.android.dex.MethodId;
 import com.android.dex.ProtoId;
 import com.android.dex.TypeList;
 
+import jadx.core.codegen.SmaliGen;
 import jadx.core.dex.info.ClassInfo;
 import jadx.core.dex.info.FieldInfo;
 import jadx.core.dex.info.MethodInfo;
@@ -40,6 +42,8 @@ public class DexNode implements IDexNode {
 	private final Map<ClassInfo, ClassNode> clsMap = new HashMap<>();
 	private final ArgType[] typesCache;
 
+	private volatile SmaliGen smaliGen;
+
 	public DexNode(RootNode root, DexFile input, int dexId) {
 		this.root = root;
 		this.file = input;
@@ -196,6 +200,23 @@ public class DexNode implements IDexNode {
 		return file;
 	}
 
+	/**
+	 * Smali generator for this dex, created on first request
+	 */
+	public SmaliGen getSmaliGen() throws IOException {
+		SmaliGen gen = smaliGen;
+		if (gen == null) {
+			synchronized (this) {
+				gen = smaliGen;
+				if (gen == null) {
+					gen = new SmaliGen(file);
+					smaliGen = gen;
+				}
+			}
+		}
+		return gen;
+	}
+
 	// DexBuffer wrappers
 
 	public String getString(int index) {
@@ -228,6 +249,14 @@ public class DexNode implements IDexNode {
 		return dexBuf.fieldIds().get(fieldIndex);
 	}
 
+	public int getMethodIdsCount() {
+		return dexBuf.methodIds().size();
+	}
+
+	public int getFieldIdsCount() {
+		return dexBuf.fieldIds().size();
+	}
+
 	public ProtoId getProtoId(int protoIndex) {
 		return dexBuf.protoIds().get(protoIndex);
 	}
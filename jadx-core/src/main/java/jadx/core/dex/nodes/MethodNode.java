@@ -40,6 +40,7 @@ import jadx.core.dex.trycatch.ExcHandlerAttr;
 import jadx.core.dex.trycatch.ExceptionHandler;
 import jadx.core.dex.trycatch.TryCatchBlock;
 import jadx.core.utils.ErrorsCounter;
+import jadx.core.utils.MethodTimeBudget;
 import jadx.core.utils.Utils;
 import jadx.core.utils.exceptions.DecodeException;
 import jadx.core.utils.exceptions.JadxRuntimeException;
@@ -76,6 +77,9 @@ public class MethodNode extends LineAttrNode implements ILoadable, ICodeNode {
 	private List<ExceptionHandler> exceptionHandlers;
 	private List<LoopInfo> loops;
 
+	@Nullable
+	private MethodTimeBudget timeBudget;
+
 	public MethodNode(ClassNode classNode, Method mthData, boolean isVirtual) {
 		this.mthInfo = MethodInfo.fromDex(classNode.dex(), mthData.getMethodIndex());
 		this.parentClass = classNode;
@@ -640,6 +644,27 @@ public class MethodNode extends LineAttrNode implements ILoadable, ICodeNode {
 		this.region = region;
 	}
 
+	@Nullable
+	public MethodTimeBudget getTimeBudget() {
+		return timeBudget;
+	}
+
+	public void setTimeBudget(@Nullable MethodTimeBudget timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * Stop method processing if decompilation time limit reached
+	 *
+	 * @throws jadx.core.utils.exceptions.JadxTimeLimitException if time limit exceeded
+	 */
+	public void checkTimeLimit() {
+		MethodTimeBudget budget = this.timeBudget;
+		if (budget != null) {
+			budget.check();
+		}
+	}
+
 	@Override
 	public DexNode dex() {
 		return parentClass.dex();
@@ -676,6 +701,17 @@ public class MethodNode extends LineAttrNode implements ILoadable, ICodeNode {
 		return noCode ? 0 : methodData.getCodeOffset();
 	}
 
+	/**
+	 * Read raw method code from dex, return null for methods without code
+	 */
+	@Nullable
+	public Code readCode() {
+		if (methodData == null) {
+			return null;
+		}
+		return parentClass.dex().readCode(methodData);
+	}
+
 	/**
 	 * Stat method.
 	 * Calculate instructions count as a measure of method size
@@ -2,6 +2,10 @@ package jadx.core.dex.nodes;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -13,6 +17,7 @@ import jadx.api.ResourceFile;
 import jadx.api.ResourceType;
 import jadx.api.ResourcesLoader;
 import jadx.core.Jadx;
+import jadx.core.cache.DiskCodeCache;
 import jadx.core.clsp.ClspGraph;
 import jadx.core.clsp.NMethod;
 import jadx.core.dex.info.ClassInfo;
@@ -25,6 +30,7 @@ import jadx.core.dex.visitors.IDexTreeVisitor;
 import jadx.core.dex.visitors.typeinference.TypeUpdate;
 import jadx.core.utils.CacheStorage;
 import jadx.core.utils.ErrorsCounter;
+import jadx.core.utils.PassProfiler;
 import jadx.core.utils.StringUtils;
 import jadx.core.utils.android.AndroidResourcesUtils;
 import jadx.core.utils.exceptions.JadxRuntimeException;
@@ -45,6 +51,10 @@ public class RootNode {
 	private final InfoStorage infoStorage = new InfoStorage();
 	private final CacheStorage cacheStorage = new CacheStorage();
 	private final TypeUpdate typeUpdate;
+	@Nullable
+	private final DiskCodeCache codeCache;
+	@Nullable
+	private final PassProfiler profiler;
 
 	private ClspGraph clsp;
 	private List<DexNode> dexNodes;
@@ -59,6 +69,21 @@ public class RootNode {
 		this.stringUtils = new StringUtils(args);
 		this.constValues = new ConstStorage(args);
 		this.typeUpdate = new TypeUpdate(this);
+		this.codeCache = initCodeCache(args);
+		this.profiler = args.getProfileReport() != null ? new PassProfiler() : null;
+	}
+
+	@Nullable
+	private DiskCodeCache initCodeCache(JadxArgs args) {
+		if (args.getCodeCacheDir() == null) {
+			return null;
+		}
+		if (args.isDeobfuscationOn()) {
+			// class names depend on all loaded classes
+			LOG.warn("Code cache disabled: not supported with deobfuscation");
+			return null;
+		}
+		return new DiskCodeCache(this, args.getCodeCacheDir());
 	}
 
 	public void load(List<InputFile> inputFiles) {
@@ -74,10 +99,46 @@ public class RootNode {
 				}
 			}
 		}
-		for (DexNode dexNode : dexNodes) {
-			dexNode.loadClasses();
-		}
+		loadClasses();
 		initInnerClasses();
+		if (codeCache != null) {
+			codeCache.init(getClasses(false));
+		}
+	}
+
+	/**
+	 * Load classes from dex files in parallel,
+	 * linking of inner classes done after all dex files loaded.
+	 */
+	private void loadClasses() {
+		int threadsCount = Math.min(args.getThreadsCount(), dexNodes.size());
+		if (threadsCount <= 1) {
+			for (DexNode dexNode : dexNodes) {
+				dexNode.loadClasses();
+			}
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>(dexNodes.size());
+			for (DexNode dexNode : dexNodes) {
+				futures.add(executor.submit(dexNode::loadClasses));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof JadxRuntimeException) {
+				throw (JadxRuntimeException) cause;
+			}
+			throw new JadxRuntimeException("Error loading classes", cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JadxRuntimeException("Classes loading interrupted", e);
+		} finally {
+			executor.shutdown();
+		}
 	}
 
 	public void loadResources(List<ResourceFile> resources) {
@@ -280,6 +341,16 @@ public class RootNode {
 		return cacheStorage;
 	}
 
+	@Nullable
+	public DiskCodeCache getCodeCache() {
+		return codeCache;
+	}
+
+	@Nullable
+	public PassProfiler getProfiler() {
+		return profiler;
+	}
+
 	public JadxArgs getArgs() {
 		return args;
 	}
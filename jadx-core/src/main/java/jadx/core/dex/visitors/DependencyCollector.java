@@ -9,6 +9,7 @@ import java.util.Set;
 import jadx.core.dex.attributes.AType;
 import jadx.core.dex.info.ClassInfo;
 import jadx.core.dex.info.FieldInfo;
+import jadx.core.dex.info.MethodInfo;
 import jadx.core.dex.instructions.IndexInsnNode;
 import jadx.core.dex.instructions.InvokeNode;
 import jadx.core.dex.instructions.args.ArgType;
@@ -22,7 +23,9 @@ import jadx.core.dex.nodes.DexNode;
 import jadx.core.dex.nodes.FieldNode;
 import jadx.core.dex.nodes.InsnNode;
 import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.ProcessState;
 import jadx.core.dex.nodes.parser.FieldInitAttr;
+import jadx.core.utils.exceptions.DecodeException;
 import jadx.core.utils.exceptions.JadxException;
 
 public class DependencyCollector extends AbstractVisitor {
@@ -43,6 +46,81 @@ public class DependencyCollector extends AbstractVisitor {
 		return false;
 	}
 
+	/**
+	 * Collect dependencies available before class processing:
+	 * super types and types from fields and methods declarations (including inner classes)
+	 */
+	public static List<ClassNode> collectDeclarationDeps(ClassNode cls) {
+		Set<ClassNode> depSet = new HashSet<>();
+		processDeclaration(cls, cls.dex(), depSet);
+		depSet.remove(cls);
+		return new ArrayList<>(depSet);
+	}
+
+	/**
+	 * Collect all classes which processed state can be used in code generation of this class:
+	 * declaration dependencies and classes referenced by instructions.
+	 * Instructions of not loaded class decoded here and released after check, class state not changed.
+	 */
+	public static List<ClassNode> collectReferencedDeps(ClassNode cls) {
+		Set<ClassNode> depSet = new HashSet<>();
+		DexNode dex = cls.dex();
+		processDeclaration(cls, dex, depSet);
+		if (cls.getState() == ProcessState.NOT_LOADED) {
+			processReferences(cls, dex, depSet);
+		} else {
+			depSet.addAll(cls.getDependencies());
+		}
+		depSet.remove(cls);
+		return new ArrayList<>(depSet);
+	}
+
+	private static void processReferences(ClassNode cls, DexNode dex, Set<ClassNode> depList) {
+		for (MethodNode mth : cls.getMethods()) {
+			if (mth.isNoCode()) {
+				continue;
+			}
+			try {
+				mth.load();
+				InsnNode[] insns = mth.getInstructions();
+				if (insns != null) {
+					for (InsnNode insn : insns) {
+						if (insn != null) {
+							processCustomInsn(dex, depList, insn);
+						}
+					}
+				}
+			} catch (DecodeException e) {
+				// error will be reported at class load
+			} finally {
+				mth.unload();
+			}
+		}
+		for (ClassNode inner : cls.getInnerClasses()) {
+			processReferences(inner, dex, depList);
+		}
+	}
+
+	private static void processDeclaration(ClassNode cls, DexNode dex, Set<ClassNode> depList) {
+		addDep(dex, depList, cls.getSuperClass());
+		for (ArgType iType : cls.getInterfaces()) {
+			addDep(dex, depList, iType);
+		}
+		for (FieldNode fieldNode : cls.getFields()) {
+			addDep(dex, depList, fieldNode.getType());
+		}
+		for (MethodNode methodNode : cls.getMethods()) {
+			MethodInfo mthInfo = methodNode.getMethodInfo();
+			addDep(dex, depList, mthInfo.getReturnType());
+			for (ArgType arg : mthInfo.getArgumentsTypes()) {
+				addDep(dex, depList, arg);
+			}
+		}
+		for (ClassNode inner : cls.getInnerClasses()) {
+			processDeclaration(inner, dex, depList);
+		}
+	}
+
 	private static void processClass(ClassNode cls, DexNode dex, Set<ClassNode> depList) {
 		addDep(dex, depList, cls.getSuperClass());
 		for (ArgType iType : cls.getInterfaces()) {
@@ -1,16 +1,23 @@
 package jadx.core.dex.visitors;
 
+import org.jetbrains.annotations.Nullable;
+
+import jadx.core.dex.attributes.AFlag;
 import jadx.core.dex.attributes.AType;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.utils.ErrorsCounter;
+import jadx.core.utils.MethodTimeBudget;
+import jadx.core.utils.PassProfiler;
+import jadx.core.utils.exceptions.JadxException;
 import jadx.core.utils.exceptions.JadxOverflowException;
+import jadx.core.utils.exceptions.JadxTimeLimitException;
 
 public class DepthTraversal {
 
 	public static void visit(IDexTreeVisitor visitor, ClassNode cls) {
 		try {
-			if (visitor.visit(cls)) {
+			if (visitClass(visitor, cls)) {
 				cls.getInnerClasses().forEach(inCls -> visit(visitor, inCls));
 				cls.getMethods().forEach(mth -> visit(visitor, mth));
 			}
@@ -26,13 +33,79 @@ public class DepthTraversal {
 		if (mth.contains(AType.JADX_ERROR)) {
 			return;
 		}
+		MethodTimeBudget budget = startTimeBudget(mth);
 		try {
-			visitor.visit(mth);
+			visitMethod(visitor, mth);
+			if (budget != null) {
+				budget.check();
+			}
+		} catch (JadxTimeLimitException e) {
+			if (budget != null && budget.isNested()) {
+				// let outer visit handle it
+				throw e;
+			}
+			switchToFallback(visitor, mth, e);
 		} catch (StackOverflowError e) {
 			ErrorsCounter.methodError(mth, "StackOverflow in pass: " + visitor.getClass().getSimpleName(), new JadxOverflowException(""));
 		} catch (Exception e) {
 			ErrorsCounter.methodError(mth,
 					e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
+		} finally {
+			if (budget != null) {
+				budget.stop();
+			}
+		}
+	}
+
+	@Nullable
+	private static MethodTimeBudget startTimeBudget(MethodNode mth) {
+		int timeLimit = mth.root().getArgs().getMethodTimeLimit();
+		if (timeLimit <= 0) {
+			return null;
+		}
+		MethodTimeBudget budget = mth.getTimeBudget();
+		if (budget == null) {
+			budget = new MethodTimeBudget(timeLimit);
+			mth.setTimeBudget(budget);
+		}
+		budget.start();
+		return budget;
+	}
+
+	/**
+	 * Added error stops method processing by remaining passes,
+	 * unloaded instructions array will be reloaded for dump in fallback mode at code generation.
+	 */
+	private static void switchToFallback(IDexTreeVisitor visitor, MethodNode mth, JadxTimeLimitException e) {
+		mth.unloadInsnArr();
+		mth.add(AFlag.TIME_LIMIT_REACHED);
+		ErrorsCounter.methodError(mth, "Time limit reached in pass: " + visitor.getClass().getSimpleName(), e);
+	}
+
+	private static boolean visitClass(IDexTreeVisitor visitor, ClassNode cls) throws JadxException {
+		PassProfiler profiler = cls.root().getProfiler();
+		if (profiler == null) {
+			return visitor.visit(cls);
+		}
+		PassProfiler.Measure start = profiler.start();
+		try {
+			return visitor.visit(cls);
+		} finally {
+			profiler.classDone(start, visitor);
+		}
+	}
+
+	private static void visitMethod(IDexTreeVisitor visitor, MethodNode mth) throws JadxException {
+		PassProfiler profiler = mth.root().getProfiler();
+		if (profiler == null) {
+			visitor.visit(mth);
+			return;
+		}
+		PassProfiler.Measure start = profiler.start();
+		try {
+			visitor.visit(mth);
+		} finally {
+			profiler.methodDone(start, visitor, mth);
 		}
 	}
 
@@ -1,6 +1,7 @@
 package jadx.core.dex.visitors;
 
 import java.io.File;
+import java.io.IOException;
 
 import jadx.api.ICodeInfo;
 import jadx.api.JadxArgs;
@@ -8,6 +9,8 @@ import jadx.core.codegen.CodeWriter;
 import jadx.core.dex.attributes.AFlag;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.CodeOutput;
+import jadx.core.utils.files.DirCodeOutput;
 
 public class SaveCode {
 
@@ -15,6 +18,10 @@ public class SaveCode {
 	}
 
 	public static void save(File dir, ClassNode cls) {
+		save(new DirCodeOutput(dir), cls);
+	}
+
+	public static void save(CodeOutput output, ClassNode cls) {
 		if (cls.contains(AFlag.DONT_GENERATE)) {
 			return;
 		}
@@ -25,15 +32,12 @@ public class SaveCode {
 		if (code == CodeWriter.EMPTY) {
 			return;
 		}
-		CodeWriter clsCode;
-		if (code instanceof CodeWriter) {
-			clsCode = (CodeWriter) code;
-		} else {
-			// TODO: move 'save' method from CodeWriter
-			clsCode = new CodeWriter(code.getCodeStr());
-		}
 		String fileName = cls.getClassInfo().getAliasFullPath() + getFileExtension(cls);
-		clsCode.save(dir, fileName);
+		try {
+			output.write(fileName, code.getCodeStr());
+		} catch (IOException e) {
+			throw new JadxRuntimeException("Failed to save code for class " + cls.getFullName(), e);
+		}
 	}
 
 	private static String getFileExtension(ClassNode cls) {
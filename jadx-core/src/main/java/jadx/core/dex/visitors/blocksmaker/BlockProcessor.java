@@ -1,6 +1,8 @@
 package jadx.core.dex.visitors.blocksmaker;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.Deque;
@@ -71,6 +73,7 @@ public class BlockProcessor extends AbstractVisitor {
 				mth.addWarn("CFG modification limit reached, blocks count: " + mth.getBasicBlocks().size());
 				break;
 			}
+			mth.checkTimeLimit();
 		}
 		checkForUnreachableBlocks(mth);
 
@@ -198,142 +201,168 @@ public class BlockProcessor extends AbstractVisitor {
 		return instructions.get(insnCount - number - 1);
 	}
 
+	/**
+	 * Build dominator tree using algorithm from "A Simple, Fast Dominance Algorithm"
+	 * by Keith D. Cooper, Timothy J. Harvey and Ken Kennedy.
+	 * Tree nodes also numbered in preorder for constant time dominance check
+	 * (see {@link BlockNode#isDominator(BlockNode)}).
+	 */
 	private static void computeDominators(MethodNode mth) {
 		List<BlockNode> basicBlocks = mth.getBasicBlocks();
 		int nBlocks = basicBlocks.size();
 		for (int i = 0; i < nBlocks; i++) {
-			BlockNode block = basicBlocks.get(i);
-			block.setId(i);
-			block.setDoms(new BitSet(nBlocks));
-			block.getDoms().set(0, nBlocks);
+			basicBlocks.get(i).setId(i);
 		}
-
 		BlockNode entryBlock = mth.getEnterBlock();
-		calcDominators(basicBlocks, entryBlock);
+		BlockNode[] rpo = getReversePostOrder(entryBlock, nBlocks);
+		int[] rpoNum = new int[nBlocks];
+		Arrays.fill(rpoNum, -1);
+		for (int i = 0; i < rpo.length; i++) {
+			rpoNum[rpo[i].getId()] = i;
+		}
+		int[] idoms = calcImmediateDominators(rpo, rpoNum);
+		for (BlockNode block : basicBlocks) {
+			if (block == entryBlock) {
+				continue;
+			}
+			int num = rpoNum[block.getId()];
+			if (num == -1) {
+				throw new JadxRuntimeException("Can't find immediate dominator for unreachable block " + block
+						+ " preds:" + block.getPredecessors());
+			}
+			BlockNode idom = rpo[idoms[num]];
+			block.setIDom(idom);
+			idom.addDominatesOn(block);
+		}
+		numberDomTree(entryBlock);
 		markLoops(mth);
+	}
 
-		// clear self dominance
-		basicBlocks.forEach(block -> {
-			block.getDoms().clear(block.getId());
-			if (block.getDoms().isEmpty()) {
-				block.setDoms(EMPTY);
+	private static BlockNode[] getReversePostOrder(BlockNode entryBlock, int nBlocks) {
+		BlockNode[] order = new BlockNode[nBlocks];
+		int pos = nBlocks;
+		BitSet visited = new BitSet(nBlocks);
+		Deque<BlockNode> stack = new ArrayDeque<>();
+		Deque<Iterator<BlockNode>> succStack = new ArrayDeque<>();
+		visited.set(entryBlock.getId());
+		stack.push(entryBlock);
+		succStack.push(entryBlock.getSuccessors().iterator());
+		while (!stack.isEmpty()) {
+			Iterator<BlockNode> it = succStack.peek();
+			if (it.hasNext()) {
+				BlockNode next = it.next();
+				if (!visited.get(next.getId())) {
+					visited.set(next.getId());
+					stack.push(next);
+					succStack.push(next.getSuccessors().iterator());
+				}
+			} else {
+				order[--pos] = stack.pop();
+				succStack.pop();
 			}
-		});
-
-		calcImmediateDominators(basicBlocks, entryBlock);
+		}
+		return pos == 0 ? order : Arrays.copyOfRange(order, pos, nBlocks);
 	}
 
-	private static void calcDominators(List<BlockNode> basicBlocks, BlockNode entryBlock) {
-		entryBlock.getDoms().clear();
-		entryBlock.getDoms().set(entryBlock.getId());
-
-		BitSet domSet = new BitSet(basicBlocks.size());
+	/**
+	 * @return position of immediate dominator in reverse post order for every block position,
+	 * -1 for unreachable blocks
+	 */
+	private static int[] calcImmediateDominators(BlockNode[] rpo, int[] rpoNum) {
+		int count = rpo.length;
+		int[] idoms = new int[count];
+		Arrays.fill(idoms, -1);
+		idoms[0] = 0;
 		boolean changed;
 		do {
 			changed = false;
-			for (BlockNode block : basicBlocks) {
-				if (block == entryBlock) {
-					continue;
-				}
-				BitSet d = block.getDoms();
-				if (!changed) {
-					domSet.clear();
-					domSet.or(d);
-				}
-				for (BlockNode pred : block.getPredecessors()) {
-					d.and(pred.getDoms());
+			for (int i = 1; i < count; i++) {
+				int newIDom = -1;
+				for (BlockNode pred : rpo[i].getPredecessors()) {
+					int p = rpoNum[pred.getId()];
+					if (p != -1 && idoms[p] != -1) {
+						newIDom = newIDom == -1 ? p : intersect(idoms, p, newIDom);
+					}
 				}
-				d.set(block.getId());
-				if (!changed && !d.equals(domSet)) {
+				if (idoms[i] != newIDom) {
+					idoms[i] = newIDom;
 					changed = true;
 				}
 			}
 		} while (changed);
+		return idoms;
 	}
 
-	private static void calcImmediateDominators(List<BlockNode> basicBlocks, BlockNode entryBlock) {
-		for (BlockNode block : basicBlocks) {
-			if (block == entryBlock) {
-				continue;
+	private static int intersect(int[] idoms, int b1, int b2) {
+		int finger1 = b1;
+		int finger2 = b2;
+		while (finger1 != finger2) {
+			while (finger1 > finger2) {
+				finger1 = idoms[finger1];
 			}
-			BlockNode idom;
-			List<BlockNode> preds = block.getPredecessors();
-			if (preds.size() == 1) {
-				idom = preds.get(0);
-			} else {
-				BitSet bs = new BitSet(block.getDoms().length());
-				bs.or(block.getDoms());
-				for (int i = bs.nextSetBit(0); i >= 0; i = bs.nextSetBit(i + 1)) {
-					BlockNode dom = basicBlocks.get(i);
-					bs.andNot(dom.getDoms());
-				}
-				if (bs.cardinality() != 1) {
-					throw new JadxRuntimeException("Can't find immediate dominator for block " + block
-							+ " in " + bs + " preds:" + preds);
-				}
-				idom = basicBlocks.get(bs.nextSetBit(0));
+			while (finger2 > finger1) {
+				finger2 = idoms[finger2];
 			}
-			block.setIDom(idom);
-			idom.addDominatesOn(block);
 		}
+		return finger1;
 	}
 
-	private static void computeDominanceFrontier(MethodNode mth) {
-		for (BlockNode exit : mth.getExitBlocks()) {
-			exit.setDomFrontier(EMPTY);
-		}
-		List<BlockNode> domSortedBlocks = new ArrayList<>(mth.getBasicBlocks().size());
-		Deque<BlockNode> stack = new LinkedList<>();
-		stack.push(mth.getEnterBlock());
+	private static void numberDomTree(BlockNode entryBlock) {
+		Deque<BlockNode> stack = new ArrayDeque<>();
+		Deque<Integer> startStack = new ArrayDeque<>();
+		Deque<Iterator<BlockNode>> childStack = new ArrayDeque<>();
+		int num = 0;
+		stack.push(entryBlock);
+		startStack.push(num++);
+		childStack.push(entryBlock.getDominatesOn().iterator());
 		while (!stack.isEmpty()) {
-			BlockNode node = stack.pop();
-			for (BlockNode dominated : node.getDominatesOn()) {
-				stack.push(dominated);
-			}
-			domSortedBlocks.add(node);
-		}
-		Collections.reverse(domSortedBlocks);
-		for (BlockNode block : domSortedBlocks) {
-			try {
-				computeBlockDF(mth, block);
-			} catch (Exception e) {
-				throw new JadxRuntimeException("Failed compute block dominance frontier", e);
+			Iterator<BlockNode> it = childStack.peek();
+			if (it.hasNext()) {
+				BlockNode child = it.next();
+				stack.push(child);
+				startStack.push(num++);
+				childStack.push(child.getDominatesOn().iterator());
+			} else {
+				stack.pop().setDomTreeRange(startStack.pop(), num - 1);
+				childStack.pop();
 			}
 		}
 	}
 
-	private static void computeBlockDF(MethodNode mth, BlockNode block) {
-		if (block.getDomFrontier() != null) {
-			return;
-		}
+	/**
+	 * Dominance frontier computed by walking up dominator tree from predecessors of every block
+	 * (same source as dominator tree algorithm).
+	 * Frontier of exit blocks is always empty and not propagated to their dominators.
+	 */
+	private static void computeDominanceFrontier(MethodNode mth) {
 		List<BlockNode> blocks = mth.getBasicBlocks();
-		BitSet domFrontier = null;
-		for (BlockNode s : block.getSuccessors()) {
-			if (s.getIDom() != block) {
-				if (domFrontier == null) {
-					domFrontier = new BitSet(blocks.size());
-				}
-				domFrontier.set(s.getId());
-			}
-		}
-		for (BlockNode c : block.getDominatesOn()) {
-			BitSet frontier = c.getDomFrontier();
-			if (frontier == null) {
-				throw new JadxRuntimeException("Dominance frontier not calculated for dominated block: " + c + ", from: " + block);
-			}
-			for (int p = frontier.nextSetBit(0); p >= 0; p = frontier.nextSetBit(p + 1)) {
-				if (blocks.get(p).getIDom() != block) {
-					if (domFrontier == null) {
-						domFrontier = new BitSet(blocks.size());
+		int nBlocks = blocks.size();
+		BitSet exits = new BitSet(nBlocks);
+		for (BlockNode exit : mth.getExitBlocks()) {
+			exits.set(exit.getId());
+		}
+		BitSet[] frontiers = new BitSet[nBlocks];
+		for (BlockNode block : blocks) {
+			BlockNode idom = block.getIDom();
+			int id = block.getId();
+			for (BlockNode pred : block.getPredecessors()) {
+				BlockNode runner = pred;
+				while (runner != null && runner != idom && !exits.get(runner.getId())) {
+					int runnerId = runner.getId();
+					BitSet df = frontiers[runnerId];
+					if (df == null) {
+						df = new BitSet(nBlocks);
+						frontiers[runnerId] = df;
 					}
-					domFrontier.set(p);
+					df.set(id);
+					runner = runner.getIDom();
 				}
 			}
 		}
-		if (domFrontier == null || domFrontier.isEmpty()) {
-			domFrontier = EMPTY;
+		for (BlockNode block : blocks) {
+			BitSet df = frontiers[block.getId()];
+			block.setDomFrontier(df == null ? EMPTY : df);
 		}
-		block.setDomFrontier(domFrontier);
 	}
 
 	private static void markReturnBlocks(MethodNode mth) {
@@ -351,7 +380,7 @@ public class BlockProcessor extends AbstractVisitor {
 			// Every successor that dominates its predecessor is a header of a loop,
 			// block -> successor is a back edge.
 			block.getSuccessors().forEach(successor -> {
-				if (block.getDoms().get(successor.getId())) {
+				if (successor == block || block.isDominator(successor)) {
 					successor.add(AFlag.LOOP_START);
 					block.add(AFlag.LOOP_END);
 
@@ -707,7 +736,7 @@ public class BlockProcessor extends AbstractVisitor {
 			block.remove(AType.LOOP);
 			block.remove(AFlag.LOOP_START);
 			block.remove(AFlag.LOOP_END);
-			block.setDoms(null);
+			block.resetDomTreeRange();
 			block.setIDom(null);
 			block.setDomFrontier(null);
 			block.getDominatesOn().clear();
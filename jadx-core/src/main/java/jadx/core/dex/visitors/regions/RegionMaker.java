@@ -89,6 +89,7 @@ public class RegionMaker {
 			if (regionsCount > regionsLimit) {
 				throw new JadxOverflowException("Regions count limit reached");
 			}
+			mth.checkTimeLimit();
 		}
 		return r;
 	}
@@ -11,41 +11,83 @@ import jadx.core.dex.instructions.args.RegisterArg;
 import jadx.core.dex.nodes.BlockNode;
 import jadx.core.dex.nodes.InsnNode;
 import jadx.core.dex.nodes.MethodNode;
-import jadx.core.utils.exceptions.JadxRuntimeException;
 
+/**
+ * Compute registers live at block start.
+ * <p>
+ * For methods with small registers count liveness for all registers solved at once
+ * using work list of blocks (in post order), only predecessors of changed blocks are revisited.
+ * For methods with many registers dense per block bit sets can be too big,
+ * so live blocks calculated on request for one register by backward traversal from usage blocks.
+ */
 public class LiveVarAnalysis {
 	private static final Logger LOG = LoggerFactory.getLogger(LiveVarAnalysis.class);
 
+	/**
+	 * Use sparse mode if registers count greater than this value
+	 */
+	private static final int SPARSE_MODE_REGS_COUNT = 256;
+
 	private final MethodNode mth;
+	private final boolean sparse;
 
 	private BitSet[] uses;
 	private BitSet[] defs;
 	private BitSet[] liveIn;
 	private BitSet[] assignBlocks;
 
+	// sparse mode: blocks with register usage before assign (by register) and cached live blocks for one register,
+	// per register bit sets created on first use (null for not used registers)
+	private BitSet[] useBlocks;
+	private BitSet regLiveBlocks;
+	private int liveReg = -1;
+
 	public LiveVarAnalysis(MethodNode mth) {
+		this(mth, mth.getRegsCount() > SPARSE_MODE_REGS_COUNT);
+	}
+
+	/**
+	 * Force dense or sparse mode (results should be the same)
+	 */
+	public LiveVarAnalysis(MethodNode mth, boolean sparse) {
 		this.mth = mth;
+		this.sparse = sparse;
 	}
 
 	public void runAnalysis() {
 		int bbCount = mth.getBasicBlocks().size();
 		int regsCount = mth.getRegsCount();
-		this.uses = initBitSetArray(bbCount, regsCount);
-		this.defs = initBitSetArray(bbCount, regsCount);
-		this.assignBlocks = initBitSetArray(regsCount, bbCount);
-		fillBasicBlockInfo();
-		processLiveInfo();
+		if (sparse) {
+			this.assignBlocks = new BitSet[regsCount];
+			this.useBlocks = new BitSet[regsCount];
+			this.regLiveBlocks = new BitSet(bbCount);
+			fillRegistersInfo();
+		} else {
+			this.assignBlocks = initBitSetArray(regsCount, bbCount);
+			this.uses = initBitSetArray(bbCount, regsCount);
+			this.defs = initBitSetArray(bbCount, regsCount);
+			fillBasicBlockInfo();
+			processLiveInfo();
+		}
 	}
 
 	public BitSet getAssignBlocks(int regNum) {
-		return assignBlocks[regNum];
+		BitSet blocks = assignBlocks[regNum];
+		return blocks != null ? blocks : new BitSet();
 	}
 
 	public boolean isLive(int blockId, int regNum) {
-		if (blockId >= liveIn.length) {
-			LOG.warn("LiveVarAnalysis: out of bounds block: {}, max: {}", blockId, liveIn.length);
+		int bbCount = mth.getBasicBlocks().size();
+		if (blockId >= bbCount) {
+			LOG.warn("LiveVarAnalysis: out of bounds block: {}, max: {}", blockId, bbCount);
 			return false;
 		}
+		if (sparse) {
+			if (liveReg != regNum) {
+				processRegLiveInfo(regNum);
+			}
+			return regLiveBlocks.get(blockId);
+		}
 		return liveIn[blockId].get(regNum);
 	}
 
@@ -77,37 +119,148 @@ public class LiveVarAnalysis {
 		}
 	}
 
+	private void fillRegistersInfo() {
+		for (BlockNode block : mth.getBasicBlocks()) {
+			int blockId = block.getId();
+			for (InsnNode insn : block.getInstructions()) {
+				for (InsnArg arg : insn.getArguments()) {
+					if (arg.isRegister()) {
+						int regNum = ((RegisterArg) arg).getRegNum();
+						BitSet assigns = assignBlocks[regNum];
+						if (assigns == null || !assigns.get(blockId)) {
+							getOrCreate(useBlocks, regNum).set(blockId);
+						}
+					}
+				}
+				RegisterArg result = insn.getResult();
+				if (result != null) {
+					getOrCreate(assignBlocks, result.getRegNum()).set(blockId);
+				}
+			}
+		}
+	}
+
 	private void processLiveInfo() {
-		int bbCount = mth.getBasicBlocks().size();
+		List<BlockNode> blocks = mth.getBasicBlocks();
+		int bbCount = blocks.size();
 		int regsCount = mth.getRegsCount();
 		BitSet[] liveInBlocks = initBitSetArray(bbCount, regsCount);
-		List<BlockNode> blocks = mth.getBasicBlocks();
-		int blocksCount = blocks.size();
-		int iterationsLimit = blocksCount * 10;
-		boolean changed;
-		int k = 0;
-		do {
-			changed = false;
-			for (BlockNode block : blocks) {
-				int blockId = block.getId();
-				BitSet prevIn = liveInBlocks[blockId];
-				BitSet newIn = new BitSet(regsCount);
-				for (BlockNode successor : block.getSuccessors()) {
-					newIn.or(liveInBlocks[successor.getId()]);
+
+		// circular queue, every block added at most once
+		int[] queue = getPostOrder(blocks);
+		BitSet inQueue = new BitSet(bbCount);
+		inQueue.set(0, bbCount);
+		int head = 0;
+		int size = bbCount;
+		BitSet newIn = new BitSet(regsCount);
+		while (size != 0) {
+			int blockId = queue[head];
+			head = (head + 1) % bbCount;
+			size--;
+			inQueue.clear(blockId);
+
+			BlockNode block = blocks.get(blockId);
+			newIn.clear();
+			for (BlockNode successor : block.getSuccessors()) {
+				newIn.or(liveInBlocks[successor.getId()]);
+			}
+			newIn.andNot(defs[blockId]);
+			newIn.or(uses[blockId]);
+			BitSet prevIn = liveInBlocks[blockId];
+			if (!prevIn.equals(newIn)) {
+				// swap to reuse bit sets
+				liveInBlocks[blockId] = newIn;
+				newIn = prevIn;
+				for (BlockNode pred : block.getPredecessors()) {
+					int predId = pred.getId();
+					if (!inQueue.get(predId)) {
+						inQueue.set(predId);
+						queue[(head + size) % bbCount] = predId;
+						size++;
+					}
 				}
-				newIn.andNot(defs[blockId]);
-				newIn.or(uses[blockId]);
-				if (!prevIn.equals(newIn)) {
-					changed = true;
-					liveInBlocks[blockId] = newIn;
+			}
+		}
+		this.liveIn = liveInBlocks;
+	}
+
+	/**
+	 * Register live at block start if used in it before assign or live in successor and not assigned in block
+	 */
+	private void processRegLiveInfo(int regNum) {
+		List<BlockNode> blocks = mth.getBasicBlocks();
+		BitSet live = regLiveBlocks;
+		live.clear();
+		liveReg = regNum;
+		BitSet regUses = useBlocks[regNum];
+		if (regUses == null) {
+			return;
+		}
+		BitSet assigns = getAssignBlocks(regNum);
+		int[] stack = new int[blocks.size()];
+		int top = 0;
+		for (int id = regUses.nextSetBit(0); id >= 0; id = regUses.nextSetBit(id + 1)) {
+			live.set(id);
+			stack[top++] = id;
+		}
+		while (top != 0) {
+			BlockNode block = blocks.get(stack[--top]);
+			for (BlockNode pred : block.getPredecessors()) {
+				int predId = pred.getId();
+				if (!live.get(predId) && !assigns.get(predId)) {
+					live.set(predId);
+					stack[top++] = predId;
 				}
 			}
-			if (k++ > iterationsLimit) {
-				throw new JadxRuntimeException("Live variable analysis reach iterations limit, blocks count: " + blocksCount);
+		}
+	}
+
+	/**
+	 * Blocks ids in post order (successors before predecessors),
+	 * blocks unreachable from method start added at end
+	 */
+	private int[] getPostOrder(List<BlockNode> blocks) {
+		int bbCount = blocks.size();
+		int[] order = new int[bbCount];
+		int pos = 0;
+		BitSet visited = new BitSet(bbCount);
+		int[] stack = new int[bbCount];
+		int[] succIdx = new int[bbCount];
+		int top = 0;
+		BlockNode enterBlock = mth.getEnterBlock();
+		if (enterBlock != null) {
+			stack[top++] = enterBlock.getId();
+			visited.set(enterBlock.getId());
+		}
+		while (top != 0) {
+			int blockId = stack[top - 1];
+			List<BlockNode> successors = blocks.get(blockId).getSuccessors();
+			int idx = succIdx[blockId];
+			if (idx < successors.size()) {
+				succIdx[blockId] = idx + 1;
+				int succId = successors.get(idx).getId();
+				if (!visited.get(succId)) {
+					visited.set(succId);
+					stack[top++] = succId;
+				}
+			} else {
+				order[pos++] = blockId;
+				top--;
 			}
-		} while (changed);
+		}
+		for (int id = visited.nextClearBit(0); id < bbCount; id = visited.nextClearBit(id + 1)) {
+			order[pos++] = id;
+		}
+		return order;
+	}
 
-		this.liveIn = liveInBlocks;
+	private static BitSet getOrCreate(BitSet[] array, int index) {
+		BitSet bitSet = array[index];
+		if (bitSet == null) {
+			bitSet = new BitSet();
+			array[index] = bitSet;
+		}
+		return bitSet;
 	}
 
 	private static BitSet[] initBitSetArray(int length, int bitsCount) {
@@ -29,13 +29,12 @@ import jadx.core.dex.nodes.MethodNode;
  * Stages description:
  * - find all possible candidate types within bounds
  * - build dynamic constraint list for every variable
- * - run search by checking all candidates
+ * - run search for types matching all constraints (see {@link TypeSearchSolver})
  */
 public class TypeSearch {
 	private static final Logger LOG = LoggerFactory.getLogger(TypeSearch.class);
 
 	private static final int CANDIDATES_COUNT_LIMIT = 10;
-	private static final int SEARCH_ITERATION_LIMIT = 1_000_000;
 
 	private final MethodNode mth;
 	private final TypeSearchState state;
@@ -61,8 +60,7 @@ public class TypeSearch {
 		if (vars.isEmpty()) {
 			searchSuccess = true;
 		} else {
-			search(vars);
-			searchSuccess = fullCheck(vars);
+			searchSuccess = search(vars);
 			if (Consts.DEBUG && !searchSuccess) {
 				LOG.warn("Multi-variable search failed in {}", mth);
 			}
@@ -113,43 +111,7 @@ public class TypeSearch {
 			LOG.debug("--- count = {}, {}", count, sb);
 		}
 
-		// prepare vars
-		for (TypeSearchVarInfo var : vars) {
-			var.reset();
-		}
-		// check all types combinations
-		int n = 0;
-		int i = 0;
-		while (!fullCheck(vars)) {
-			TypeSearchVarInfo first = vars.get(i);
-			if (first.nextType()) {
-				int k = i + 1;
-				if (k >= len) {
-					return false;
-				}
-				TypeSearchVarInfo next = vars.get(k);
-				while (true) {
-					if (next.nextType()) {
-						k++;
-						if (k >= len) {
-							return false;
-						}
-						next = vars.get(k);
-					} else {
-						break;
-					}
-				}
-			}
-			n++;
-			if (n > SEARCH_ITERATION_LIMIT) {
-				return false;
-			}
-		}
-		// mark all vars as resolved
-		for (TypeSearchVarInfo var : vars) {
-			var.setTypeResolved(true);
-		}
-		return true;
+		return new TypeSearchSolver(mth, state).solve(vars);
 	}
 
 	private boolean resolveIndependentVariables(TypeSearchVarInfo varInfo) {
@@ -171,15 +133,6 @@ public class TypeSearch {
 		return false;
 	}
 
-	private boolean fullCheck(List<TypeSearchVarInfo> vars) {
-		for (TypeSearchVarInfo var : vars) {
-			if (!singleCheck(var)) {
-				return false;
-			}
-		}
-		return true;
-	}
-
 	private boolean singleCheck(TypeSearchVarInfo var) {
 		if (var.isTypeResolved()) {
 			return true;
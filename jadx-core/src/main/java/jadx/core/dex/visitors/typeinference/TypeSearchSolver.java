@@ -0,0 +1,317 @@
+package jadx.core.dex.visitors.typeinference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.instructions.args.SSAVar;
+import jadx.core.dex.nodes.MethodNode;
+
+/**
+ * Constraint solver for multi-variable type search.
+ * <p>
+ * Variables split into independent groups (not connected by constraints), for every group:
+ * - remove candidate types without support in constraints (generalized arc consistency)
+ * - run backtracking search with same propagation after every assignment,
+ * empty candidates set for any variable means conflict and current assignment rejected.
+ * <p>
+ * Variables assigned from last to first and candidates checked in sorted order,
+ * so solution is the same as first matched combination in check of all types combinations.
+ */
+final class TypeSearchSolver {
+	/**
+	 * Max count of other variables types combinations checked for find support of one candidate
+	 */
+	private static final int SUPPORT_CHECK_LIMIT = 1000;
+	private static final int SEARCH_STEPS_LIMIT = 1_000_000;
+
+	private final MethodNode mth;
+	private final TypeSearchState state;
+
+	private TypeSearchVarInfo[] vars;
+	private BitSet[] domains;
+	private boolean[] assigned;
+	private List<List<ConstraintScope>> varConstraints;
+
+	// removed candidates: pairs of var index and candidate index
+	private int[] trail = new int[64];
+	private int trailSize;
+	private int steps;
+
+	private static final class ConstraintScope {
+		private final ITypeConstraint constraint;
+		/**
+		 * Indexes of not resolved variables
+		 */
+		private final int[] vars;
+		private boolean queued;
+
+		private ConstraintScope(ITypeConstraint constraint, int[] vars) {
+			this.constraint = constraint;
+			this.vars = vars;
+		}
+	}
+
+	TypeSearchSolver(MethodNode mth, TypeSearchState state) {
+		this.mth = mth;
+		this.state = state;
+	}
+
+	/**
+	 * Resolved groups marked as resolved even if search in other groups failed
+	 *
+	 * @return false if no solution found for any variables group
+	 */
+	boolean solve(List<TypeSearchVarInfo> unresolvedVars) {
+		boolean success = true;
+		for (List<TypeSearchVarInfo> group : splitToGroups(unresolvedVars)) {
+			if (solveGroup(group)) {
+				for (TypeSearchVarInfo var : group) {
+					var.setTypeResolved(true);
+				}
+			} else {
+				success = false;
+			}
+		}
+		return success;
+	}
+
+	private List<List<TypeSearchVarInfo>> splitToGroups(List<TypeSearchVarInfo> unresolvedVars) {
+		int count = unresolvedVars.size();
+		Map<SSAVar, Integer> indexMap = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			indexMap.put(unresolvedVars.get(i).getVar(), i);
+		}
+		int[] parent = new int[count];
+		for (int i = 0; i < count; i++) {
+			parent[i] = i;
+		}
+		for (int i = 0; i < count; i++) {
+			for (ITypeConstraint constraint : unresolvedVars.get(i).getConstraints()) {
+				for (SSAVar relatedVar : constraint.getRelatedVars()) {
+					Integer j = indexMap.get(relatedVar);
+					if (j != null) {
+						parent[find(parent, i)] = find(parent, j);
+					}
+				}
+			}
+		}
+		Map<Integer, List<TypeSearchVarInfo>> groups = new HashMap<>();
+		List<List<TypeSearchVarInfo>> result = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			List<TypeSearchVarInfo> group = groups.get(find(parent, i));
+			if (group == null) {
+				group = new ArrayList<>();
+				groups.put(find(parent, i), group);
+				result.add(group);
+			}
+			group.add(unresolvedVars.get(i));
+		}
+		return result;
+	}
+
+	private static int find(int[] parent, int i) {
+		int root = i;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		int k = i;
+		while (parent[k] != root) {
+			int next = parent[k];
+			parent[k] = root;
+			k = next;
+		}
+		return root;
+	}
+
+	private boolean solveGroup(List<TypeSearchVarInfo> group) {
+		int count = group.size();
+		vars = group.toArray(new TypeSearchVarInfo[0]);
+		domains = new BitSet[count];
+		assigned = new boolean[count];
+		varConstraints = new ArrayList<>(count);
+		Map<SSAVar, Integer> indexMap = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			domains[i] = new BitSet();
+			domains[i].set(0, vars[i].getCandidateTypes().size());
+			varConstraints.add(new ArrayList<>());
+			indexMap.put(vars[i].getVar(), i);
+		}
+		List<ConstraintScope> constraints = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			for (ITypeConstraint constraint : vars[i].getConstraints()) {
+				int[] scopeVars = collectScopeVars(i, constraint, indexMap);
+				ConstraintScope scope = new ConstraintScope(constraint, scopeVars);
+				constraints.add(scope);
+				for (int v : scopeVars) {
+					varConstraints.get(v).add(scope);
+				}
+			}
+		}
+		trailSize = 0;
+		steps = 0;
+		return propagate(constraints) && assign(count - 1);
+	}
+
+	private static int[] collectScopeVars(int owner, ITypeConstraint constraint, Map<SSAVar, Integer> indexMap) {
+		BitSet set = new BitSet();
+		set.set(owner);
+		for (SSAVar relatedVar : constraint.getRelatedVars()) {
+			Integer idx = indexMap.get(relatedVar);
+			if (idx != null) {
+				set.set(idx);
+			}
+		}
+		return set.stream().toArray();
+	}
+
+	private boolean assign(int k) {
+		if (k < 0) {
+			return true;
+		}
+		if (++steps > SEARCH_STEPS_LIMIT) {
+			return false;
+		}
+		mth.checkTimeLimit();
+		BitSet domain = domains[k];
+		List<ArgType> candidates = vars[k].getCandidateTypes();
+		for (int c = domain.nextSetBit(0); c >= 0; c = domain.nextSetBit(c + 1)) {
+			int mark = trailSize;
+			for (int r = domain.nextSetBit(0); r >= 0; r = domain.nextSetBit(r + 1)) {
+				if (r != c) {
+					remove(k, r);
+				}
+			}
+			assigned[k] = true;
+			vars[k].setCurrentType(candidates.get(c));
+			if (checkAssigned(k) && propagate(varConstraints.get(k)) && assign(k - 1)) {
+				return true;
+			}
+			assigned[k] = false;
+			undo(mark);
+		}
+		return false;
+	}
+
+	/**
+	 * Check constraints with all variables assigned
+	 */
+	private boolean checkAssigned(int var) {
+		for (ConstraintScope scope : varConstraints.get(var)) {
+			if (isAllAssigned(scope) && !scope.constraint.check(state)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isAllAssigned(ConstraintScope scope) {
+		for (int v : scope.vars) {
+			if (!assigned[v]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return false if candidates set of some variable become empty
+	 */
+	private boolean propagate(List<ConstraintScope> start) {
+		List<ConstraintScope> queue = new ArrayList<>(start);
+		queue.forEach(scope -> scope.queued = true);
+		int pos = 0;
+		boolean success = true;
+		while (pos < queue.size()) {
+			ConstraintScope scope = queue.get(pos++);
+			scope.queued = false;
+			if (!success) {
+				continue;
+			}
+			for (int v : scope.vars) {
+				if (!assigned[v] && revise(scope, v)) {
+					if (domains[v].isEmpty()) {
+						success = false;
+						break;
+					}
+					for (ConstraintScope other : varConstraints.get(v)) {
+						if (!other.queued && other != scope) {
+							other.queued = true;
+							queue.add(other);
+						}
+					}
+				}
+			}
+		}
+		return success;
+	}
+
+	/**
+	 * Remove candidates of variable without any matching types combination of other variables
+	 *
+	 * @return true if candidates removed
+	 */
+	private boolean revise(ConstraintScope scope, int var) {
+		int[] others = new int[scope.vars.length - 1];
+		int othersCount = 0;
+		long combinations = 1;
+		for (int v : scope.vars) {
+			if (v != var && !assigned[v]) {
+				others[othersCount++] = v;
+				combinations *= domains[v].cardinality();
+				if (combinations > SUPPORT_CHECK_LIMIT) {
+					return false;
+				}
+			}
+		}
+		int[] checkVars = Arrays.copyOf(others, othersCount);
+		BitSet domain = domains[var];
+		List<ArgType> candidates = vars[var].getCandidateTypes();
+		boolean removed = false;
+		for (int c = domain.nextSetBit(0); c >= 0; c = domain.nextSetBit(c + 1)) {
+			vars[var].setCurrentType(candidates.get(c));
+			if (!hasSupport(scope, checkVars, 0)) {
+				remove(var, c);
+				removed = true;
+			}
+		}
+		return removed;
+	}
+
+	private boolean hasSupport(ConstraintScope scope, int[] checkVars, int k) {
+		if (k == checkVars.length) {
+			return scope.constraint.check(state);
+		}
+		int v = checkVars[k];
+		List<ArgType> candidates = vars[v].getCandidateTypes();
+		BitSet domain = domains[v];
+		for (int c = domain.nextSetBit(0); c >= 0; c = domain.nextSetBit(c + 1)) {
+			vars[v].setCurrentType(candidates.get(c));
+			if (hasSupport(scope, checkVars, k + 1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void remove(int var, int candidate) {
+		domains[var].clear(candidate);
+		if (trailSize + 2 > trail.length) {
+			trail = Arrays.copyOf(trail, trail.length * 2);
+		}
+		trail[trailSize++] = var;
+		trail[trailSize++] = candidate;
+	}
+
+	private void undo(int mark) {
+		while (trailSize > mark) {
+			int candidate = trail[--trailSize];
+			int var = trail[--trailSize];
+			domains[var].set(candidate);
+		}
+	}
+}
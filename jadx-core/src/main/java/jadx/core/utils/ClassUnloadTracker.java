@@ -0,0 +1,112 @@
+package jadx.core.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.ProcessState;
+import jadx.core.dex.visitors.DependencyCollector;
+
+/**
+ * Unload processed classes during batch save to reduce memory usage.
+ * <p>
+ * Each class has reference counter: one reference for own save and one for every dependent class.
+ * Dependencies from declarations and instructions
+ * (see {@link DependencyCollector#collectReferencedDeps(ClassNode)}) counted at start and released after dependent class saved,
+ * so class unloaded only after all classes which can use its processed state are saved.
+ * Class unloaded when counter drops to zero.
+ * Unloaded class not processed again: attributes and method signatures kept for later requests.
+ */
+public class ClassUnloadTracker {
+
+	private final Set<ClassNode> classes;
+	private final Map<ClassNode, Integer> refs;
+	private final Map<ClassNode, List<ClassNode>> dependencies;
+
+	public ClassUnloadTracker(List<ClassNode> classes) {
+		this.classes = new HashSet<>(classes);
+		this.refs = new HashMap<>(classes.size());
+		this.dependencies = new HashMap<>(classes.size());
+		for (ClassNode cls : classes) {
+			refs.merge(cls, 1, Integer::sum);
+		}
+		for (ClassNode cls : classes) {
+			List<ClassNode> deps = new ArrayList<>();
+			for (ClassNode dep : DependencyCollector.collectReferencedDeps(cls)) {
+				if (this.classes.contains(dep)) {
+					deps.add(dep);
+					refs.merge(dep, 1, Integer::sum);
+				}
+			}
+			if (!deps.isEmpty()) {
+				dependencies.put(cls, deps);
+			}
+		}
+	}
+
+	/**
+	 * Keep dependencies loaded until code generation of dependent class is finished.
+	 * Reference added under class lock, so running unload of dependency finished before.
+	 */
+	public void acquire(List<ClassNode> deps) {
+		for (ClassNode dep : deps) {
+			if (classes.contains(dep)) {
+				synchronized (dep.getClassInfo()) {
+					synchronized (this) {
+						refs.merge(dep, 1, Integer::sum);
+					}
+				}
+			}
+		}
+	}
+
+	public void release(List<ClassNode> deps) {
+		for (ClassNode dep : deps) {
+			release(dep);
+		}
+	}
+
+	public void classSaved(ClassNode cls) {
+		release(cls);
+		List<ClassNode> deps;
+		synchronized (this) {
+			deps = dependencies.remove(cls);
+		}
+		release(deps == null ? Collections.emptyList() : deps);
+	}
+
+	private void release(ClassNode cls) {
+		synchronized (this) {
+			Integer count = refs.get(cls);
+			if (count == null) {
+				return;
+			}
+			if (count > 1) {
+				refs.put(cls, count - 1);
+				return;
+			}
+			refs.remove(cls);
+		}
+		unload(cls);
+	}
+
+	private void unload(ClassNode cls) {
+		synchronized (cls.getClassInfo()) {
+			synchronized (this) {
+				if (refs.containsKey(cls)) {
+					// acquired again by dependent class
+					return;
+				}
+			}
+			// not processed classes (loaded from code cache or failed) can't be restored after unload
+			if (cls.getState() == ProcessState.PROCESS_COMPLETE) {
+				cls.unload();
+			}
+		}
+	}
+}
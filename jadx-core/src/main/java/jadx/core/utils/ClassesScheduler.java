@@ -0,0 +1,241 @@
+package jadx.core.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.visitors.DependencyCollector;
+
+/**
+ * Choose order of top classes for parallel decompilation.
+ * <p>
+ * Dependency graph built before processing from classes declarations
+ * (see {@link DependencyCollector#collectDeclarationDeps(ClassNode)}),
+ * cycles merged into strongly connected components.
+ * Classes from component became 'ready' when all classes from dependency components are done,
+ * so worker threads don't wait for dependency processing in another thread.
+ * If ready queue is empty next class in topological order returned to keep all threads busy.
+ */
+public class ClassesScheduler {
+
+	private final List<ClassNode> classes;
+	private final Map<ClassNode, Integer> clsIndex;
+	private final int[] clsComp;
+	private final List<List<ClassNode>> compClasses;
+	private final int[][] compDependents;
+	private final int[] compRemaining;
+	private final int[] compPendingDeps;
+
+	private final Deque<ClassNode> ready = new ArrayDeque<>();
+	private final boolean[] started;
+	private final boolean[] done;
+	private final List<ClassNode> order;
+	private int orderPos;
+
+	public ClassesScheduler(List<ClassNode> classes) {
+		int count = classes.size();
+		this.classes = classes;
+		this.clsIndex = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			clsIndex.put(classes.get(i), i);
+		}
+		this.started = new boolean[count];
+		this.done = new boolean[count];
+
+		int[][] deps = buildDepsGraph();
+		this.clsComp = new int[count];
+		int compCount = findComponents(deps, clsComp);
+
+		this.compClasses = new ArrayList<>(compCount);
+		for (int c = 0; c < compCount; c++) {
+			compClasses.add(new ArrayList<>());
+		}
+		for (int i = 0; i < count; i++) {
+			compClasses.get(clsComp[i]).add(classes.get(i));
+		}
+		this.compRemaining = new int[compCount];
+		this.compPendingDeps = new int[compCount];
+		this.compDependents = buildDependents(deps, compCount);
+
+		// components numbered in topological order: dependencies first
+		this.order = new ArrayList<>(count);
+		for (int c = 0; c < compCount; c++) {
+			List<ClassNode> list = compClasses.get(c);
+			order.addAll(list);
+			compRemaining[c] = list.size();
+			if (compPendingDeps[c] == 0) {
+				ready.addAll(list);
+			}
+		}
+	}
+
+	private int[][] buildDepsGraph() {
+		int count = classes.size();
+		int[][] deps = new int[count][];
+		for (int i = 0; i < count; i++) {
+			List<ClassNode> clsDeps = DependencyCollector.collectDeclarationDeps(classes.get(i));
+			int[] arr = new int[clsDeps.size()];
+			int k = 0;
+			for (ClassNode dep : clsDeps) {
+				Integer depIdx = clsIndex.get(dep);
+				if (depIdx != null && depIdx != i) {
+					arr[k++] = depIdx;
+				}
+			}
+			deps[i] = k == arr.length ? arr : Arrays.copyOf(arr, k);
+		}
+		return deps;
+	}
+
+	/**
+	 * Non-recursive Tarjan's algorithm.
+	 * Components found in reverse topological order of dependents, i.e. dependencies first.
+	 *
+	 * @return components count
+	 */
+	private static int findComponents(int[][] deps, int[] comp) {
+		int count = deps.length;
+		int[] index = new int[count];
+		int[] low = new int[count];
+		int[] edgePos = new int[count];
+		boolean[] onStack = new boolean[count];
+		int[] stack = new int[count];
+		int[] callStack = new int[count];
+		Arrays.fill(index, -1);
+
+		int sp = 0;
+		int counter = 0;
+		int compCount = 0;
+		for (int s = 0; s < count; s++) {
+			if (index[s] != -1) {
+				continue;
+			}
+			int csp = 0;
+			index[s] = counter;
+			low[s] = counter;
+			counter++;
+			stack[sp++] = s;
+			onStack[s] = true;
+			callStack[csp++] = s;
+			while (csp > 0) {
+				int v = callStack[csp - 1];
+				int[] vDeps = deps[v];
+				if (edgePos[v] < vDeps.length) {
+					int w = vDeps[edgePos[v]++];
+					if (index[w] == -1) {
+						index[w] = counter;
+						low[w] = counter;
+						counter++;
+						stack[sp++] = w;
+						onStack[w] = true;
+						callStack[csp++] = w;
+					} else if (onStack[w]) {
+						low[v] = Math.min(low[v], index[w]);
+					}
+					continue;
+				}
+				csp--;
+				if (csp > 0) {
+					int u = callStack[csp - 1];
+					low[u] = Math.min(low[u], low[v]);
+				}
+				if (low[v] == index[v]) {
+					int w;
+					do {
+						w = stack[--sp];
+						onStack[w] = false;
+						comp[w] = compCount;
+					} while (w != v);
+					compCount++;
+				}
+			}
+		}
+		return compCount;
+	}
+
+	private int[][] buildDependents(int[][] deps, int compCount) {
+		List<List<Integer>> dependents = new ArrayList<>(compCount);
+		for (int c = 0; c < compCount; c++) {
+			dependents.add(new ArrayList<>());
+		}
+		// last component which added edge from dependency component, used to skip duplicates
+		int[] lastAdded = new int[compCount];
+		Arrays.fill(lastAdded, -1);
+		for (int c = 0; c < compCount; c++) {
+			for (ClassNode cls : compClasses.get(c)) {
+				for (int dep : deps[clsIndex.get(cls)]) {
+					int depComp = clsComp[dep];
+					if (depComp != c && lastAdded[depComp] != c) {
+						lastAdded[depComp] = c;
+						dependents.get(depComp).add(c);
+						compPendingDeps[c]++;
+					}
+				}
+			}
+		}
+		int[][] result = new int[compCount][];
+		for (int c = 0; c < compCount; c++) {
+			List<Integer> list = dependents.get(c);
+			int[] arr = new int[list.size()];
+			for (int i = 0; i < arr.length; i++) {
+				arr[i] = list.get(i);
+			}
+			result[c] = arr;
+		}
+		return result;
+	}
+
+	/**
+	 * @return next class to process or null if all classes already started
+	 */
+	@Nullable
+	public synchronized ClassNode next() {
+		ClassNode cls;
+		while ((cls = ready.poll()) != null) {
+			if (markStarted(cls)) {
+				return cls;
+			}
+		}
+		while (orderPos < order.size()) {
+			cls = order.get(orderPos++);
+			if (markStarted(cls)) {
+				return cls;
+			}
+		}
+		return null;
+	}
+
+	public synchronized void classDone(ClassNode cls) {
+		Integer idx = clsIndex.get(cls);
+		if (idx == null || done[idx]) {
+			return;
+		}
+		done[idx] = true;
+		int comp = clsComp[idx];
+		compRemaining[comp]--;
+		if (compRemaining[comp] == 0) {
+			for (int dependent : compDependents[comp]) {
+				compPendingDeps[dependent]--;
+				if (compPendingDeps[dependent] == 0) {
+					ready.addAll(compClasses.get(dependent));
+				}
+			}
+		}
+	}
+
+	private boolean markStarted(ClassNode cls) {
+		int idx = clsIndex.get(cls);
+		if (started[idx]) {
+			return false;
+		}
+		started[idx] = true;
+		return true;
+	}
+}
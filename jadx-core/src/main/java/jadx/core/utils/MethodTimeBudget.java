@@ -0,0 +1,58 @@
+package jadx.core.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.visitors.DepthTraversal;
+import jadx.core.utils.exceptions.JadxTimeLimitException;
+
+/**
+ * Limit total time of method processing by decompilation passes.
+ * <p>
+ * Time counted only inside pass visits (see {@link DepthTraversal}) and checked after every visit,
+ * long running loops in passes should also call {@link MethodNode#checkTimeLimit()} to stop early.
+ * Not thread safe: method processed only by one thread at a time.
+ */
+public class MethodTimeBudget {
+	private final long limitMs;
+	private final long limit;
+
+	private long spent;
+	private long start;
+	private int depth;
+
+	public MethodTimeBudget(long limitMs) {
+		this.limitMs = limitMs;
+		this.limit = TimeUnit.MILLISECONDS.toNanos(limitMs);
+	}
+
+	public void start() {
+		if (depth++ == 0) {
+			start = System.nanoTime();
+		}
+	}
+
+	public void stop() {
+		if (--depth == 0) {
+			spent += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Pass visit started from other pass visit of same method
+	 */
+	public boolean isNested() {
+		return depth > 1;
+	}
+
+	public boolean isExceeded() {
+		long elapsed = depth == 0 ? spent : spent + System.nanoTime() - start;
+		return elapsed > limit;
+	}
+
+	public void check() {
+		if (isExceeded()) {
+			throw new JadxTimeLimitException("Method decompilation time limit reached: " + limitMs + " ms");
+		}
+	}
+}
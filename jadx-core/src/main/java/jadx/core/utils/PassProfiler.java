@@ -0,0 +1,307 @@
+package jadx.core.utils;
+
+import java.io.File;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.visitors.DepthTraversal;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Collect wall time, CPU time and allocated bytes for every pass and method.
+ * <p>
+ * Enabled by {@link jadx.api.JadxArgs#getProfileReport()}, measurements made in {@link DepthTraversal}.
+ * CPU time and allocated bytes read from {@link ThreadMXBean} for current thread (if supported by JVM),
+ * so time of passes started from other pass also included into outer pass.
+ * Pass wall times also collected into histogram with power of two buckets (in microseconds).
+ * <p>
+ * Method stats accumulated only while class processed (see {@link #startClass()} and {@link #finishClass()})
+ * and then merged into bounded list of slowest methods, so stats for all methods are not kept in memory.
+ */
+public class PassProfiler {
+	private static final Logger LOG = LoggerFactory.getLogger(PassProfiler.class);
+
+	static final int TOP_METHODS_COUNT = 20;
+	static final int HISTOGRAM_SIZE = 32;
+
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+	private final ThreadMXBean threadBean;
+	private final boolean cpuTimeSupported;
+	@Nullable
+	private final com.sun.management.ThreadMXBean allocBean;
+	private final long startTime = System.nanoTime();
+
+	private final Map<String, PassStats> passes = new ConcurrentHashMap<>();
+	private final ThreadLocal<ClassStats> currentClass = new ThreadLocal<>();
+	/**
+	 * Min heap by wall time, guarded by 'this'
+	 */
+	private final PriorityQueue<MethodStats> topMethods =
+			new PriorityQueue<>(TOP_METHODS_COUNT, Comparator.comparingLong(m -> m.wallTime));
+
+	public static final class Measure {
+		private final long wallTime;
+		private final long cpuTime;
+		private final long allocated;
+
+		private Measure(long wallTime, long cpuTime, long allocated) {
+			this.wallTime = wallTime;
+			this.cpuTime = cpuTime;
+			this.allocated = allocated;
+		}
+	}
+
+	private static final class PassStats {
+		private final String name;
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder wallTime = new LongAdder();
+		private final LongAdder cpuTime = new LongAdder();
+		private final LongAdder allocated = new LongAdder();
+		private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_SIZE);
+
+		private PassStats(String name) {
+			this.name = name;
+		}
+	}
+
+	private static final class MethodStats {
+		private final MethodNode mth;
+		private long wallTime;
+		private long cpuTime;
+		private long allocated;
+		private String slowestPass;
+		private long slowestPassTime;
+
+		private MethodStats(MethodNode mth) {
+			this.mth = mth;
+		}
+
+		private void add(String pass, long wall, long cpu, long alloc) {
+			wallTime += wall;
+			cpuTime += cpu;
+			allocated += alloc;
+			if (wall > slowestPassTime) {
+				slowestPass = pass;
+				slowestPassTime = wall;
+			}
+		}
+	}
+
+	/**
+	 * Methods stats of class processed in current thread,
+	 * outer class restored after finish of nested class processing
+	 */
+	private static final class ClassStats {
+		@Nullable
+		private final ClassStats outer;
+		private final Map<MethodNode, MethodStats> methods = new HashMap<>();
+
+		private ClassStats(@Nullable ClassStats outer) {
+			this.outer = outer;
+		}
+	}
+
+	public PassProfiler() {
+		threadBean = ManagementFactory.getThreadMXBean();
+		cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported();
+		if (cpuTimeSupported && !threadBean.isThreadCpuTimeEnabled()) {
+			threadBean.setThreadCpuTimeEnabled(true);
+		}
+		com.sun.management.ThreadMXBean bean = null;
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			bean = (com.sun.management.ThreadMXBean) threadBean;
+			if (bean.isThreadAllocatedMemorySupported()) {
+				bean.setThreadAllocatedMemoryEnabled(true);
+			} else {
+				bean = null;
+			}
+		}
+		allocBean = bean;
+	}
+
+	public void startClass() {
+		currentClass.set(new ClassStats(currentClass.get()));
+	}
+
+	public void finishClass() {
+		ClassStats stats = currentClass.get();
+		if (stats == null) {
+			return;
+		}
+		currentClass.set(stats.outer);
+		for (MethodStats mthStats : stats.methods.values()) {
+			addTopMethod(mthStats);
+		}
+	}
+
+	private synchronized void addTopMethod(MethodStats stats) {
+		if (topMethods.size() < TOP_METHODS_COUNT) {
+			topMethods.add(stats);
+		} else if (stats.wallTime > topMethods.peek().wallTime) {
+			topMethods.poll();
+			topMethods.add(stats);
+		}
+	}
+
+	public Measure start() {
+		return new Measure(System.nanoTime(), getCpuTime(), getAllocated());
+	}
+
+	/**
+	 * Add measurement for class level pass visit (without visits of methods)
+	 */
+	public void classDone(Measure start, IDexTreeVisitor pass) {
+		add(start, pass, null);
+	}
+
+	public void methodDone(Measure start, IDexTreeVisitor pass, MethodNode mth) {
+		add(start, pass, mth);
+	}
+
+	private void add(Measure start, IDexTreeVisitor pass, @Nullable MethodNode mth) {
+		long wall = System.nanoTime() - start.wallTime;
+		long cpu = getCpuTime() - start.cpuTime;
+		long alloc = getAllocated() - start.allocated;
+
+		String passName = pass.getClass().getSimpleName();
+		PassStats passStats = passes.computeIfAbsent(passName, PassStats::new);
+		passStats.calls.increment();
+		passStats.wallTime.add(wall);
+		passStats.cpuTime.add(cpu);
+		passStats.allocated.add(alloc);
+		passStats.histogram.incrementAndGet(getBucket(wall));
+		if (mth != null) {
+			ClassStats classStats = currentClass.get();
+			if (classStats != null) {
+				classStats.methods.computeIfAbsent(mth, MethodStats::new).add(passName, wall, cpu, alloc);
+			} else {
+				// method processed outside of class processing
+				MethodStats mthStats = new MethodStats(mth);
+				mthStats.add(passName, wall, cpu, alloc);
+				addTopMethod(mthStats);
+			}
+		}
+	}
+
+	/**
+	 * Bucket {@code n} contains times in range [2^(n-1), 2^n) microseconds, first bucket for times below 1 microsecond
+	 */
+	static int getBucket(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		return Math.min(64 - Long.numberOfLeadingZeros(micros), HISTOGRAM_SIZE - 1);
+	}
+
+	private long getCpuTime() {
+		return cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0;
+	}
+
+	private long getAllocated() {
+		return allocBean != null ? allocBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	public void saveReport(File file) {
+		JsonObject report = buildReport();
+		FileUtils.makeDirsForFile(file);
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			GSON.toJson(report, writer);
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Failed to save profile report: " + file, e);
+		}
+		LOG.info("Profile report saved to {}", file.getAbsolutePath());
+		printTopMethods();
+	}
+
+	JsonObject buildReport() {
+		JsonObject report = new JsonObject();
+		report.addProperty("elapsedMs", toMillis(System.nanoTime() - startTime));
+		report.addProperty("cpuTimeSupported", cpuTimeSupported);
+		report.addProperty("allocatedBytesSupported", allocBean != null);
+
+		List<PassStats> passesList = new ArrayList<>(passes.values());
+		passesList.sort(Comparator.comparingLong((PassStats p) -> p.wallTime.sum()).reversed());
+		JsonArray passesArr = new JsonArray();
+		for (PassStats pass : passesList) {
+			JsonObject obj = new JsonObject();
+			obj.addProperty("name", pass.name);
+			obj.addProperty("calls", pass.calls.sum());
+			obj.addProperty("wallMs", toMillis(pass.wallTime.sum()));
+			obj.addProperty("cpuMs", toMillis(pass.cpuTime.sum()));
+			obj.addProperty("allocatedBytes", pass.allocated.sum());
+			JsonArray histogram = new JsonArray();
+			for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+				long count = pass.histogram.get(i);
+				if (count != 0) {
+					JsonObject bucket = new JsonObject();
+					bucket.addProperty("upToMicros", 1L << i);
+					bucket.addProperty("count", count);
+					histogram.add(bucket);
+				}
+			}
+			obj.add("histogram", histogram);
+			passesArr.add(obj);
+		}
+		report.add("passes", passesArr);
+
+		JsonArray methodsArr = new JsonArray();
+		for (MethodStats stats : getTopMethods()) {
+			JsonObject obj = new JsonObject();
+			obj.addProperty("method", stats.mth.toString());
+			obj.addProperty("wallMs", toMillis(stats.wallTime));
+			obj.addProperty("cpuMs", toMillis(stats.cpuTime));
+			obj.addProperty("allocatedBytes", stats.allocated);
+			obj.addProperty("slowestPass", stats.slowestPass);
+			obj.addProperty("slowestPassMs", toMillis(stats.slowestPassTime));
+			methodsArr.add(obj);
+		}
+		report.add("slowestMethods", methodsArr);
+		return report;
+	}
+
+	private synchronized List<MethodStats> getTopMethods() {
+		List<MethodStats> list = new ArrayList<>(topMethods);
+		list.sort(Comparator.comparingLong((MethodStats m) -> m.wallTime).reversed());
+		return list;
+	}
+
+	private void printTopMethods() {
+		List<MethodStats> topMethods = getTopMethods();
+		if (topMethods.isEmpty()) {
+			return;
+		}
+		LOG.info("Slowest methods:");
+		for (MethodStats stats : topMethods) {
+			LOG.info("  {} ms (cpu: {} ms, slowest pass: {}) {}",
+					toMillis(stats.wallTime), toMillis(stats.cpuTime), stats.slowestPass, stats.mth);
+		}
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
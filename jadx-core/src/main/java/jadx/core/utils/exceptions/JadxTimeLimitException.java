@@ -0,0 +1,10 @@
+package jadx.core.utils.exceptions;
+
+public class JadxTimeLimitException extends JadxOverflowException {
+
+	private static final long serialVersionUID = -3152471239416519326L;
+
+	public JadxTimeLimitException(String message) {
+		super(message);
+	}
+}
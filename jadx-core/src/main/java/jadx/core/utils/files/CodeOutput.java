@@ -0,0 +1,15 @@
+package jadx.core.utils.files;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination for generated code files, implementations must be thread-safe.
+ */
+public interface CodeOutput extends Closeable {
+
+	/**
+	 * @param fileName relative file path (can use platform separators)
+	 */
+	void write(String fileName, CharSequence code) throws IOException;
+}
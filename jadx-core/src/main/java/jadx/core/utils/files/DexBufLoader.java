@@ -0,0 +1,185 @@
+package jadx.core.utils.files;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.android.dex.Dex;
+import com.android.dex.DexException;
+
+/**
+ * Create {@link Dex} without copying file content into heap:
+ * dex files and uncompressed (stored) zip entries are memory-mapped.
+ */
+public final class DexBufLoader {
+	private static final Logger LOG = LoggerFactory.getLogger(DexBufLoader.class);
+
+	private static final int EOCD_SIGNATURE = 0x06054b50;
+	private static final int CD_ENTRY_SIGNATURE = 0x02014b50;
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int EOCD_MIN_SIZE = 22;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+	private static final int CD_ENTRY_SIZE = 46;
+	private static final int LOCAL_HEADER_SIZE = 30;
+
+	@Nullable
+	private static final Constructor<Dex> BUF_CONSTRUCTOR = getBufConstructor();
+
+	private DexBufLoader() {
+	}
+
+	public static Dex loadFile(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return fromBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Map stored zip entry in place or inflate compressed entry directly into memory.
+	 *
+	 * @param dataOffsets offsets collected by {@link #readDataOffsets(FileChannel)}
+	 */
+	public static Dex loadZipEntry(FileChannel zipChannel, ZipEntry entry, Map<String, Long> dataOffsets,
+			InputStream inputStream) throws IOException {
+		if (entry.getMethod() == ZipEntry.STORED) {
+			Long offset = dataOffsets.get(entry.getName());
+			if (offset != null) {
+				return fromBuffer(zipChannel.map(FileChannel.MapMode.READ_ONLY, offset, entry.getSize()));
+			}
+		}
+		long size = entry.getSize();
+		if (size < 0 || size > Integer.MAX_VALUE) {
+			return new Dex(inputStream);
+		}
+		byte[] bytes = new byte[(int) size];
+		int pos = 0;
+		while (pos < bytes.length) {
+			int count = inputStream.read(bytes, pos, bytes.length - pos);
+			if (count == -1) {
+				throw new IOException("Unexpected end of zip entry: " + entry.getName());
+			}
+			pos += count;
+		}
+		return new Dex(bytes);
+	}
+
+	/**
+	 * Read data offsets of stored (not compressed) entries from zip central directory.
+	 * Zip64 archives not supported, empty map returned.
+	 */
+	public static Map<String, Long> readDataOffsets(FileChannel channel) {
+		try {
+			long fileSize = channel.size();
+			int tailSize = (int) Math.min(fileSize, EOCD_MIN_SIZE + MAX_COMMENT_SIZE);
+			ByteBuffer tail = read(channel, fileSize - tailSize, tailSize);
+			int eocdPos = -1;
+			for (int i = tailSize - EOCD_MIN_SIZE; i >= 0; i--) {
+				if (tail.getInt(i) == EOCD_SIGNATURE) {
+					eocdPos = i;
+					break;
+				}
+			}
+			if (eocdPos == -1) {
+				return Collections.emptyMap();
+			}
+			long cdSize = tail.getInt(eocdPos + 12) & 0xFFFFFFFFL;
+			long cdOffset = tail.getInt(eocdPos + 16) & 0xFFFFFFFFL;
+			if (cdOffset + cdSize > fileSize) {
+				return Collections.emptyMap();
+			}
+			ByteBuffer cd = read(channel, cdOffset, (int) cdSize);
+			Map<String, Long> offsets = new HashMap<>();
+			ByteBuffer localHeader = ByteBuffer.allocate(LOCAL_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			int pos = 0;
+			while (pos + CD_ENTRY_SIZE <= cdSize && cd.getInt(pos) == CD_ENTRY_SIGNATURE) {
+				int method = cd.getShort(pos + 10) & 0xFFFF;
+				int nameLen = cd.getShort(pos + 28) & 0xFFFF;
+				int extraLen = cd.getShort(pos + 30) & 0xFFFF;
+				int commentLen = cd.getShort(pos + 32) & 0xFFFF;
+				long localHeaderOffset = cd.getInt(pos + 42) & 0xFFFFFFFFL;
+				if (method == ZipEntry.STORED) {
+					byte[] nameBytes = new byte[nameLen];
+					cd.position(pos + CD_ENTRY_SIZE);
+					cd.get(nameBytes);
+					localHeader.clear();
+					channel.read(localHeader, localHeaderOffset);
+					if (localHeader.getInt(0) == LOCAL_HEADER_SIGNATURE) {
+						int localNameLen = localHeader.getShort(26) & 0xFFFF;
+						int localExtraLen = localHeader.getShort(28) & 0xFFFF;
+						long dataOffset = localHeaderOffset + LOCAL_HEADER_SIZE + localNameLen + localExtraLen;
+						offsets.put(new String(nameBytes, StandardCharsets.UTF_8), dataOffset);
+					}
+				}
+				pos += CD_ENTRY_SIZE + nameLen + extraLen + commentLen;
+			}
+			return offsets;
+		} catch (Exception e) {
+			LOG.debug("Failed to read zip central directory", e);
+			return Collections.emptyMap();
+		}
+	}
+
+	private static ByteBuffer read(FileChannel channel, long offset, int size) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		while (buf.hasRemaining()) {
+			if (channel.read(buf, offset + buf.position()) == -1) {
+				throw new IOException("Unexpected end of file");
+			}
+		}
+		return buf;
+	}
+
+	private static Dex fromBuffer(MappedByteBuffer buf) throws IOException {
+		if (BUF_CONSTRUCTOR != null) {
+			try {
+				return BUF_CONSTRUCTOR.newInstance(buf);
+			} catch (InvocationTargetException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				if (cause instanceof DexException) {
+					throw (DexException) cause;
+				}
+				throw new IOException("Dex load failed", cause);
+			} catch (ReflectiveOperationException e) {
+				LOG.debug("Dex buffer constructor call failed", e);
+			}
+		}
+		// copy into heap
+		byte[] bytes = new byte[buf.remaining()];
+		buf.get(bytes);
+		return new Dex(bytes);
+	}
+
+	/**
+	 * Dex class has only private constructor for ByteBuffer
+	 */
+	@Nullable
+	private static Constructor<Dex> getBufConstructor() {
+		try {
+			Constructor<Dex> constructor = Dex.class.getDeclaredConstructor(ByteBuffer.class);
+			constructor.setAccessible(true);
+			return constructor;
+		} catch (Exception e) {
+			LOG.debug("Dex buffer constructor not available, mapped files will be copied into heap", e);
+			return null;
+		}
+	}
+}
@@ -2,15 +2,18 @@ package jadx.core.utils.files;
 
 import java.nio.file.Path;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.android.dex.Dex;
 
 public class DexFile {
 	private final InputFile inputFile;
 	private final String name;
 	private final Dex dexBuf;
+	@Nullable
 	private final Path path;
 
-	public DexFile(InputFile inputFile, String name, Dex dexBuf, Path path) {
+	public DexFile(InputFile inputFile, String name, Dex dexBuf, @Nullable Path path) {
 		this.inputFile = inputFile;
 		this.name = name;
 		this.dexBuf = dexBuf;
@@ -25,6 +28,10 @@ public class DexFile {
 		return dexBuf;
 	}
 
+	/**
+	 * @return path to dex file or null if dex loaded directly from zip entry
+	 */
+	@Nullable
 	public Path getPath() {
 		return path;
 	}
@@ -0,0 +1,86 @@
+package jadx.core.utils.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import jadx.core.codegen.CodeWriter;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Save every code file into separate file in directory.
+ * Code encoded by chunks directly into file channel, so full byte copy of code not created.
+ */
+public class DirCodeOutput implements CodeOutput {
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+	private final File dir;
+
+	public DirCodeOutput(File dir) {
+		this.dir = dir;
+	}
+
+	@Override
+	public void write(String fileName, CharSequence code) throws IOException {
+		if (!ZipSecurity.isValidZipEntryName(fileName)) {
+			return;
+		}
+		File outFile = FileUtils.prepareFile(new File(dir, fileName));
+		try (FileChannel channel = FileChannel.open(outFile.toPath(), WRITE, CREATE, TRUNCATE_EXISTING)) {
+			ByteBuffer buf = BUFFERS.get();
+			buf.clear();
+			CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			encode(channel, encoder, code, buf);
+			encoder.reset();
+			encode(channel, encoder, CodeWriter.NL, buf);
+			drain(channel, buf);
+		}
+	}
+
+	private static void encode(WritableByteChannel channel, CharsetEncoder encoder,
+			CharSequence str, ByteBuffer buf) throws IOException {
+		CharBuffer in = CharBuffer.wrap(str);
+		CoderResult result;
+		do {
+			result = encoder.encode(in, buf, true);
+			if (result.isOverflow()) {
+				drain(channel, buf);
+			}
+		} while (result.isOverflow());
+		while (encoder.flush(buf).isOverflow()) {
+			drain(channel, buf);
+		}
+	}
+
+	private static void drain(WritableByteChannel channel, ByteBuffer buf) throws IOException {
+		buf.flip();
+		while (buf.hasRemaining()) {
+			channel.write(buf);
+		}
+		buf.clear();
+	}
+
+	@Override
+	public void close() {
+		// nothing to release
+	}
+
+	@Override
+	public String toString() {
+		return "DirCodeOutput{" + dir + '}';
+	}
+}
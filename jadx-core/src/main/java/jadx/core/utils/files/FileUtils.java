@@ -155,7 +155,7 @@ public class FileUtils {
 		return new File(file.getParentFile(), name);
 	}
 
-	private static String bytesToHex(byte[] bytes) {
+	public static String bytesToHex(byte[] bytes) {
 		char[] hexArray = "0123456789abcdef".toCharArray();
 		if (bytes == null || bytes.length <= 0) {
 			return null;
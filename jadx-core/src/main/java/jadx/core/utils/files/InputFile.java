@@ -3,12 +3,16 @@ package jadx.core.utils.files;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -99,7 +103,9 @@ public class InputFile {
 
 	private boolean loadFromZip(String ext) throws IOException, DecodeException {
 		int index = 0;
-		try (ZipFile zf = new ZipFile(file)) {
+		Map<String, Long> dataOffsets = null;
+		try (ZipFile zf = new ZipFile(file);
+				FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
 			// Input file could be .apk or .zip files
 			// we should consider the input file could contain only one single dex, multi-dex,
 			// or instantRun support dex for Android .apk files
@@ -116,8 +122,10 @@ public class InputFile {
 							|| entryName.endsWith(instantRunDexSuffix)) {
 						switch (ext) {
 							case ".dex":
-								Path path = copyToTmpDex(entryName, inputStream);
-								if (addDexFile(entryName, path)) {
+								if (dataOffsets == null && entry.getMethod() == ZipEntry.STORED) {
+									dataOffsets = DexBufLoader.readDataOffsets(channel);
+								}
+								if (addDexFromZip(channel, entry, dataOffsets, inputStream)) {
 									index++;
 								}
 								break;
@@ -163,28 +171,32 @@ public class InputFile {
 		return true;
 	}
 
-	@Nullable
-	private Dex loadDexBufFromPath(Path path, String entryName) {
+	private boolean addDexFromZip(FileChannel channel, ZipEntry entry, @Nullable Map<String, Long> dataOffsets,
+			InputStream inputStream) {
+		String entryName = entry.getName();
 		try {
-			return new Dex(Files.readAllBytes(path));
+			Map<String, Long> offsets = dataOffsets == null ? Collections.emptyMap() : dataOffsets;
+			Dex dexBuf = DexBufLoader.loadZipEntry(channel, entry, offsets, inputStream);
+			dexFiles.add(new DexFile(this, entryName, dexBuf, null));
+			return true;
 		} catch (DexException e) {
 			LOG.error("Failed to load dex file: {}, error: {}", entryName, e.getMessage());
 		} catch (Exception e) {
 			LOG.error("Failed to load dex file: {}, error: {}", entryName, e.getMessage(), e);
 		}
-		return null;
+		return false;
 	}
 
 	@Nullable
-	private Path copyToTmpDex(String entryName, InputStream inputStream) {
+	private Dex loadDexBufFromPath(Path path, String entryName) {
 		try {
-			Path path = FileUtils.createTempFile(".dex");
-			Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
-			return path;
+			return DexBufLoader.loadFile(path);
+		} catch (DexException e) {
+			LOG.error("Failed to load dex file: {}, error: {}", entryName, e.getMessage());
 		} catch (Exception e) {
-			LOG.error("Failed to load file: {}, error: {}", entryName, e.getMessage(), e);
-			return null;
+			LOG.error("Failed to load dex file: {}, error: {}", entryName, e.getMessage(), e);
 		}
+		return null;
 	}
 
 	private static List<Path> loadFromJar(Path jar) throws DecodeException {
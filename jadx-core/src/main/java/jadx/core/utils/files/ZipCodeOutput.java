@@ -0,0 +1,68 @@
+package jadx.core.utils.files;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.core.codegen.CodeWriter;
+
+/**
+ * Save all code files into one zip (or jar) archive.
+ * Code encoded in caller thread, only writing into archive is serialized.
+ */
+public class ZipCodeOutput implements CodeOutput {
+	private static final Logger LOG = LoggerFactory.getLogger(ZipCodeOutput.class);
+
+	private static final int BUFFER_SIZE = 256 * 1024;
+	private static final byte[] NL_BYTES = CodeWriter.NL.getBytes(StandardCharsets.UTF_8);
+
+	private final File file;
+	private final ZipOutputStream zip;
+	private final Set<String> entries = new HashSet<>();
+
+	public ZipCodeOutput(File file) throws IOException {
+		this.file = file;
+		FileUtils.makeDirsForFile(file.getAbsoluteFile());
+		this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE));
+	}
+
+	@Override
+	public void write(String fileName, CharSequence code) throws IOException {
+		if (!ZipSecurity.isValidZipEntryName(fileName)) {
+			return;
+		}
+		String entryName = fileName.replace(File.separatorChar, '/');
+		ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(code));
+		synchronized (this) {
+			if (!entries.add(entryName)) {
+				LOG.warn("Duplicate entry '{}' in sources archive, skipped", entryName);
+				return;
+			}
+			zip.putNextEntry(new ZipEntry(entryName));
+			zip.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+			zip.write(NL_BYTES);
+			zip.closeEntry();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		zip.close();
+	}
+
+	@Override
+	public String toString() {
+		return "ZipCodeOutput{" + file + '}';
+	}
+}
@@ -0,0 +1,96 @@
+package jadx.core.utils.files;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Share one opened {@link ZipFile} for all readers of same file.
+ * <p>
+ * Every {@link #open(File)} call add reference to zip file, it closed after all references released.
+ * ZipFile allows concurrent reading of different entries, so returned instance can be used from several threads.
+ * Files added by {@link #keepOpened(File)} stay opened until cache closed.
+ */
+public class ZipFilesCache implements Closeable {
+	private static final Logger LOG = LoggerFactory.getLogger(ZipFilesCache.class);
+
+	private final Map<File, CachedZip> openedFiles = new HashMap<>();
+	private final List<ZipFileRef> keptRefs = new ArrayList<>();
+
+	private final class CachedZip {
+		private final File file;
+		private final ZipFile zipFile;
+		private int refCount;
+
+		private CachedZip(File file, ZipFile zipFile) {
+			this.file = file;
+			this.zipFile = zipFile;
+		}
+	}
+
+	public final class ZipFileRef implements Closeable {
+		private final CachedZip cachedZip;
+		private boolean closed;
+
+		private ZipFileRef(CachedZip cachedZip) {
+			this.cachedZip = cachedZip;
+		}
+
+		public ZipFile getZipFile() {
+			return cachedZip.zipFile;
+		}
+
+		@Override
+		public void close() {
+			synchronized (ZipFilesCache.this) {
+				if (!closed) {
+					closed = true;
+					release(cachedZip);
+				}
+			}
+		}
+	}
+
+	public synchronized ZipFileRef open(File file) throws IOException {
+		File key = file.getAbsoluteFile();
+		CachedZip cachedZip = openedFiles.get(key);
+		if (cachedZip == null) {
+			cachedZip = new CachedZip(key, new ZipFile(key));
+			openedFiles.put(key, cachedZip);
+		}
+		cachedZip.refCount++;
+		return new ZipFileRef(cachedZip);
+	}
+
+	public synchronized void keepOpened(File file) throws IOException {
+		keptRefs.add(open(file));
+	}
+
+	@Override
+	public synchronized void close() {
+		for (ZipFileRef ref : keptRefs) {
+			ref.close();
+		}
+		keptRefs.clear();
+	}
+
+	private void release(CachedZip cachedZip) {
+		cachedZip.refCount--;
+		if (cachedZip.refCount == 0) {
+			openedFiles.remove(cachedZip.file);
+			try {
+				cachedZip.zipFile.close();
+			} catch (IOException e) {
+				LOG.warn("Failed to close zip file: {}", cachedZip.file, e);
+			}
+		}
+	}
+}
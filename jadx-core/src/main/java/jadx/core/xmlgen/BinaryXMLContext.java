@@ -0,0 +1,105 @@
+package jadx.core.xmlgen;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.core.dex.nodes.RootNode;
+
+/**
+ * Data shared between {@link BinaryXMLParser} instances, safe for concurrent use.
+ * Parser itself holds state for one document, so xml files can be decoded in parallel.
+ */
+public class BinaryXMLContext {
+	private static final Logger LOG = LoggerFactory.getLogger(BinaryXMLContext.class);
+
+	private static final String ANDROID_R_STYLE_CLS = "android.R$style";
+
+	private final RootNode rootNode;
+	private final Map<Integer, String> styleMap;
+	private final Map<Integer, String> resNames;
+
+	private final Map<String, String> tagAttrDeobfNames = new HashMap<>();
+	private final Set<String> tagAttrGeneratedNames = new HashSet<>();
+
+	private volatile String appPackageName;
+
+	public BinaryXMLContext(RootNode rootNode) {
+		this.rootNode = rootNode;
+		this.styleMap = readAndroidRStyleClass();
+		this.resNames = rootNode.getConstValues().getResourcesNames();
+	}
+
+	private static Map<Integer, String> readAndroidRStyleClass() {
+		Map<Integer, String> map = new HashMap<>();
+		try {
+			Class<?> rStyleCls = Class.forName(ANDROID_R_STYLE_CLS);
+			for (Field f : rStyleCls.getFields()) {
+				map.put(f.getInt(f.getType()), f.getName());
+			}
+		} catch (Exception e) {
+			LOG.error("Android R class loading failed", e);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	public RootNode getRootNode() {
+		return rootNode;
+	}
+
+	public Map<Integer, String> getStyleMap() {
+		return styleMap;
+	}
+
+	public Map<Integer, String> getResNames() {
+		return resNames;
+	}
+
+	/**
+	 * Replacement for invalid tag or attribute name, same for all documents
+	 */
+	public synchronized String getTagAttrDeobfName(String originalName) {
+		String name = tagAttrDeobfNames.get(originalName);
+		if (name != null) {
+			return name;
+		}
+		String generated;
+		do {
+			generated = generateTagAttrName();
+		} while (!tagAttrGeneratedNames.add(generated));
+		tagAttrDeobfNames.put(originalName, generated);
+		return generated;
+	}
+
+	private static String generateTagAttrName() {
+		final int length = 6;
+		Random r = new Random();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 1; i <= length; i++) {
+			sb.append((char) (r.nextInt(26) + 'a'));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Package name from manifest (if already decoded) or from resources table
+	 */
+	public String getAppPackageName() {
+		String pkg = appPackageName;
+		if (pkg != null) {
+			return pkg;
+		}
+		return rootNode.getAppPackage();
+	}
+
+	public void setAppPackageName(String appPackageName) {
+		this.appPackageName = appPackageName;
+	}
+}
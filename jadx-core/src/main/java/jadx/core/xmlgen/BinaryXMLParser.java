@@ -2,23 +2,18 @@ package jadx.core.xmlgen;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import jadx.api.ResourcesLoader;
 import jadx.core.codegen.CodeWriter;
-import jadx.core.dex.info.ConstStorage;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.RootNode;
 import jadx.core.utils.StringUtils;
-import jadx.core.utils.exceptions.JadxRuntimeException;
 import jadx.core.xmlgen.entry.ValuesParser;
 
 /*
@@ -33,20 +28,24 @@ import jadx.core.xmlgen.entry.ValuesParser;
  * Check Element chunk size
  */
 
+/**
+ * Decode one binary xml document, not thread safe.
+ * Create new instance for every document, shared data stored in {@link BinaryXMLContext}.
+ */
 public class BinaryXMLParser extends CommonBinaryParser {
 
 	private static final Logger LOG = LoggerFactory.getLogger(BinaryXMLParser.class);
-	private static final String ANDROID_R_STYLE_CLS = "android.R$style";
 	private static final boolean ATTR_NEW_LINE = false;
 
-	private final Map<Integer, String> styleMap = new HashMap<>();
+	private final BinaryXMLContext context;
+	private final RootNode rootNode;
+	private final Map<Integer, String> styleMap;
 	private final Map<Integer, String> resNames;
 	private final Map<String, String> nsMap = new HashMap<>();
 	private Set<String> nsMapGenerated;
-	private final Map<String, String> tagAttrDeobfNames = new HashMap<>();
 
 	private CodeWriter writer;
-	private String[] strings;
+	private BinaryXMLStrings strings;
 	private String currentTag = "ERROR";
 	private boolean firstElement;
 	private ValuesParser valuesParser;
@@ -55,35 +54,19 @@ public class BinaryXMLParser extends CommonBinaryParser {
 	private int namespaceDepth = 0;
 	private int[] resourceIds;
 
-	private RootNode rootNode;
-	private String appPackageName;
-
-	public BinaryXMLParser(RootNode rootNode) {
-		this.rootNode = rootNode;
-		try {
-			readAndroidRStyleClass();
-			ConstStorage constStorage = rootNode.getConstValues();
-			resNames = constStorage.getResourcesNames();
-		} catch (Exception e) {
-			throw new JadxRuntimeException("BinaryXMLParser init error", e);
-		}
-	}
-
-	private void readAndroidRStyleClass() {
-		try {
-			Class<?> rStyleCls = Class.forName(ANDROID_R_STYLE_CLS);
-			for (Field f : rStyleCls.getFields()) {
-				styleMap.put(f.getInt(f.getType()), f.getName());
-			}
-		} catch (Exception e) {
-			LOG.error("Android R class loading failed", e);
-		}
+	public BinaryXMLParser(BinaryXMLContext context) {
+		this.context = context;
+		this.rootNode = context.getRootNode();
+		this.styleMap = context.getStyleMap();
+		this.resNames = context.getResNames();
 	}
 
-	public synchronized CodeWriter parse(InputStream inputStream) throws IOException {
+	public CodeWriter parse(InputStream inputStream) throws IOException {
 		is = new ParserStream(inputStream);
 		if (!isBinaryXml()) {
-			return ResourcesLoader.loadToCodeWriter(inputStream);
+			// whole input already read into parser stream
+			byte[] data = is.readInt8Array(is.remaining());
+			return new CodeWriter(new String(data, ParserStream.STRING_CHARSET_UTF8));
 		}
 		nsMapGenerated = new HashSet<>();
 		writer = new CodeWriter();
@@ -95,6 +78,9 @@ public class BinaryXMLParser extends CommonBinaryParser {
 	}
 
 	private boolean isBinaryXml() throws IOException {
+		if (is.remaining() < 4) {
+			return false;
+		}
 		is.mark(4);
 		int v = is.readInt16(); // version
 		int h = is.readInt16(); // header size
@@ -364,8 +350,8 @@ public class BinaryXMLParser extends CommonBinaryParser {
 	}
 
 	private String getString(int strId) {
-		if (0 <= strId && strId < strings.length) {
-			return strings[strId];
+		if (0 <= strId && strId < strings.size()) {
+			return strings.get(strId);
 		}
 		return "NOT_FOUND_STR_0x" + Integer.toHexString(strId);
 	}
@@ -440,25 +426,7 @@ public class BinaryXMLParser extends CommonBinaryParser {
 		if (XMLChar.isValidName(originalName)) {
 			return originalName;
 		}
-		if (tagAttrDeobfNames.containsKey(originalName)) {
-			return tagAttrDeobfNames.get(originalName);
-		}
-		String generated;
-		do {
-			generated = generateTagAttrName();
-		} while (tagAttrDeobfNames.containsValue(generated));
-		tagAttrDeobfNames.put(originalName, generated);
-		return generated;
-	}
-
-	private static String generateTagAttrName() {
-		final int length = 6;
-		Random r = new Random();
-		StringBuilder sb = new StringBuilder();
-		for (int i = 1; i <= length; i++) {
-			sb.append((char) (r.nextInt(26) + 'a'));
-		}
-		return sb.toString();
+		return context.getTagAttrDeobfName(originalName);
 	}
 
 	private void attachClassNode(CodeWriter writer, String attrName, String clsName) {
@@ -467,7 +435,7 @@ public class BinaryXMLParser extends CommonBinaryParser {
 		}
 		String clsFullName;
 		if (clsName.startsWith(".")) {
-			clsFullName = appPackageName + clsName;
+			clsFullName = context.getAppPackageName() + clsName;
 		} else {
 			clsFullName = clsName;
 		}
@@ -478,7 +446,7 @@ public class BinaryXMLParser extends CommonBinaryParser {
 	}
 
 	private String deobfClassName(String className) {
-		String newName = XmlDeobf.deobfClassName(rootNode, className, appPackageName);
+		String newName = XmlDeobf.deobfClassName(rootNode, className, context.getAppPackageName());
 		if (newName != null) {
 			return newName;
 		}
@@ -497,7 +465,7 @@ public class BinaryXMLParser extends CommonBinaryParser {
 
 	private void memorizePackageName(String attrName, String attrValue) {
 		if ("manifest".equals(currentTag) && "package".equals(attrName)) {
-			appPackageName = attrValue;
+			context.setAppPackageName(attrValue);
 		}
 	}
 }
@@ -0,0 +1,92 @@
+package jadx.core.xmlgen;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * String pool from binary resource chunk.
+ * Strings decoded on first access, most of strings from big resource tables never used.
+ * <p>
+ * Can be shared between threads: data accessed only by absolute reads,
+ * concurrent decoding of same string is harmless.
+ */
+public class BinaryXMLStrings {
+	private static final String DECODE_ERROR_STR = "STRING_DECODE_ERROR";
+
+	private final int[] offsets;
+	private final ByteBuffer data;
+	private final boolean utf8;
+	private final String[] cache;
+
+	public BinaryXMLStrings(int[] offsets, ByteBuffer data, boolean utf8) {
+		this.offsets = offsets;
+		this.data = data;
+		this.utf8 = utf8;
+		this.cache = new String[offsets.length];
+	}
+
+	public String get(int id) {
+		String str = cache[id];
+		if (str == null) {
+			str = utf8 ? extractString8(offsets[id]) : extractString16(offsets[id]);
+			cache[id] = str;
+		}
+		return str;
+	}
+
+	public int size() {
+		return offsets.length;
+	}
+
+	private String extractString8(int offset) {
+		int dataLen = data.limit();
+		if (offset < 0 || offset >= dataLen) {
+			return DECODE_ERROR_STR;
+		}
+		int start = offset + skipStrLen8(offset);
+		int len = data.get(start++) & 0xFF;
+		if (len == 0) {
+			return "";
+		}
+		if ((len & 0x80) != 0) {
+			len = (len & 0x7F) << 8 | data.get(start++) & 0xFF;
+		}
+		return makeString(start, Math.min(len, dataLen - start), ParserStream.STRING_CHARSET_UTF8);
+	}
+
+	private String extractString16(int offset) {
+		int dataLen = data.limit();
+		if (offset < 0 || offset + 1 >= dataLen) {
+			return DECODE_ERROR_STR;
+		}
+		int start = offset + skipStrLen16(offset);
+		// don't trust specified string length, read until \0
+		int end = start;
+		while (end + 1 < dataLen && (data.get(end) != 0 || data.get(end + 1) != 0)) {
+			end += 2;
+		}
+		return makeString(start, end - start, ParserStream.STRING_CHARSET_UTF16);
+	}
+
+	private int skipStrLen8(int offset) {
+		return (data.get(offset) & 0x80) == 0 ? 1 : 2;
+	}
+
+	private int skipStrLen16(int offset) {
+		return (data.get(offset + 1) & 0x80) == 0 ? 2 : 4;
+	}
+
+	private String makeString(int start, int len, Charset charset) {
+		if (len <= 0) {
+			return "";
+		}
+		if (data.hasArray()) {
+			return new String(data.array(), data.arrayOffset() + start, len, charset);
+		}
+		byte[] arr = new byte[len];
+		for (int i = 0; i < len; i++) {
+			arr[i] = data.get(start + i);
+		}
+		return new String(arr, charset);
+	}
+}
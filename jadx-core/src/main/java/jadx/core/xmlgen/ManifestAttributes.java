@@ -50,17 +50,23 @@ public class ManifestAttributes {
 
 	private final Map<String, MAttr> attrMap = new HashMap<>();
 
-	private static ManifestAttributes instance;
+	private static volatile ManifestAttributes instance;
 
 	public static ManifestAttributes getInstance() {
-		if (instance == null) {
-			try {
-				instance = new ManifestAttributes();
-			} catch (Exception e) {
-				LOG.error("Failed to create ManifestAttributes", e);
+		ManifestAttributes attrs = instance;
+		if (attrs != null) {
+			return attrs;
+		}
+		synchronized (ManifestAttributes.class) {
+			if (instance == null) {
+				try {
+					instance = new ManifestAttributes();
+				} catch (Exception e) {
+					LOG.error("Failed to create ManifestAttributes", e);
+				}
 			}
+			return instance;
 		}
-		return instance;
 	}
 
 	private ManifestAttributes() {
@@ -3,10 +3,18 @@ package jadx.core.xmlgen;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Little-endian reader for binary resources (resources.arsc, binary xml).
+ * Input fully loaded into {@link ByteBuffer} (or mapped buffer used as is),
+ * so reads don't require calls to underlying stream and arrays copied in bulk.
+ */
 public class ParserStream {
 
 	protected static final Charset STRING_CHARSET_UTF16 = Charset.forName("UTF-16LE");
@@ -15,37 +23,57 @@ public class ParserStream {
 	private static final int[] EMPTY_INT_ARRAY = new int[0];
 	private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 
-	private final InputStream input;
-	private long readPos = 0;
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
 
-	public ParserStream(@NotNull InputStream inputStream) {
-		this.input = inputStream;
+	private final ByteBuffer buf;
+
+	public ParserStream(@NotNull InputStream inputStream) throws IOException {
+		this(ByteBuffer.wrap(readAll(inputStream)));
+	}
+
+	/**
+	 * @param buffer data from current buffer position to limit, can be memory-mapped
+	 */
+	public ParserStream(@NotNull ByteBuffer buffer) {
+		this.buf = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static byte[] readAll(InputStream input) throws IOException {
+		byte[] arr = new byte[Math.max(input.available(), READ_BUFFER_SIZE)];
+		int pos = 0;
+		while (true) {
+			if (pos == arr.length) {
+				arr = Arrays.copyOf(arr, arr.length * 2);
+			}
+			int count = input.read(arr, pos, arr.length - pos);
+			if (count == -1) {
+				return pos == arr.length ? arr : Arrays.copyOf(arr, pos);
+			}
+			pos += count;
+		}
 	}
 
 	public long getPos() {
-		return readPos;
+		return buf.position();
+	}
+
+	public int remaining() {
+		return buf.remaining();
 	}
 
 	public int readInt8() throws IOException {
-		readPos++;
-		return input.read();
+		require(1);
+		return buf.get() & 0xFF;
 	}
 
 	public int readInt16() throws IOException {
-		readPos += 2;
-		int b1 = input.read();
-		int b2 = input.read();
-		return (b2 & 0xFF) << 8 | b1 & 0xFF;
+		require(2);
+		return buf.getShort() & 0xFFFF;
 	}
 
 	public int readInt32() throws IOException {
-		readPos += 4;
-		InputStream in = input;
-		int b1 = in.read();
-		int b2 = in.read();
-		int b3 = in.read();
-		int b4 = in.read();
-		return b4 << 24 | (b3 & 0xFF) << 16 | (b2 & 0xFF) << 8 | b1 & 0xFF;
+		require(4);
+		return buf.getInt();
 	}
 
 	public long readUInt32() throws IOException {
@@ -61,10 +89,10 @@ public class ParserStream {
 		if (count == 0) {
 			return EMPTY_INT_ARRAY;
 		}
+		require(count * 4L);
 		int[] arr = new int[count];
-		for (int i = 0; i < count; i++) {
-			arr[i] = readInt32();
-		}
+		buf.asIntBuffer().get(arr);
+		buf.position(buf.position() + count * 4);
 		return arr;
 	}
 
@@ -72,28 +100,31 @@ public class ParserStream {
 		if (count == 0) {
 			return EMPTY_BYTE_ARRAY;
 		}
-		readPos += count;
+		require(count);
 		byte[] arr = new byte[count];
-		int pos = input.read(arr, 0, count);
-		while (pos < count) {
-			int read = input.read(arr, pos, count - pos);
-			if (read == -1) {
-				throw new IOException("No data, can't read " + count + " bytes");
-			}
-			pos += read;
-		}
+		buf.get(arr);
 		return arr;
 	}
 
+	/**
+	 * Read next {@code count} bytes as little-endian view of underlying buffer without copy
+	 */
+	public ByteBuffer readBuffer(int count) throws IOException {
+		require(count);
+		ByteBuffer slice = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+		slice.limit(count);
+		buf.position(buf.position() + count);
+		return slice;
+	}
+
 	public void skip(long count) throws IOException {
-		readPos += count;
-		long pos = input.skip(count);
-		while (pos < count) {
-			long skipped = input.skip(count - pos);
-			if (skipped == -1) {
-				throw new IOException("No data, can't skip " + count + " bytes");
-			}
-			pos += skipped;
+		require(count);
+		buf.position(buf.position() + (int) count);
+	}
+
+	private void require(long count) throws IOException {
+		if (count < 0 || count > buf.remaining()) {
+			throw new EOFException("No data, can't read " + count + " bytes, " + this);
 		}
 	}
 
@@ -133,15 +164,12 @@ public class ParserStream {
 		checkPos(expectedOffset, error);
 	}
 
-	public void mark(int len) throws IOException {
-		if (!input.markSupported()) {
-			throw new IOException("Mark not supported for input stream " + input.getClass());
-		}
-		input.mark(len);
+	public void mark(int len) {
+		buf.mark();
 	}
 
-	public void reset() throws IOException {
-		input.reset();
+	public void reset() {
+		buf.reset();
 	}
 
 	public void readFully(byte[] b) throws IOException {
@@ -149,22 +177,15 @@ public class ParserStream {
 	}
 
 	public void readFully(byte[] b, int off, int len) throws IOException {
-		readPos += len;
 		if (len < 0) {
 			throw new IndexOutOfBoundsException();
 		}
-		int n = 0;
-		while (n < len) {
-			int count = input.read(b, off + n, len - n);
-			if (count < 0) {
-				throw new EOFException();
-			}
-			n += count;
-		}
+		require(len);
+		buf.get(b, off, len);
 	}
 
 	@Override
 	public String toString() {
-		return "pos: 0x" + Long.toHexString(readPos);
+		return "pos: 0x" + Long.toHexString(getPos());
 	}
 }
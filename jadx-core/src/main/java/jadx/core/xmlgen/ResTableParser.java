@@ -26,10 +26,10 @@ public class ResTableParser extends CommonBinaryParser {
 	private static final class PackageChunk {
 		private final int id;
 		private final String name;
-		private final String[] typeStrings;
-		private final String[] keyStrings;
+		private final BinaryXMLStrings typeStrings;
+		private final BinaryXMLStrings keyStrings;
 
-		private PackageChunk(int id, String name, String[] typeStrings, String[] keyStrings) {
+		private PackageChunk(int id, String name, BinaryXMLStrings typeStrings, BinaryXMLStrings keyStrings) {
 			this.id = id;
 			this.name = name;
 			this.typeStrings = typeStrings;
@@ -44,18 +44,18 @@ public class ResTableParser extends CommonBinaryParser {
 			return name;
 		}
 
-		public String[] getTypeStrings() {
+		public BinaryXMLStrings getTypeStrings() {
 			return typeStrings;
 		}
 
-		public String[] getKeyStrings() {
+		public BinaryXMLStrings getKeyStrings() {
 			return keyStrings;
 		}
 	}
 
 	private final RootNode root;
 	private final ResourceStorage resStorage = new ResourceStorage();
-	private String[] strings;
+	private BinaryXMLStrings strings;
 
 	public ResTableParser(RootNode root) {
 		this.root = root;
@@ -102,7 +102,7 @@ public class ResTableParser extends CommonBinaryParser {
 		return resStorage;
 	}
 
-	public String[] getStrings() {
+	public BinaryXMLStrings getStrings() {
 		return strings;
 	}
 
@@ -143,12 +143,12 @@ public class ResTableParser extends CommonBinaryParser {
 			is.readInt32();
 		}
 
-		String[] typeStrings = null;
+		BinaryXMLStrings typeStrings = null;
 		if (typeStringsOffset != 0) {
 			is.skipToPos(typeStringsOffset, "Expected typeStrings string pool");
 			typeStrings = parseStringPool();
 		}
-		String[] keyStrings = null;
+		BinaryXMLStrings keyStrings = null;
 		if (keyStringsOffset != 0) {
 			is.skipToPos(keyStringsOffset, "Expected keyStrings string pool");
 			keyStrings = parseStringPool();
@@ -201,7 +201,7 @@ public class ResTableParser extends CommonBinaryParser {
 		EntryConfig config = parseConfig();
 
 		if (config.isInvalid) {
-			String typeName = pkg.getTypeStrings()[id - 1];
+			String typeName = pkg.getTypeStrings().get(id - 1);
 			LOG.warn("Invalid config flags detected: {}{}", typeName, config.getQualifiers());
 		}
 
@@ -227,8 +227,8 @@ public class ResTableParser extends CommonBinaryParser {
 		}
 
 		int resRef = pkg.getId() << 24 | typeId << 16 | entryId;
-		String typeName = pkg.getTypeStrings()[typeId - 1];
-		String keyName = pkg.getKeyStrings()[key];
+		String typeName = pkg.getTypeStrings().get(typeId - 1);
+		String keyName = pkg.getKeyStrings().get(key);
 		if (keyName.isEmpty()) {
 			FieldNode constField = root.getConstValues().getGlobalConstFields().get(resRef);
 			if (constField != null) {
@@ -14,7 +14,7 @@ import jadx.core.dex.nodes.RootNode;
  * but were changed during deobfuscation
  */
 public class XmlDeobf {
-	private static final Map<String, String> DEOBF_MAP = new HashMap<>();
+	private static volatile Map<String, String> deobfMap;
 
 	private XmlDeobf() {
 	}
@@ -28,18 +28,26 @@ public class XmlDeobf {
 	}
 
 	private static String getNewClassName(RootNode rootNode, String old) {
-		if (DEOBF_MAP.isEmpty()) {
-			for (ClassNode classNode : rootNode.getClasses(true)) {
-				ClassInfo classInfo = classNode.getClassInfo();
-				if (classInfo.hasAlias()) {
-					String oldName = classInfo.getFullName();
-					String newName = classInfo.getAliasFullName();
-					if (!oldName.equals(newName)) {
-						DEOBF_MAP.put(oldName, newName);
-					}
+		Map<String, String> map = deobfMap;
+		if (map == null || map.isEmpty()) {
+			map = buildDeobfMap(rootNode);
+			deobfMap = map;
+		}
+		return map.get(old);
+	}
+
+	private static Map<String, String> buildDeobfMap(RootNode rootNode) {
+		Map<String, String> map = new HashMap<>();
+		for (ClassNode classNode : rootNode.getClasses(true)) {
+			ClassInfo classInfo = classNode.getClassInfo();
+			if (classInfo.hasAlias()) {
+				String oldName = classInfo.getFullName();
+				String newName = classInfo.getAliasFullName();
+				if (!oldName.equals(newName)) {
+					map.put(oldName, newName);
 				}
 			}
 		}
-		return DEOBF_MAP.get(old);
+		return map;
 	}
 }
@@ -14,27 +14,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jadx.core.dex.nodes.RootNode;
+import jadx.core.xmlgen.BinaryXMLStrings;
 import jadx.core.xmlgen.ParserConstants;
 import jadx.core.xmlgen.ResTableParser;
 
 public class ValuesParser extends ParserConstants {
 	private static final Logger LOG = LoggerFactory.getLogger(ValuesParser.class);
 
-	private static String[] androidStrings;
-	private static Map<Integer, String> androidResMap;
+	private static volatile BinaryXMLStrings androidStrings;
+	private static volatile Map<Integer, String> androidResMap;
 
-	private final String[] strings;
+	private final BinaryXMLStrings strings;
 	private final Map<Integer, String> resMap;
 
-	public ValuesParser(RootNode root, String[] strings, Map<Integer, String> resMap) {
+	public ValuesParser(RootNode root, BinaryXMLStrings strings, Map<Integer, String> resMap) {
 		this.strings = strings;
 		this.resMap = resMap;
 
-		if (androidStrings == null && androidResMap == null) {
-			try {
-				decodeAndroid(root);
-			} catch (Exception e) {
-				LOG.error("Failed to decode Android Resource file", e);
+		if (androidStrings == null) {
+			synchronized (ValuesParser.class) {
+				if (androidStrings == null) {
+					try {
+						decodeAndroid(root);
+					} catch (Exception e) {
+						LOG.error("Failed to decode Android Resource file", e);
+					}
+				}
 			}
 		}
 	}
@@ -43,8 +48,9 @@ public class ValuesParser extends ParserConstants {
 		InputStream inputStream = new BufferedInputStream(ValuesParser.class.getResourceAsStream("/resources.arsc"));
 		ResTableParser androidParser = new ResTableParser(root);
 		androidParser.decode(inputStream);
-		androidStrings = androidParser.getStrings();
+		// strings assigned last and used as init flag
 		androidResMap = androidParser.getResStorage().getResourcesNames();
+		androidStrings = androidParser.getStrings();
 	}
 
 	@Nullable
@@ -80,7 +86,7 @@ public class ValuesParser extends ParserConstants {
 			case TYPE_NULL:
 				return null;
 			case TYPE_STRING:
-				return strings[data];
+				return strings.get(data);
 			case TYPE_INT_DEC:
 				return Integer.toString(data);
 			case TYPE_INT_HEX:
@@ -0,0 +1,102 @@
+package jadx.core.codegen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.api.CodePosition;
+import jadx.api.ICodeInfo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class CodeWriterTest {
+
+	@Test
+	public void testAnnotations() {
+		CodeAnnotations annotations = new CodeAnnotations(1);
+		annotations.add(2, 5, "b");
+		annotations.add(1, 3, "a");
+		annotations.add(2, 1, "c");
+		annotations.add(2, 5, "d");
+		annotations.add(3, 0, "e");
+
+		assertThat(annotations.size(), is(4));
+		assertThat(annotations.get(2, 5), is("d"));
+		assertThat(annotations.get(new CodePosition(2, 1)), is("c"));
+		assertThat(annotations.get(2, 2), nullValue());
+
+		List<String> keys = new ArrayList<>();
+		for (Map.Entry<CodePosition, Object> entry : annotations.entrySet()) {
+			keys.add(entry.getKey() + "=" + entry.getValue());
+		}
+		assertThat(keys, contains("1:3=a", "2:1=c", "2:5=d", "3=e"));
+
+		annotations.removeIf((line, value) -> line == 2);
+		assertThat(annotations.size(), is(2));
+		assertThat(annotations.get(3, 0), is("e"));
+	}
+
+	@Test
+	public void testLineMapping() {
+		LineMapping lineMapping = new LineMapping();
+		lineMapping.add(10, 100);
+		lineMapping.add(3, 30);
+		lineMapping.add(10, 101);
+
+		assertThat(lineMapping.size(), is(2));
+		assertThat(lineMapping.get(10), is(101));
+		assertThat(lineMapping.get(4), nullValue());
+		assertThat(lineMapping.getSourceLine(3), is(30));
+		assertThat(lineMapping.keySet(), contains(3, 10));
+	}
+
+	@Test
+	public void testAddCode() {
+		CodeWriter inner = new CodeWriter();
+		inner.startLineWithNum(7);
+		inner.attachAnnotation("inner");
+
+		CodeWriter code = new CodeWriter();
+		code.startLineWithNum(5).add("abc");
+		code.attachAnnotation("outer");
+		code.add(inner);
+		code.finish();
+
+		// first line is empty and removed at finish, but lines numbers not changed
+		assertThat(code.getAnnotationAt(2, 4), is("outer"));
+		assertThat(code.getAnnotationAt(3, 1), is("inner"));
+		assertThat(code.getLineMapping().get(2), is(5));
+		assertThat(code.getLineMapping().get(3), is(7));
+	}
+
+	@Test
+	public void testDefaultAnnotationLookup() {
+		CodeAnnotations annotations = new CodeAnnotations(2);
+		annotations.add(1, 3, "a");
+		annotations.add(2, 0, "b");
+		ICodeInfo codeInfo = new ICodeInfo() {
+			@Override
+			public String getCodeStr() {
+				return "";
+			}
+
+			@Override
+			public Map<Integer, Integer> getLineMapping() {
+				return new LineMapping();
+			}
+
+			@Override
+			public Map<CodePosition, Object> getAnnotations() {
+				return annotations;
+			}
+		};
+		assertThat(codeInfo.getAnnotationAt(1, 3), is("a"));
+		assertThat(codeInfo.getAnnotationAt(2, 0), is("b"));
+		assertThat(codeInfo.getAnnotationAt(2, 1), nullValue());
+	}
+}
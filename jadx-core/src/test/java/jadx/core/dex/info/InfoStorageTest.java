@@ -0,0 +1,69 @@
+package jadx.core.dex.info;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.DexNode;
+import jadx.core.dex.nodes.RootNode;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InfoStorageTest {
+
+	private InfoStorage storage;
+	private RootNode root;
+
+	@BeforeEach
+	public void init() {
+		storage = new InfoStorage();
+		root = mock(RootNode.class);
+		when(root.getInfoStorage()).thenReturn(storage);
+	}
+
+	@Test
+	public void methodIdsFromDifferentDex() {
+		DexNode dex0 = mockDex(0);
+		DexNode dex1 = mockDex(1);
+		MethodInfo mth0 = makeMth("a");
+		MethodInfo mth1 = makeMth("b");
+
+		// ids collide if packed into int as 'dexId << 16 | mthId'
+		storage.putMethod(dex0, 0x10000, mth0);
+		storage.putMethod(dex1, 0, mth1);
+
+		assertThat(storage.getMethod(dex0, 0x10000), sameInstance(mth0));
+		assertThat(storage.getMethod(dex1, 0), sameInstance(mth1));
+		assertThat(storage.getMethod(dex0, 0), nullValue());
+	}
+
+	@Test
+	public void putKeepsFirstInstance() {
+		DexNode dex = mockDex(3);
+		MethodInfo mth = makeMth("a");
+
+		assertThat(storage.putMethod(dex, 5, mth), sameInstance(mth));
+		assertThat(storage.putMethod(dex, 5, makeMth("a")), sameInstance(mth));
+		assertThat(storage.getMethod(dex, 5), sameInstance(mth));
+	}
+
+	private DexNode mockDex(int dexId) {
+		DexNode dex = mock(DexNode.class);
+		when(dex.getDexId()).thenReturn(dexId);
+		when(dex.getMethodIdsCount()).thenReturn(0x10001);
+		when(dex.getFieldIdsCount()).thenReturn(1);
+		when(dex.root()).thenReturn(root);
+		return dex;
+	}
+
+	private MethodInfo makeMth(String name) {
+		ClassInfo cls = ClassInfo.fromName(root, "a.A");
+		return MethodInfo.externalMth(cls, name, Collections.emptyList(), ArgType.VOID);
+	}
+}
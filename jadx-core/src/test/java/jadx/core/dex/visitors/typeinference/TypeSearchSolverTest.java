@@ -0,0 +1,128 @@
+package jadx.core.dex.visitors.typeinference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.instructions.args.InsnArg;
+import jadx.core.dex.instructions.args.SSAVar;
+import jadx.core.dex.nodes.MethodNode;
+
+import static jadx.core.dex.instructions.args.ArgType.BOOLEAN;
+import static jadx.core.dex.instructions.args.ArgType.BYTE;
+import static jadx.core.dex.instructions.args.ArgType.CHAR;
+import static jadx.core.dex.instructions.args.ArgType.DOUBLE;
+import static jadx.core.dex.instructions.args.ArgType.FLOAT;
+import static jadx.core.dex.instructions.args.ArgType.INT;
+import static jadx.core.dex.instructions.args.ArgType.LONG;
+import static jadx.core.dex.instructions.args.ArgType.OBJECT;
+import static jadx.core.dex.instructions.args.ArgType.SHORT;
+import static jadx.core.dex.instructions.args.ArgType.STRING;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+public class TypeSearchSolverTest {
+	private static final List<ArgType> TYPES = Arrays.asList(
+			INT, BOOLEAN, BYTE, SHORT, CHAR, FLOAT, DOUBLE, LONG, OBJECT, STRING);
+
+	private MethodNode mth;
+	private TypeSearchState state;
+
+	@BeforeEach
+	public void init() {
+		mth = mock(MethodNode.class);
+		state = new TypeSearchState(mth);
+	}
+
+	/**
+	 * Check of all types combinations stops after 1_000_000 iterations,
+	 * here solution is the last of 10^10 combinations
+	 */
+	@Test
+	public void testManyVars() {
+		List<TypeSearchVarInfo> vars = makeVars(10, TYPES);
+		TypeSearchVarInfo first = vars.get(0);
+		first.getConstraints().add(constraint(() -> first.getCurrentType().equals(STRING), first));
+		for (int i = 0; i < vars.size() - 1; i++) {
+			TypeSearchVarInfo a = vars.get(i);
+			TypeSearchVarInfo b = vars.get(i + 1);
+			a.getConstraints().add(constraint(() -> a.getCurrentType().equals(b.getCurrentType()), a, b));
+		}
+
+		assertThat(new TypeSearchSolver(mth, state).solve(vars), is(true));
+		for (TypeSearchVarInfo var : vars) {
+			assertThat(var.isTypeResolved(), is(true));
+			assertThat(var.getCurrentType(), is(STRING));
+		}
+	}
+
+	/**
+	 * Combinations checked with first variable changed most often,
+	 * so last variable is most significant in selection of first matched combination
+	 */
+	@Test
+	public void testFirstMatchOrder() {
+		List<TypeSearchVarInfo> vars = makeVars(3, Arrays.asList(INT, BOOLEAN, CHAR));
+		TypeSearchVarInfo a = vars.get(0);
+		TypeSearchVarInfo b = vars.get(1);
+		TypeSearchVarInfo c = vars.get(2);
+		a.getConstraints().add(constraint(() -> !a.getCurrentType().equals(b.getCurrentType()), a, b));
+		b.getConstraints().add(constraint(() -> !b.getCurrentType().equals(c.getCurrentType()), b, c));
+		c.getConstraints().add(constraint(() -> !c.getCurrentType().equals(a.getCurrentType()), c, a));
+
+		assertThat(new TypeSearchSolver(mth, state).solve(vars), is(true));
+		assertThat(a.getCurrentType(), is(CHAR));
+		assertThat(b.getCurrentType(), is(BOOLEAN));
+		assertThat(c.getCurrentType(), is(INT));
+	}
+
+	@Test
+	public void testNoSolution() {
+		List<TypeSearchVarInfo> vars = makeVars(3, Arrays.asList(INT, BOOLEAN));
+		TypeSearchVarInfo a = vars.get(0);
+		TypeSearchVarInfo b = vars.get(1);
+		TypeSearchVarInfo c = vars.get(2);
+		a.getConstraints().add(constraint(() -> !a.getCurrentType().equals(b.getCurrentType()), a, b));
+		b.getConstraints().add(constraint(() -> !b.getCurrentType().equals(c.getCurrentType()), b, c));
+		c.getConstraints().add(constraint(() -> !c.getCurrentType().equals(a.getCurrentType()), c, a));
+
+		assertThat(new TypeSearchSolver(mth, state).solve(vars), is(false));
+		assertThat(a.isTypeResolved(), is(false));
+	}
+
+	private static List<TypeSearchVarInfo> makeVars(int count, List<ArgType> candidates) {
+		List<TypeSearchVarInfo> vars = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			TypeSearchVarInfo varInfo = new TypeSearchVarInfo(new SSAVar(i, 0, InsnArg.reg(i, ArgType.UNKNOWN)));
+			varInfo.setCandidateTypes(candidates);
+			varInfo.setConstraints(new ArrayList<>());
+			vars.add(varInfo);
+		}
+		return vars;
+	}
+
+	private static ITypeConstraint constraint(BooleanSupplier check, TypeSearchVarInfo... vars) {
+		List<SSAVar> relatedVars = new ArrayList<>(vars.length);
+		for (TypeSearchVarInfo var : vars) {
+			relatedVars.add(var.getVar());
+		}
+		return new ITypeConstraint() {
+			@Override
+			public List<SSAVar> getRelatedVars() {
+				return Collections.unmodifiableList(relatedVars);
+			}
+
+			@Override
+			public boolean check(TypeSearchState state) {
+				return check.getAsBoolean();
+			}
+		};
+	}
+}
@@ -0,0 +1,63 @@
+package jadx.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.core.utils.exceptions.JadxTimeLimitException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MethodTimeBudgetTest {
+
+	private static final int LIMIT_MS = 50;
+
+	@Test
+	public void testNesting() {
+		MethodTimeBudget budget = new MethodTimeBudget(LIMIT_MS);
+		budget.start();
+		assertThat(budget.isNested(), is(false));
+		budget.start();
+		assertThat(budget.isNested(), is(true));
+		budget.stop();
+		assertThat(budget.isNested(), is(false));
+		budget.stop();
+		assertThat(budget.isNested(), is(false));
+	}
+
+	@Test
+	public void testTimeOutsideVisitsNotCounted() throws InterruptedException {
+		MethodTimeBudget budget = new MethodTimeBudget(LIMIT_MS);
+		budget.start();
+		budget.stop();
+		Thread.sleep(LIMIT_MS * 2);
+		assertThat(budget.isExceeded(), is(false));
+		budget.check();
+	}
+
+	@Test
+	public void testAccumulation() throws InterruptedException {
+		MethodTimeBudget budget = new MethodTimeBudget(LIMIT_MS);
+		budget.start();
+		Thread.sleep(LIMIT_MS / 2 + 1);
+		budget.stop();
+
+		budget.start();
+		Thread.sleep(LIMIT_MS / 2 + 1);
+		budget.stop();
+		assertThat(budget.isExceeded(), is(true));
+		assertThrows(JadxTimeLimitException.class, budget::check);
+	}
+
+	@Test
+	public void testRunningVisitCounted() throws InterruptedException {
+		MethodTimeBudget budget = new MethodTimeBudget(LIMIT_MS);
+		budget.start();
+		budget.start();
+		Thread.sleep(LIMIT_MS + 1);
+		assertThat(budget.isExceeded(), is(true));
+		budget.stop();
+		budget.stop();
+		assertThat(budget.isExceeded(), is(true));
+	}
+}
@@ -0,0 +1,108 @@
+package jadx.core.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.visitors.AbstractVisitor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+public class PassProfilerTest {
+
+	private static class TestPass extends AbstractVisitor {
+	}
+
+	@Test
+	public void testBucketBoundaries() {
+		assertThat(PassProfiler.getBucket(0), is(0));
+		assertThat(PassProfiler.getBucket(999), is(0));
+		assertThat(PassProfiler.getBucket(micros(1)), is(1));
+		assertThat(PassProfiler.getBucket(micros(2) - 1), is(1));
+		assertThat(PassProfiler.getBucket(micros(2)), is(2));
+		assertThat(PassProfiler.getBucket(micros(4) - 1), is(2));
+		assertThat(PassProfiler.getBucket(micros(4)), is(3));
+		assertThat(PassProfiler.getBucket(micros(1L << 29)), is(30));
+		assertThat(PassProfiler.getBucket(micros(1L << 30)), is(PassProfiler.HISTOGRAM_SIZE - 1));
+		assertThat(PassProfiler.getBucket(Long.MAX_VALUE), is(PassProfiler.HISTOGRAM_SIZE - 1));
+	}
+
+	@Test
+	public void testReport() {
+		PassProfiler profiler = new PassProfiler();
+		TestPass pass = new TestPass();
+		MethodNode mth1 = mock(MethodNode.class);
+		MethodNode mth2 = mock(MethodNode.class);
+
+		profiler.startClass();
+		profiler.classDone(profiler.start(), pass);
+		profiler.methodDone(profiler.start(), pass, mth1);
+		profiler.methodDone(profiler.start(), pass, mth2);
+		profiler.methodDone(profiler.start(), pass, mth1);
+		profiler.finishClass();
+
+		JsonObject report = profiler.buildReport();
+		assertThat(report.has("elapsedMs"), is(true));
+		assertThat(report.has("cpuTimeSupported"), is(true));
+		assertThat(report.has("allocatedBytesSupported"), is(true));
+
+		JsonArray passes = report.getAsJsonArray("passes");
+		assertThat(passes.size(), is(1));
+		JsonObject passObj = passes.get(0).getAsJsonObject();
+		assertThat(passObj.get("name").getAsString(), is("TestPass"));
+		assertThat(passObj.get("calls").getAsLong(), is(4L));
+		assertThat(passObj.has("wallMs"), is(true));
+		assertThat(passObj.has("cpuMs"), is(true));
+		assertThat(passObj.has("allocatedBytes"), is(true));
+		long histogramCount = 0;
+		for (JsonElement element : passObj.getAsJsonArray("histogram")) {
+			JsonObject bucket = element.getAsJsonObject();
+			assertThat(Long.bitCount(bucket.get("upToMicros").getAsLong()), is(1));
+			histogramCount += bucket.get("count").getAsLong();
+		}
+		assertThat(histogramCount, is(4L));
+
+		// stats of 'mth1' merged for class
+		JsonArray methods = report.getAsJsonArray("slowestMethods");
+		assertThat(methods.size(), is(2));
+		for (JsonElement element : methods) {
+			JsonObject mthObj = element.getAsJsonObject();
+			assertThat(mthObj.has("method"), is(true));
+			assertThat(mthObj.has("wallMs"), is(true));
+			assertThat(mthObj.has("cpuMs"), is(true));
+			assertThat(mthObj.has("allocatedBytes"), is(true));
+			assertThat(mthObj.get("slowestPass").getAsString(), is("TestPass"));
+			assertThat(mthObj.has("slowestPassMs"), is(true));
+		}
+	}
+
+	@Test
+	public void testTopMethodsBounded() {
+		PassProfiler profiler = new PassProfiler();
+		TestPass pass = new TestPass();
+		for (int i = 0; i < PassProfiler.TOP_METHODS_COUNT * 2; i++) {
+			profiler.startClass();
+			profiler.methodDone(profiler.start(), pass, mock(MethodNode.class));
+			profiler.finishClass();
+		}
+		JsonArray methods = profiler.buildReport().getAsJsonArray("slowestMethods");
+		assertThat(methods.size(), is(PassProfiler.TOP_METHODS_COUNT));
+		for (int i = 1; i < methods.size(); i++) {
+			double prev = methods.get(i - 1).getAsJsonObject().get("wallMs").getAsDouble();
+			double cur = methods.get(i).getAsJsonObject().get("wallMs").getAsDouble();
+			assertThat(prev, greaterThanOrEqualTo(cur));
+		}
+	}
+
+	private static long micros(long value) {
+		return TimeUnit.MICROSECONDS.toNanos(value);
+	}
+}
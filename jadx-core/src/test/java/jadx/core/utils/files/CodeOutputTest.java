@@ -0,0 +1,64 @@
+package jadx.core.utils.files;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.core.codegen.CodeWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class CodeOutputTest {
+
+	@Test
+	public void testDirOutput() throws IOException {
+		File dir = FileUtils.createTempDir("jadx-code-output").toFile();
+		String code = makeCode();
+		try (CodeOutput output = new DirCodeOutput(dir)) {
+			output.write("a" + File.separatorChar + "A.java", code);
+		}
+		byte[] bytes = Files.readAllBytes(new File(dir, "a/A.java").toPath());
+		assertThat(new String(bytes, StandardCharsets.UTF_8), is(code + CodeWriter.NL));
+	}
+
+	@Test
+	public void testZipOutput() throws IOException {
+		File zipFile = FileUtils.createTempFile(".zip").toFile();
+		String code = makeCode();
+		try (CodeOutput output = new ZipCodeOutput(zipFile)) {
+			output.write("a" + File.separatorChar + "A.java", code);
+			output.write("a" + File.separatorChar + "A.java", "duplicate");
+			output.write("../B.java", "invalid");
+		}
+		try (ZipFile zip = new ZipFile(zipFile)) {
+			assertThat(zip.size(), is(1));
+			ZipEntry entry = zip.getEntry("a/A.java");
+			assertThat(entry, notNullValue());
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (InputStream in = zip.getInputStream(entry)) {
+				FileUtils.copyStream(in, out);
+			}
+			assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(code + CodeWriter.NL));
+		}
+	}
+
+	/**
+	 * Code bigger than encode buffer with multi-byte chars
+	 */
+	private static String makeCode() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			sb.append("line ").append(i).append(" ж€😀").append(CodeWriter.NL);
+		}
+		return sb.toString();
+	}
+}
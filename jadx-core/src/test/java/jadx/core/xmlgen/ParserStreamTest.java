@@ -0,0 +1,61 @@
+package jadx.core.xmlgen;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParserStreamTest {
+
+	@Test
+	public void readLittleEndian() throws IOException {
+		byte[] data = { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+		ParserStream ps = new ParserStream(new ByteArrayInputStream(data));
+		assertThat(ps.readInt16(), is(0x0201));
+		assertThat(ps.readInt32(), is(0x06050403));
+		assertThat(ps.readUInt32(), is(0xFFFFFFFFL));
+		assertThat(ps.getPos(), is(10L));
+		assertThat(ps.readInt8(), is(7));
+		assertThrows(EOFException.class, ps::readInt8);
+	}
+
+	@Test
+	public void readIntArray() throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(13).order(ByteOrder.LITTLE_ENDIAN);
+		buf.put((byte) 0).putInt(1).putInt(-2).putInt(0x12345678);
+		buf.flip();
+		buf.position(1);
+		ParserStream ps = new ParserStream(buf);
+		int[] arr = ps.readInt32Array(3);
+		assertThat(arr[0], is(1));
+		assertThat(arr[1], is(-2));
+		assertThat(arr[2], is(0x12345678));
+		assertThat(ps.getPos(), is(12L));
+	}
+
+	@Test
+	public void lazyStrings() {
+		byte[] str8 = "abc".getBytes(StandardCharsets.UTF_8);
+		byte[] str16 = "xy\0".getBytes(StandardCharsets.UTF_16LE);
+		ByteBuffer data8 = ByteBuffer.allocate(5);
+		data8.put((byte) 3).put((byte) 3).put(str8).flip();
+		ByteBuffer data16 = ByteBuffer.allocate(2 + str16.length);
+		data16.put((byte) 2).put((byte) 0).put(str16).flip();
+
+		BinaryXMLStrings strings8 = new BinaryXMLStrings(new int[] { 0, 10 }, data8, true);
+		assertThat(strings8.size(), is(2));
+		assertThat(strings8.get(0), is("abc"));
+		assertThat(strings8.get(1), is("STRING_DECODE_ERROR"));
+
+		BinaryXMLStrings strings16 = new BinaryXMLStrings(new int[] { 0 }, data16, false);
+		assertThat(strings16.get(0), is("xy"));
+	}
+}
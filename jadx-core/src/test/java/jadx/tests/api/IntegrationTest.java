@@ -367,7 +367,7 @@ public abstract class IntegrationTest extends TestUtils {
 		return dynamicCompiler.invoke(cls, methodName, types, args);
 	}
 
-	private File getJarForClass(Class<?> cls) throws IOException {
+	protected File getJarForClass(Class<?> cls) throws IOException {
 		List<File> files = compileClass(cls);
 		assertThat("File list is empty", files, not(empty()));
 
@@ -71,7 +71,7 @@ public abstract class SmaliTest extends IntegrationTest {
 		return classes;
 	}
 
-	private List<File> collectSmaliFiles(String pkg, @Nullable String testDir) {
+	protected List<File> collectSmaliFiles(String pkg, @Nullable String testDir) {
 		String smaliFilesDir;
 		if (testDir == null) {
 			smaliFilesDir = pkg + File.separatorChar;
@@ -98,7 +98,7 @@ public abstract class SmaliTest extends IntegrationTest {
 		throw new AssertionError("Smali file not found: " + smaliFile.getPath());
 	}
 
-	private static boolean compileSmali(File output, List<File> inputFiles) {
+	protected static boolean compileSmali(File output, List<File> inputFiles) {
 		try {
 			SmaliOptions options = new SmaliOptions();
 			options.outputDexFile = output.getAbsolutePath();
@@ -7,8 +7,10 @@ import jadx.core.dex.attributes.AType;
 import jadx.core.dex.attributes.AttributeStorage;
 import jadx.core.dex.attributes.IAttribute;
 
+import static jadx.core.dex.attributes.AFlag.INCONSISTENT_CODE;
 import static jadx.core.dex.attributes.AFlag.SYNTHETIC;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 
@@ -71,6 +73,35 @@ public class AttributeStorageTest {
 		assertThat(storage.get(TEST), is(attr));
 	}
 
+	@Test
+	public void testFlags() {
+		storage.add(SYNTHETIC);
+		storage.add(INCONSISTENT_CODE);
+		storage.remove(SYNTHETIC);
+
+		assertThat(storage.contains(SYNTHETIC), is(false));
+		assertThat(storage.contains(INCONSISTENT_CODE), is(true));
+		assertThat(storage.isEmpty(), is(false));
+	}
+
+	@Test
+	public void testManyAttributes() {
+		TestAttr attr = new TestAttr();
+		storage.add(AType.JADX_WARN, "warn");
+		storage.add(attr);
+		storage.add(AType.COMMENTS, "comment");
+		storage.add(AType.COMMENTS, "comment2");
+		storage.remove(attr);
+
+		assertThat(storage.contains(TEST), is(false));
+		assertThat(storage.getAll(AType.JADX_WARN), contains("warn"));
+		assertThat(storage.getAll(AType.COMMENTS), contains("comment", "comment2"));
+
+		storage.remove(AType.JADX_WARN);
+		storage.remove(AType.COMMENTS);
+		assertThat(storage.isEmpty(), is(true));
+	}
+
 	@Test
 	public void clear() {
 		storage.add(SYNTHETIC);
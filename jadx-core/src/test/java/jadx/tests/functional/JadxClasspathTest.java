@@ -1,6 +1,7 @@
 package jadx.tests.functional;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +14,9 @@ import jadx.core.utils.exceptions.DecodeException;
 
 import static jadx.core.dex.instructions.args.ArgType.STRING;
 import static jadx.core.dex.instructions.args.ArgType.object;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -49,4 +52,25 @@ public class JadxClasspathTest {
 
 		assertTrue(ArgType.isCastNeeded(dex, ArgType.OBJECT, STRING));
 	}
+
+	@Test
+	public void testSharedClasspath() throws IOException, DecodeException {
+		ClspGraph otherClsp = new ClspGraph();
+		otherClsp.load();
+
+		ArgType objExc = object(JAVA_LANG_EXCEPTION);
+		assertSame(clsp.getClsDetails(objExc), otherClsp.getClsDetails(objExc));
+		assertTrue(otherClsp.isImplements(JAVA_LANG_EXCEPTION, JAVA_LANG_THROWABLE));
+	}
+
+	@Test
+	public void testHierarchyQueries() {
+		List<String> impl = clsp.getImplementations(JAVA_LANG_THROWABLE);
+		assertTrue(impl.contains(JAVA_LANG_EXCEPTION));
+		assertTrue(impl.contains(JAVA_LANG_THROWABLE));
+		assertFalse(clsp.getImplementations(JAVA_LANG_EXCEPTION).contains(JAVA_LANG_THROWABLE));
+
+		assertEquals(JAVA_LANG_EXCEPTION, clsp.getCommonAncestor("java.lang.RuntimeException", "java.io.IOException"));
+		assertEquals("java.lang.Number", clsp.getCommonAncestor("java.lang.Integer", "java.lang.Long"));
+	}
 }
@@ -0,0 +1,67 @@
+package jadx.tests.integration.deobf;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.tests.api.IntegrationTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+public class TestOverrideGroupRename extends IntegrationTest {
+
+	public static class TestCls {
+		public interface I1 {
+			void a();
+		}
+
+		public interface I2 {
+			void a();
+		}
+
+		public static class A implements I1 {
+			@Override
+			public void a() {
+			}
+		}
+
+		public static class B implements I2 {
+			@Override
+			public void a() {
+			}
+		}
+
+		/**
+		 * Join override groups of I1 and I2
+		 */
+		public static class Z implements I1, I2 {
+			@Override
+			public void a() {
+			}
+		}
+	}
+
+	@Test
+	public void test() {
+		noDebugInfo();
+		enableDeobfuscation();
+
+		ClassNode cls = getClassNode(TestCls.class);
+		Set<String> aliases = new HashSet<>();
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			for (MethodNode mth : innerCls.getMethods()) {
+				if (mth.getName().equals("a")) {
+					aliases.add(mth.getAlias());
+				}
+			}
+		}
+		assertThat(aliases, hasSize(1));
+		assertThat(aliases, not(hasItem("a")));
+	}
+}
@@ -0,0 +1,54 @@
+package jadx.tests.integration.others;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.utils.files.FileUtils;
+import jadx.tests.api.IntegrationTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class TestCodeCacheSizeLimit extends IntegrationTest {
+
+	private static final int ENTRY_SIZE = 512 * 1024;
+
+	public static class TestCls {
+		public int test(int a) {
+			return a + 1;
+		}
+	}
+
+	@Test
+	public void test() throws IOException {
+		disableCompilation();
+		Path cacheDir = FileUtils.createTempDir("jadx-code-cache");
+		args.setCodeCacheDir(cacheDir.toFile());
+		args.setCodeCacheSizeLimit(1);
+
+		// entries from other jadx version, used long ago
+		Path oldEntry = makeEntry(cacheDir, "old", 1000);
+		Path oldEntry2 = makeEntry(cacheDir, "old2", 2000);
+		Path recentEntry = makeEntry(cacheDir, "recent", System.currentTimeMillis());
+
+		ClassNode cls = getClassNode(TestCls.class);
+		assertThat(Files.exists(oldEntry), is(false));
+		assertThat(Files.exists(oldEntry2), is(false));
+		assertThat(Files.exists(recentEntry), is(true));
+		assertThat(cls.root().getCodeCache().load(cls), notNullValue());
+	}
+
+	private static Path makeEntry(Path cacheDir, String name, long lastModified) throws IOException {
+		Path entry = cacheDir.resolve("other").resolve(name.substring(0, 2)).resolve(name + ".jcc");
+		Files.createDirectories(entry.getParent());
+		Files.write(entry, new byte[ENTRY_SIZE]);
+		Files.setLastModifiedTime(entry, FileTime.fromMillis(lastModified));
+		return entry;
+	}
+}
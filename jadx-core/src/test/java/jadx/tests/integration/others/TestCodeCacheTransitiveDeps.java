@@ -0,0 +1,83 @@
+package jadx.tests.integration.others;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.api.JadxDecompiler;
+import jadx.api.JadxInternalAccess;
+import jadx.core.cache.DiskCodeCache;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.utils.files.FileUtils;
+import jadx.tests.api.SmaliTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class TestCodeCacheTransitiveDeps extends SmaliTest {
+	// @formatter:off
+	/*
+		public class TestCls {
+			public int test() {
+				return TestClsDep.get() + 1;
+			}
+		}
+
+		public class TestClsDep {
+			public static int get() {
+				return TestClsDep2.value() * 2;
+			}
+		}
+
+		public class TestClsDep2 {
+			public static int value() {
+				return 3; // changed to 4
+			}
+		}
+	*/
+	// @formatter:on
+
+	@Test
+	public void test() {
+		args.setCodeCacheDir(FileUtils.createTempDir("jadx-code-cache").toFile());
+		List<File> files = collectSmaliFiles(getTestPkg(), getTestName());
+
+		ClassNode cls = loadCls(files);
+		assertThat(getCodeCache(cls).load(cls), nullValue());
+		cls.decompile();
+		assertThat(cls.getDependencies(), contains(cls.root().searchClassByName("others.TestClsDep")));
+
+		ClassNode sameCls = loadCls(files);
+		assertThat(getCodeCache(sameCls).load(sameCls), notNullValue());
+
+		List<File> changedFiles = new ArrayList<>();
+		for (File file : files) {
+			if (!file.getName().equals("TestClsDep2.smali")) {
+				changedFiles.add(file);
+			}
+		}
+		changedFiles.addAll(collectSmaliFiles(getTestPkg(), getTestName() + File.separatorChar + "changed"));
+		ClassNode changedCls = loadCls(changedFiles);
+		assertThat(getCodeCache(changedCls).load(changedCls), nullValue());
+	}
+
+	private ClassNode loadCls(List<File> files) {
+		File outDex = createTempFile(".dex");
+		compileSmali(outDex, files);
+		JadxDecompiler d = loadFiles(Collections.singletonList(outDex));
+		ClassNode cls = JadxInternalAccess.getRoot(d).searchClassByName("others.TestCls");
+		assertThat(cls, notNullValue());
+		return cls;
+	}
+
+	private static DiskCodeCache getCodeCache(ClassNode cls) {
+		DiskCodeCache codeCache = cls.root().getCodeCache();
+		assertThat(codeCache, notNullValue());
+		return codeCache;
+	}
+}
@@ -0,0 +1,80 @@
+package jadx.tests.integration.others;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.api.JadxDecompiler;
+import jadx.api.JadxInternalAccess;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.dex.visitors.AbstractVisitor;
+import jadx.core.utils.files.FileUtils;
+import jadx.tests.api.IntegrationTest;
+
+import static jadx.tests.api.utils.JadxMatchers.containsOne;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class TestMethodTimeLimit extends IntegrationTest {
+
+	private static final int TIME_LIMIT_MS = 500;
+
+	public static class TestCls {
+		public int test(int a) {
+			while (a < 10) {
+				a++;
+			}
+			return a;
+		}
+
+		public int fast(int b) {
+			return b * 2;
+		}
+	}
+
+	/**
+	 * Exceed time limit for method 'test'
+	 */
+	private static class SlowPass extends AbstractVisitor {
+		@Override
+		public void visit(MethodNode mth) {
+			if (mth.getName().equals("test")) {
+				try {
+					Thread.sleep(TIME_LIMIT_MS * 2);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test() throws Exception {
+		disableCompilation();
+		args.setMethodTimeLimit(TIME_LIMIT_MS);
+		args.setCodeCacheDir(FileUtils.createTempDir("jadx-code-cache").toFile());
+
+		JadxDecompiler d = loadFiles(Collections.singletonList(getJarForClass(TestCls.class)));
+		RootNode root = JadxInternalAccess.getRoot(d);
+		root.getPasses().add(0, new SlowPass());
+		ClassNode cls = root.searchClassByName(TestCls.class.getName());
+		assertThat(cls, notNullValue());
+
+		String code = cls.decompile().getCodeStr();
+		System.out.println(code);
+
+		assertThat(code, containsOne("Time limit reached in pass: SlowPass"));
+		assertThat(code, containsOne("throw new UnsupportedOperationException(\"Method not decompiled: "));
+		assertThat(code, containsOne("L_0x0000:"));
+		assertThat(code, containsString("+ 1"));
+		assertThat(code, containsOne("return b * 2;"));
+
+		// fallback code not saved in code cache
+		assertThat(root.getCodeCache(), notNullValue());
+		assertThat(root.getCodeCache().load(cls), nullValue());
+	}
+}
@@ -0,0 +1,96 @@
+package jadx.tests.integration.others;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jadx.api.ICodeInfo;
+import jadx.core.ProcessClass;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.ProcessState;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.ClassUnloadTracker;
+import jadx.tests.api.IntegrationTest;
+
+import static jadx.tests.api.utils.JadxMatchers.containsOne;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Dependency class unloaded only after all dependent classes saved
+ */
+public class TestUnloadDependency extends IntegrationTest {
+
+	public static class TestCls {
+		public int test() {
+			return TestClsDep.value() + 1;
+		}
+	}
+
+	public static class TestClsDep {
+		public static int value() {
+			return 2;
+		}
+	}
+
+	public static class TestClsSub extends TestClsDep {
+		public int test() {
+			return value() * 3;
+		}
+	}
+
+	private ClassNode cls;
+	private ClassNode dep;
+	private ClassNode sub;
+	private RootNode root;
+
+	@BeforeEach
+	public void load() {
+		disableCompilation();
+		cls = getClassNode(TestCls.class);
+		root = cls.root();
+		dep = root.searchClassByName(TestClsDep.class.getName());
+		sub = root.searchClassByName(TestClsSub.class.getName());
+		assertThat(dep, notNullValue());
+		assertThat(sub, notNullValue());
+	}
+
+	@Test
+	public void testCodeDependency() {
+		ClassUnloadTracker tracker = new ClassUnloadTracker(Arrays.asList(dep, cls));
+
+		ProcessClass.process(dep);
+		tracker.classSaved(dep);
+		// used in code of not saved class
+		assertThat(dep.getState(), is(ProcessState.PROCESS_COMPLETE));
+
+		ICodeInfo code = ProcessClass.generateCode(cls, tracker);
+		assertThat(code.getCodeStr(), containsOne("TestClsDep.value() + 1;"));
+		tracker.classSaved(cls);
+		assertThat(dep.getState(), is(ProcessState.UNLOADED));
+		assertThat(cls.getState(), is(ProcessState.UNLOADED));
+
+		// unloaded class not processed again
+		ProcessClass.process(dep);
+		assertThat(dep.getState(), is(ProcessState.UNLOADED));
+		assertThat(getMethod(dep, "value").getRegion(), nullValue());
+	}
+
+	@Test
+	public void testDeclarationDependency() {
+		ClassUnloadTracker tracker = new ClassUnloadTracker(Arrays.asList(dep, sub));
+
+		ProcessClass.process(dep);
+		ProcessClass.process(sub);
+		tracker.classSaved(dep);
+		// super class kept loaded until sub class saved
+		assertThat(dep.getState(), is(ProcessState.PROCESS_COMPLETE));
+
+		tracker.classSaved(sub);
+		assertThat(dep.getState(), is(ProcessState.UNLOADED));
+		assertThat(sub.getState(), is(ProcessState.UNLOADED));
+	}
+}
@@ -0,0 +1,127 @@
+package jadx.tests.integration.variables;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.api.JadxDecompiler;
+import jadx.api.JadxInternalAccess;
+import jadx.core.dex.nodes.BlockNode;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.dex.visitors.AbstractVisitor;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.dex.visitors.ssa.LiveVarAnalysis;
+import jadx.core.dex.visitors.ssa.SSATransform;
+import jadx.tests.api.IntegrationTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Sparse mode used only for methods with many registers, so compare it with dense mode on usual methods
+ */
+public class TestLiveVarAnalysisModes extends IntegrationTest {
+
+	public static class TestCls {
+		public int test(int[] arr, int k) {
+			int sum = 0;
+			int last = -1;
+			for (int i = 0; i < arr.length; i++) {
+				int v = arr[i];
+				if (v > k) {
+					last = i;
+					continue;
+				}
+				switch (v) {
+					case 1:
+						sum += last;
+						break;
+					case 2:
+						sum -= k;
+						break;
+					default:
+						sum += v;
+				}
+			}
+			try {
+				sum = sum / (last + 1);
+			} catch (ArithmeticException e) {
+				sum = -sum;
+			}
+			while (sum > 100) {
+				sum >>= k;
+			}
+			return sum;
+		}
+
+		public String test2(String s, boolean b) {
+			String r = null;
+			if (b) {
+				r = s.trim();
+			} else if (s != null) {
+				r = s;
+			}
+			return r == null ? "" : r;
+		}
+	}
+
+	/**
+	 * Compare both modes at same point as {@link SSATransform}
+	 */
+	private static class CompareModesPass extends AbstractVisitor {
+		private final List<String> mismatches = new ArrayList<>();
+		private int checked;
+
+		@Override
+		public void visit(MethodNode mth) {
+			if (mth.isNoCode() || mth.getBasicBlocks() == null) {
+				return;
+			}
+			LiveVarAnalysis dense = new LiveVarAnalysis(mth, false);
+			dense.runAnalysis();
+			LiveVarAnalysis sparse = new LiveVarAnalysis(mth, true);
+			sparse.runAnalysis();
+			int regsCount = mth.getRegsCount();
+			for (int reg = 0; reg < regsCount; reg++) {
+				if (!dense.getAssignBlocks(reg).equals(sparse.getAssignBlocks(reg))) {
+					mismatches.add(mth + ": assign blocks for r" + reg);
+				}
+				for (BlockNode block : mth.getBasicBlocks()) {
+					if (dense.isLive(block, reg) != sparse.isLive(block, reg)) {
+						mismatches.add(mth + ": r" + reg + " in " + block);
+					}
+					checked++;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test() throws Exception {
+		disableCompilation();
+
+		JadxDecompiler d = loadFiles(Collections.singletonList(getJarForClass(TestCls.class)));
+		RootNode root = JadxInternalAccess.getRoot(d);
+		CompareModesPass comparePass = new CompareModesPass();
+		List<IDexTreeVisitor> passes = root.getPasses();
+		for (int i = 0; i < passes.size(); i++) {
+			if (passes.get(i) instanceof SSATransform) {
+				passes.add(i, comparePass);
+				break;
+			}
+		}
+		ClassNode cls = root.searchClassByName(TestCls.class.getName());
+		assertThat(cls, notNullValue());
+		cls.decompile();
+
+		assertThat(comparePass.checked, greaterThan(0));
+		assertThat(comparePass.mismatches, is(empty()));
+	}
+}
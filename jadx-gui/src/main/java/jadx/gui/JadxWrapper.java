@@ -20,6 +20,7 @@ import jadx.api.JavaClass;
 import jadx.api.JavaPackage;
 import jadx.api.ResourceFile;
 import jadx.gui.settings.JadxSettings;
+import jadx.gui.utils.ProjectCache;
 
 public class JadxWrapper {
 	private static final Logger LOG = LoggerFactory.getLogger(JadxWrapper.class);
@@ -27,6 +28,8 @@ public class JadxWrapper {
 	private final JadxSettings settings;
 	private JadxDecompiler decompiler;
 	private File openFile;
+	@Nullable
+	private ProjectCache projectCache;
 
 	public JadxWrapper(JadxSettings settings) {
 		this.settings = settings;
@@ -37,7 +40,16 @@ public class JadxWrapper {
 		try {
 			JadxArgs jadxArgs = settings.toJadxArgs();
 			jadxArgs.setInputFile(file);
+			projectCache = settings.isUseProjectCache()
+					? ProjectCache.init(file, jadxArgs, getExcludedPackages())
+					: null;
+			if (projectCache != null && jadxArgs.getCodeCacheDir() == null) {
+				jadxArgs.setCodeCacheDir(ProjectCache.getCodeCacheDir());
+			}
 
+			if (this.decompiler != null) {
+				this.decompiler.close();
+			}
 			this.decompiler = new JadxDecompiler(jadxArgs);
 			this.decompiler.load();
 		} catch (Exception e) {
@@ -135,6 +147,14 @@ public class JadxWrapper {
 		return decompiler;
 	}
 
+	/**
+	 * @return cache for opened file or null if disabled
+	 */
+	@Nullable
+	public ProjectCache getProjectCache() {
+		return projectCache;
+	}
+
 	public JadxArgs getArgs() {
 		return decompiler.getArgs();
 	}
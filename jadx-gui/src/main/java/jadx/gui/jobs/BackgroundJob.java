@@ -19,6 +19,7 @@ public abstract class BackgroundJob {
 	protected final JadxWrapper wrapper;
 	private final ThreadPoolExecutor executor;
 	private Future<Boolean> future;
+	private volatile boolean canceled;
 
 	public BackgroundJob(JadxWrapper wrapper, int threadsCount) {
 		this.wrapper = wrapper;
@@ -44,13 +45,18 @@ public abstract class BackgroundJob {
 				public Boolean call() throws Exception {
 					runJob();
 					executor.shutdown();
-					return executor.awaitTermination(5, TimeUnit.DAYS);
+					boolean terminated = executor.awaitTermination(5, TimeUnit.DAYS);
+					if (terminated && !canceled) {
+						onComplete();
+					}
+					return terminated;
 				}
 			});
 		}
 
 		@Override
 		public boolean cancel(boolean mayInterruptIfRunning) {
+			canceled = true;
 			executor.shutdownNow();
 			return super.cancel(mayInterruptIfRunning);
 		}
@@ -58,6 +64,12 @@ public abstract class BackgroundJob {
 
 	protected abstract void runJob();
 
+	/**
+	 * Called after all tasks finished, if job not canceled
+	 */
+	protected void onComplete() {
+	}
+
 	public abstract String getInfoString();
 
 	protected void addTask(Runnable runnable) {
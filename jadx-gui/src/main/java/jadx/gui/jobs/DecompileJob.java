@@ -2,6 +2,7 @@ package jadx.gui.jobs;
 
 import jadx.api.JavaClass;
 import jadx.gui.JadxWrapper;
+import jadx.gui.utils.ProjectCache;
 
 public class DecompileJob extends BackgroundJob {
 
@@ -10,6 +11,11 @@ public class DecompileJob extends BackgroundJob {
 	}
 
 	protected void runJob() {
+		ProjectCache projectCache = wrapper.getProjectCache();
+		if (projectCache != null && projectCache.isIndexSaved()) {
+			// index will be loaded from cache, classes decompiled on request
+			return;
+		}
 		for (final JavaClass cls : wrapper.getIncludedClasses()) {
 			addTask(cls::decompile);
 		}
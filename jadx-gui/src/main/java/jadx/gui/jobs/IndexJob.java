@@ -13,6 +13,8 @@ import jadx.gui.utils.CacheObject;
 import jadx.gui.utils.CodeLinesInfo;
 import jadx.gui.utils.CodeUsageInfo;
 import jadx.gui.utils.JNodeCache;
+import jadx.gui.utils.ProjectCache;
+import jadx.gui.utils.ProjectIndex;
 import jadx.gui.utils.UiUtils;
 import jadx.gui.utils.search.StringRef;
 import jadx.gui.utils.search.TextSearchIndex;
@@ -21,6 +23,7 @@ public class IndexJob extends BackgroundJob {
 
 	private static final Logger LOG = LoggerFactory.getLogger(IndexJob.class);
 	private final CacheObject cache;
+	private volatile boolean saveIndex;
 
 	public IndexJob(JadxWrapper wrapper, CacheObject cache, int threadsCount) {
 		super(wrapper, threadsCount);
@@ -29,6 +32,11 @@ public class IndexJob extends BackgroundJob {
 
 	protected void runJob() {
 		JNodeCache nodeCache = cache.getNodeCache();
+		ProjectCache projectCache = wrapper.getProjectCache();
+		if (projectCache != null && projectCache.isIndexSaved() && loadIndex(projectCache, nodeCache)) {
+			return;
+		}
+		saveIndex = projectCache != null;
 		final TextSearchIndex index = new TextSearchIndex(nodeCache);
 		final CodeUsageInfo usageInfo = new CodeUsageInfo(nodeCache);
 		cache.setTextIndex(index);
@@ -49,11 +57,39 @@ public class IndexJob extends BackgroundJob {
 					}
 				} catch (Exception e) {
 					LOG.error("Index error in class: {}", cls.getFullName(), e);
+					saveIndex = false;
 				}
 			});
 		}
 	}
 
+	private boolean loadIndex(ProjectCache projectCache, JNodeCache nodeCache) {
+		ProjectIndex storedIndex = ProjectIndex.load(projectCache.getIndexFile(), wrapper, nodeCache);
+		if (storedIndex == null) {
+			return false;
+		}
+		try {
+			cache.setTextIndex(storedIndex.buildTextIndex());
+			cache.setUsageInfo(new CodeUsageInfo(nodeCache, storedIndex));
+			LOG.debug("Index loaded from project cache: {}", projectCache.getIndexFile());
+			return true;
+		} catch (Exception e) {
+			LOG.warn("Failed to load index from project cache: {}", projectCache.getIndexFile(), e);
+			return false;
+		}
+	}
+
+	@Override
+	protected void onComplete() {
+		ProjectCache projectCache = wrapper.getProjectCache();
+		TextSearchIndex index = cache.getTextIndex();
+		CodeUsageInfo usageInfo = cache.getUsageInfo();
+		if (saveIndex && projectCache != null && index != null && usageInfo != null
+				&& index.getSkippedCount() == 0) {
+			ProjectIndex.save(projectCache.getIndexFile(), index, usageInfo);
+		}
+	}
+
 	@NotNull
 	protected List<StringRef> splitLines(JavaClass cls) {
 		List<StringRef> lines = StringRef.split(cls.getCode(), CodeWriter.NL);
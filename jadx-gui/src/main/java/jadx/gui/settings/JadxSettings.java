@@ -54,6 +54,7 @@ public class JadxSettings extends JadxCLIArgs {
 	private boolean autoStartJobs = false;
 	protected String excludedPackages = "";
 	private boolean autoSaveProject = false;
+	private boolean useProjectCache = true;
 
 	private boolean showHeapUsageBar = true;
 
@@ -221,6 +222,10 @@ public class JadxSettings extends JadxCLIArgs {
 		this.threadsCount = threadsCount;
 	}
 
+	public void setCodeCacheSizeLimit(int codeCacheSizeLimit) {
+		this.codeCacheSizeLimit = codeCacheSizeLimit;
+	}
+
 	public void setFallbackMode(boolean fallbackMode) {
 		this.fallbackMode = fallbackMode;
 	}
@@ -317,6 +322,14 @@ public class JadxSettings extends JadxCLIArgs {
 		this.autoStartJobs = autoStartJobs;
 	}
 
+	public boolean isUseProjectCache() {
+		return useProjectCache;
+	}
+
+	public void setUseProjectCache(boolean useProjectCache) {
+		this.useProjectCache = useProjectCache;
+	}
+
 	public boolean isAutoSaveProject() {
 		return autoSaveProject;
 	}
@@ -20,6 +20,7 @@ import jadx.gui.ui.codearea.EditorTheme;
 import jadx.gui.utils.FontUtils;
 import jadx.gui.utils.LangLocale;
 import jadx.gui.utils.NLS;
+import jadx.gui.utils.ProjectCache;
 
 public class JadxSettingsWindow extends JDialog {
 	private static final long serialVersionUID = -1804570470377354148L;
@@ -319,6 +320,27 @@ public class JadxSettingsWindow extends JDialog {
 		autoStartJobs.setSelected(settings.isAutoStartJobs());
 		autoStartJobs.addItemListener(e -> settings.setAutoStartJobs(e.getStateChange() == ItemEvent.SELECTED));
 
+		JCheckBox useProjectCache = new JCheckBox();
+		useProjectCache.setSelected(settings.isUseProjectCache());
+		useProjectCache.addItemListener(e -> {
+			settings.setUseProjectCache(e.getStateChange() == ItemEvent.SELECTED);
+			needReload();
+		});
+
+		SpinnerNumberModel cacheSizeModel = new SpinnerNumberModel(settings.getCodeCacheSizeLimit(), 0, Integer.MAX_VALUE, 64);
+		JSpinner codeCacheSizeLimit = new JSpinner(cacheSizeModel);
+		codeCacheSizeLimit.addChangeListener(e -> {
+			settings.setCodeCacheSizeLimit((Integer) codeCacheSizeLimit.getValue());
+			needReload();
+		});
+
+		JButton clearCache = new JButton(NLS.str("preferences.clearCache.button"));
+		clearCache.addActionListener(event -> {
+			if (!ProjectCache.clear()) {
+				JOptionPane.showMessageDialog(this, NLS.str("preferences.clearCache.error"));
+			}
+		});
+
 		JCheckBox escapeUnicode = new JCheckBox();
 		escapeUnicode.setSelected(settings.isEscapeUnicode());
 		escapeUnicode.addItemListener(e -> {
@@ -366,6 +388,9 @@ public class JadxSettingsWindow extends JDialog {
 		other.addRow(NLS.str("preferences.excludedPackages"), NLS.str("preferences.excludedPackages.tooltip"),
 				editExcludedPackages);
 		other.addRow(NLS.str("preferences.start_jobs"), autoStartJobs);
+		other.addRow(NLS.str("preferences.useProjectCache"), useProjectCache);
+		other.addRow(NLS.str("preferences.codeCacheSizeLimit"), codeCacheSizeLimit);
+		other.addRow(NLS.str("preferences.clearCache"), clearCache);
 		other.addRow(NLS.str("preferences.showInconsistentCode"), showInconsistentCode);
 		other.addRow(NLS.str("preferences.escapeUnicode"), escapeUnicode);
 		other.addRow(NLS.str("preferences.replaceConsts"), replaceConsts);
@@ -5,6 +5,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.jetbrains.annotations.Nullable;
 
 import jadx.api.CodePosition;
 import jadx.api.JavaClass;
@@ -28,9 +31,19 @@ public class CodeUsageInfo {
 	}
 
 	private final JNodeCache nodeCache;
+	@Nullable
+	private final ProjectIndex storedIndex;
 
 	public CodeUsageInfo(JNodeCache nodeCache) {
+		this(nodeCache, null);
+	}
+
+	/**
+	 * @param storedIndex if not null, usage lists loaded from it on request
+	 */
+	public CodeUsageInfo(JNodeCache nodeCache, @Nullable ProjectIndex storedIndex) {
 		this.nodeCache = nodeCache;
+		this.storedIndex = storedIndex;
 	}
 
 	private final Map<JNode, UsageInfo> usageMap = new ConcurrentHashMap<>();
@@ -56,10 +69,19 @@ public class CodeUsageInfo {
 	}
 
 	public List<CodeNode> getUsageList(JNode node) {
+		if (storedIndex != null) {
+			return storedIndex.getUsageList(node);
+		}
 		UsageInfo usageInfo = usageMap.get(node);
 		if (usageInfo == null) {
 			return Collections.emptyList();
 		}
 		return usageInfo.getUsageList();
 	}
+
+	public void forEach(BiConsumer<JNode, List<CodeNode>> consumer) {
+		for (Map.Entry<JNode, UsageInfo> entry : usageMap.entrySet()) {
+			consumer.accept(entry.getKey(), entry.getValue().getUsageList());
+		}
+	}
 }
@@ -0,0 +1,96 @@
+package jadx.gui.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.JadxArgs;
+import jadx.core.cache.DiskCodeCache;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Cache for opened file: decompiled code and index for search and usages.
+ * <p>
+ * Code stored in code cache shared by all files (see {@link DiskCodeCache}),
+ * index file name is a hash of input file content and options which can change index content.
+ */
+public class ProjectCache {
+	private static final Logger LOG = LoggerFactory.getLogger(ProjectCache.class);
+
+	private static final Path CACHE_DIR = Paths.get(System.getProperty("user.home"), ".jadx", "cache");
+	private static final String INDEX_EXT = ".jidx";
+
+	private final Path indexFile;
+
+	private ProjectCache(Path indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * @return null if input file can't be read
+	 */
+	@Nullable
+	public static ProjectCache init(File input, JadxArgs args, List<String> excludedPackages) {
+		try {
+			String key = "format=" + ProjectIndex.FORMAT_VERSION
+					+ ", input=" + hashFile(input.toPath())
+					+ ", options=" + DiskCodeCache.buildOptionsKey(args)
+					+ ", deobfuscationOn=" + args.isDeobfuscationOn()
+					+ ", deobfuscationMinLength=" + args.getDeobfuscationMinLength()
+					+ ", deobfuscationMaxLength=" + args.getDeobfuscationMaxLength()
+					+ ", useSourceNameAsClassAlias=" + args.isUseSourceNameAsClassAlias()
+					+ ", excludedPackages=" + excludedPackages;
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			String keyHash = FileUtils.bytesToHex(md.digest(key.getBytes(StandardCharsets.UTF_8)));
+			return new ProjectCache(CACHE_DIR.resolve("index").resolve(keyHash + INDEX_EXT));
+		} catch (Exception e) {
+			LOG.warn("Project cache disabled for file: {}", input, e);
+			return null;
+		}
+	}
+
+	private static String hashFile(Path file) throws IOException, NoSuchAlgorithmException {
+		MessageDigest md = MessageDigest.getInstance("SHA-256");
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream in = Files.newInputStream(file)) {
+			int count;
+			while ((count = in.read(buffer)) != -1) {
+				md.update(buffer, 0, count);
+			}
+		}
+		return FileUtils.bytesToHex(md.digest());
+	}
+
+	public static File getCodeCacheDir() {
+		return CACHE_DIR.resolve("code").toFile();
+	}
+
+	/**
+	 * Remove cached index and code of all files
+	 *
+	 * @return false if some files not removed, for example index of opened file on Windows
+	 */
+	public static boolean clear() {
+		File dir = CACHE_DIR.toFile();
+		return !dir.exists() || FileUtils.deleteDir(dir);
+	}
+
+	public Path getIndexFile() {
+		return indexFile;
+	}
+
+	public boolean isIndexSaved() {
+		return Files.exists(indexFile);
+	}
+}
@@ -0,0 +1,600 @@
+package jadx.gui.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.reactivex.Flowable;
+
+import jadx.api.JavaClass;
+import jadx.api.JavaMethod;
+import jadx.api.JavaNode;
+import jadx.gui.JadxWrapper;
+import jadx.gui.treemodel.CodeNode;
+import jadx.gui.treemodel.JNode;
+import jadx.gui.utils.search.SearchIndex;
+import jadx.gui.utils.search.StoredCodeIndex;
+import jadx.gui.utils.search.StoredNameIndex;
+import jadx.gui.utils.search.StringRef;
+import jadx.gui.utils.search.TextSearchIndex;
+
+/**
+ * Search and usage index saved to file, so it can be loaded on next open of same file without decompilation.
+ * <p>
+ * Nodes stored as position in parent class lists (inner classes, methods, fields) and resolved
+ * (with loading of parent class code) only then needed for search result or usage list.
+ * Nodes numbered in breadth-first order: top classes sorted by name first, then children of every node
+ * in list order, so children keys are sorted and can be found by binary search.
+ * <p>
+ * File mapped into memory, names and code lines searched directly in mapped buffer
+ * (see {@link StoredNameIndex} and {@link StoredCodeIndex}), usage lists decoded on request.
+ * Only offsets of strings kept in heap, file structure checked at load.
+ * <p>
+ * File format: header, nodes, names (classes, methods, fields), code lines, usage lists,
+ * usage lists offsets table, offset of this table and magic number at file end.
+ */
+public class ProjectIndex {
+	private static final Logger LOG = LoggerFactory.getLogger(ProjectIndex.class);
+
+	static final int FORMAT_VERSION = 2;
+	private static final int MAGIC = 0x4A494458;
+
+	private static final int NODE_INNER_CLASS = 1;
+	private static final int NODE_METHOD = 2;
+	private static final int NODE_FIELD = 3;
+
+	private final JadxWrapper wrapper;
+	private final JNodeCache nodeCache;
+	private final ByteBuffer buf;
+
+	/**
+	 * Raw names of top classes, node id is an index in this array
+	 */
+	private final String[] topNames;
+	/**
+	 * Keys of other nodes (see {@link #childKey(int, int, int)}), node id is {@code topNames.length + index}
+	 */
+	private final long[] childKeys;
+	private final int[] usageOffsets;
+	/**
+	 * Offsets of stored strings for names and code lines indexes
+	 */
+	private final int[] clsNames;
+	private final int[] mthNames;
+	private final int[] fldNames;
+	private final int[] codeLines;
+
+	private final JavaNode[] resolved;
+	private Map<String, JavaClass> topClasses;
+
+	private ProjectIndex(JadxWrapper wrapper, JNodeCache nodeCache, ByteBuffer buf) throws IOException {
+		this.wrapper = wrapper;
+		this.nodeCache = nodeCache;
+		this.buf = buf;
+		if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+			throw new IOException("Unknown index format");
+		}
+		int topCount = buf.getInt();
+		if (topCount < 0 || topCount > buf.remaining() / 4) {
+			throw new IOException("Wrong top classes count: " + topCount);
+		}
+		topNames = new String[topCount];
+		for (int i = 0; i < topCount; i++) {
+			topNames[i] = readString(buf);
+		}
+		int childCount = buf.getInt();
+		if (childCount < 0 || childCount > buf.remaining() / 8) {
+			throw new IOException("Wrong nodes count: " + childCount);
+		}
+		childKeys = new long[childCount];
+		for (int i = 0; i < childCount; i++) {
+			long key = buf.getLong();
+			if (i > 0 && key <= childKeys[i - 1]) {
+				throw new IOException("Nodes not sorted");
+			}
+			childKeys[i] = key;
+		}
+		int nodesCount = topCount + childCount;
+		clsNames = readOffsets(buf, false, nodesCount);
+		mthNames = readOffsets(buf, false, nodesCount);
+		fldNames = readOffsets(buf, false, nodesCount);
+		codeLines = readOffsets(buf, true, nodesCount);
+		int textEnd = buf.position();
+
+		int limit = buf.limit();
+		if (limit < 8 || buf.getInt(limit - 4) != MAGIC) {
+			throw new IOException("Index file truncated");
+		}
+		int tableOffset = buf.getInt(limit - 8);
+		if (tableOffset < textEnd || tableOffset > limit - 12) {
+			throw new IOException("Wrong usage table offset");
+		}
+		usageOffsets = new int[nodesCount];
+		Arrays.fill(usageOffsets, -1);
+		ByteBuffer table = buf.duplicate();
+		table.position(tableOffset);
+		int usageCount = table.getInt();
+		if (usageCount < 0 || usageCount > nodesCount || table.position() + usageCount * 8 != limit - 8) {
+			throw new IOException("Wrong usage table size");
+		}
+		for (int i = 0; i < usageCount; i++) {
+			int id = table.getInt();
+			int offset = table.getInt();
+			if (id < 0 || id >= nodesCount || offset < textEnd || offset >= tableOffset) {
+				throw new IOException("Wrong usage table entry");
+			}
+			usageOffsets[id] = offset;
+		}
+		resolved = new JavaNode[nodesCount];
+	}
+
+	/**
+	 * Read offsets of stored strings and skip them, node id checked for every entry
+	 *
+	 * @param lines true for code lines (node id and line number stored before string),
+	 *              false for names (node id stored after string)
+	 */
+	private static int[] readOffsets(ByteBuffer in, boolean lines, int nodesCount) throws IOException {
+		int count = in.getInt();
+		if (count < 0 || count > in.remaining() / 8) {
+			throw new IOException("Wrong entries count: " + count);
+		}
+		int[] offsets = new int[count];
+		for (int i = 0; i < count; i++) {
+			int id = -1;
+			if (lines) {
+				id = in.getInt();
+				in.getInt(); // line number
+			}
+			int offset = in.position();
+			int len = in.getInt();
+			if (len < 0 || len > in.remaining()) {
+				throw new IOException("Wrong string length: " + len);
+			}
+			in.position(offset + 4 + len);
+			if (!lines) {
+				id = in.getInt();
+			}
+			if (id < 0 || id >= nodesCount) {
+				throw new IOException("Wrong node id: " + id);
+			}
+			offsets[i] = offset;
+		}
+		return offsets;
+	}
+
+	/**
+	 * @return null if file can't be loaded
+	 */
+	@Nullable
+	public static ProjectIndex load(Path file, JadxWrapper wrapper, JNodeCache nodeCache) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				LOG.warn("Project index too big: {}", file);
+				return null;
+			}
+			// mapping stay valid after channel close
+			ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return new ProjectIndex(wrapper, nodeCache, buf);
+		} catch (Exception e) {
+			LOG.warn("Failed to load project index: {}", file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Build search index over stored names and code lines, nodes not resolved until found by search
+	 */
+	public TextSearchIndex buildTextIndex() {
+		SearchIndex<StoredLine> codeIndex = new StoredCodeIndex<>(buf, codeLines, i -> readLine(codeLines[i]));
+		SearchIndex<CodeNode> code = new ResolvingIndex<>(codeIndex, this::makeCodeNode);
+		return new TextSearchIndex(nodeCache, namesIndex(clsNames), namesIndex(mthNames), namesIndex(fldNames), code);
+	}
+
+	private SearchIndex<JNode> namesIndex(int[] offsets) {
+		// node id stored after name
+		SearchIndex<Integer> index = new StoredNameIndex<>(buf, offsets,
+				i -> buf.getInt(offsets[i] + 4 + buf.getInt(offsets[i])));
+		return new ResolvingIndex<>(index, this::getJNode);
+	}
+
+	private StoredLine readLine(int offset) {
+		ByteBuffer in = buf.duplicate();
+		in.position(offset - 8);
+		return new StoredLine(in.getInt(), in.getInt(), StringRef.fromStr(readString(in)));
+	}
+
+	public List<CodeNode> getUsageList(JNode node) {
+		int nodeId = getNodeId(node.getJavaNode());
+		if (nodeId == -1 || usageOffsets[nodeId] == -1) {
+			return Collections.emptyList();
+		}
+		ByteBuffer in = buf.duplicate();
+		in.position(usageOffsets[nodeId]);
+		int count = in.getInt();
+		List<CodeNode> list = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			StoredLine line = new StoredLine(in.getInt(), in.getInt(), StringRef.fromStr(readString(in)));
+			CodeNode codeNode = makeCodeNode(line);
+			if (codeNode != null) {
+				list.add(codeNode);
+			}
+		}
+		return list;
+	}
+
+	@Nullable
+	private CodeNode makeCodeNode(StoredLine line) {
+		JNode node = getJNode(line.nodeId);
+		return node == null ? null : new CodeNode(node, line.lineNum, line.text);
+	}
+
+	@Nullable
+	private synchronized JNode getJNode(int nodeId) {
+		JavaNode javaNode = resolveNode(nodeId);
+		return javaNode == null ? null : nodeCache.makeFrom(javaNode);
+	}
+
+	@Nullable
+	private synchronized JavaNode resolveNode(int nodeId) {
+		JavaNode node = resolved[nodeId];
+		if (node == null) {
+			try {
+				node = loadNode(nodeId);
+			} catch (Exception e) {
+				LOG.warn("Failed to resolve node from project index", e);
+			}
+			resolved[nodeId] = node;
+		}
+		return node;
+	}
+
+	@Nullable
+	private JavaNode loadNode(int nodeId) {
+		if (nodeId < topNames.length) {
+			if (topClasses == null) {
+				topClasses = new HashMap<>();
+				for (JavaClass cls : wrapper.getClasses()) {
+					topClasses.put(cls.getClassNode().getRawName(), cls);
+				}
+			}
+			return topClasses.get(topNames[nodeId]);
+		}
+		long key = childKeys[nodeId - topNames.length];
+		JavaNode parent = resolveNode((int) (key >>> 32));
+		if (!(parent instanceof JavaClass)) {
+			return null;
+		}
+		List<? extends JavaNode> list = getChildren((JavaClass) parent, (int) (key >>> 30) & 3);
+		int idx = (int) key & 0x3FFFFFFF;
+		return idx < list.size() ? list.get(idx) : null;
+	}
+
+	private int getNodeId(@Nullable JavaNode node) {
+		if (node == null) {
+			return -1;
+		}
+		JavaClass parent = node.getDeclaringClass();
+		if (parent == null) {
+			if (!(node instanceof JavaClass)) {
+				return -1;
+			}
+			int pos = Arrays.binarySearch(topNames, ((JavaClass) node).getClassNode().getRawName());
+			return pos < 0 ? -1 : pos;
+		}
+		int parentId = getNodeId(parent);
+		if (parentId == -1) {
+			return -1;
+		}
+		int type = getNodeType(node);
+		int idx = getChildren(parent, type).indexOf(node);
+		if (idx == -1) {
+			return -1;
+		}
+		int pos = Arrays.binarySearch(childKeys, childKey(parentId, type, idx));
+		return pos < 0 ? -1 : topNames.length + pos;
+	}
+
+	private static int getNodeType(JavaNode node) {
+		if (node instanceof JavaClass) {
+			return NODE_INNER_CLASS;
+		}
+		if (node instanceof JavaMethod) {
+			return NODE_METHOD;
+		}
+		return NODE_FIELD;
+	}
+
+	private static List<? extends JavaNode> getChildren(JavaClass cls, int type) {
+		switch (type) {
+			case NODE_INNER_CLASS:
+				return cls.getInnerClasses();
+			case NODE_METHOD:
+				return cls.getMethods();
+			default:
+				return cls.getFields();
+		}
+	}
+
+	private static long childKey(int parentId, int type, int idx) {
+		return (long) parentId << 32 | (long) type << 30 | idx;
+	}
+
+	public static void save(Path file, TextSearchIndex textIndex, CodeUsageInfo usageInfo) {
+		long start = System.currentTimeMillis();
+		try {
+			Path dir = file.getParent();
+			Files.createDirectories(dir);
+			Path tmpPath = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+			try {
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+					new IndexWriter(textIndex, usageInfo).write(out);
+				}
+				Files.move(tmpPath, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tmpPath);
+			}
+			LOG.debug("Project index saved in {} ms: {}", System.currentTimeMillis() - start, file);
+		} catch (Exception e) {
+			LOG.warn("Failed to save project index: {}", file, e);
+		}
+	}
+
+	private static final class IndexWriter {
+		private final TextSearchIndex textIndex;
+		private final CodeUsageInfo usageInfo;
+		private final Map<JavaNode, Integer> ids = new HashMap<>();
+		private final List<JavaClass> topClasses = new ArrayList<>();
+		private final List<Long> childKeys = new ArrayList<>();
+
+		private IndexWriter(TextSearchIndex textIndex, CodeUsageInfo usageInfo) {
+			this.textIndex = textIndex;
+			this.usageInfo = usageInfo;
+		}
+
+		private void write(DataOutputStream out) throws IOException {
+			numberNodes();
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(topClasses.size());
+			for (JavaClass cls : topClasses) {
+				writeString(out, cls.getClassNode().getRawName());
+			}
+			out.writeInt(childKeys.size());
+			for (Long key : childKeys) {
+				out.writeLong(key);
+			}
+			writeNames(out, textIndex.getClsNamesIndex());
+			writeNames(out, textIndex.getMthNamesIndex());
+			writeNames(out, textIndex.getFldNamesIndex());
+
+			List<CodeNode> codeLines = new ArrayList<>();
+			textIndex.getCodeIndex().forEach((line, codeNode) -> codeLines.add(codeNode));
+			writeLines(out, codeLines);
+
+			List<JNode> usageNodes = new ArrayList<>();
+			List<List<CodeNode>> usageLists = new ArrayList<>();
+			usageInfo.forEach((node, list) -> {
+				usageNodes.add(node);
+				usageLists.add(list);
+			});
+			int count = usageNodes.size();
+			int[] usageIds = new int[count];
+			int[] offsets = new int[count];
+			for (int i = 0; i < count; i++) {
+				usageIds[i] = getId(usageNodes.get(i));
+				offsets[i] = out.size();
+				if (usageIds[i] != -1) {
+					writeLines(out, usageLists.get(i));
+				}
+			}
+			int tableOffset = out.size();
+			int tableSize = 0;
+			for (int id : usageIds) {
+				if (id != -1) {
+					tableSize++;
+				}
+			}
+			out.writeInt(tableSize);
+			for (int i = 0; i < count; i++) {
+				if (usageIds[i] != -1) {
+					out.writeInt(usageIds[i]);
+					out.writeInt(offsets[i]);
+				}
+			}
+			out.writeInt(tableOffset);
+			out.writeInt(MAGIC);
+		}
+
+		/**
+		 * Collect all referenced nodes (with parents) and number them in breadth-first order
+		 */
+		private void numberNodes() {
+			Set<JavaNode> used = new HashSet<>();
+			BiConsumer<CharSequence, JNode> addName = (name, node) -> addUsed(used, node);
+			textIndex.getClsNamesIndex().forEach(addName);
+			textIndex.getMthNamesIndex().forEach(addName);
+			textIndex.getFldNamesIndex().forEach(addName);
+			textIndex.getCodeIndex().forEach((line, codeNode) -> addUsed(used, codeNode));
+			usageInfo.forEach((node, list) -> {
+				addUsed(used, node);
+				for (CodeNode codeNode : list) {
+					addUsed(used, codeNode);
+				}
+			});
+
+			List<JavaNode> nodes = new ArrayList<>(used.size());
+			for (JavaNode node : used) {
+				if (node.getDeclaringClass() == null && node instanceof JavaClass) {
+					topClasses.add((JavaClass) node);
+				}
+			}
+			topClasses.sort(Comparator.comparing(cls -> cls.getClassNode().getRawName()));
+			nodes.addAll(topClasses);
+			for (int id = 0; id < nodes.size(); id++) {
+				JavaNode node = nodes.get(id);
+				ids.put(node, id);
+				if (node instanceof JavaClass) {
+					for (int type = NODE_INNER_CLASS; type <= NODE_FIELD; type++) {
+						List<? extends JavaNode> children = getChildren((JavaClass) node, type);
+						for (int idx = 0; idx < children.size(); idx++) {
+							JavaNode child = children.get(idx);
+							if (used.contains(child)) {
+								nodes.add(child);
+								childKeys.add(childKey(id, type, idx));
+							}
+						}
+					}
+				}
+			}
+		}
+
+		private static void addUsed(Set<JavaNode> used, JNode jNode) {
+			JavaNode node = jNode.getJavaNode();
+			while (node != null && used.add(node)) {
+				node = node.getDeclaringClass();
+			}
+		}
+
+		private int getId(JNode node) {
+			Integer id = ids.get(node.getJavaNode());
+			return id == null ? -1 : id;
+		}
+
+		private void writeNames(DataOutputStream out, SearchIndex<JNode> index) throws IOException {
+			List<String> names = new ArrayList<>();
+			List<Integer> nameIds = new ArrayList<>();
+			index.forEach((name, node) -> {
+				int id = getId(node);
+				if (id != -1) {
+					names.add(name.toString());
+					nameIds.add(id);
+				}
+			});
+			int count = names.size();
+			out.writeInt(count);
+			for (int i = 0; i < count; i++) {
+				writeString(out, names.get(i));
+				out.writeInt(nameIds.get(i));
+			}
+		}
+
+		private void writeLines(DataOutputStream out, List<CodeNode> lines) throws IOException {
+			List<CodeNode> list = new ArrayList<>(lines.size());
+			for (CodeNode codeNode : lines) {
+				if (getId(codeNode) != -1) {
+					list.add(codeNode);
+				}
+			}
+			out.writeInt(list.size());
+			for (CodeNode codeNode : list) {
+				out.writeInt(getId(codeNode));
+				out.writeInt(codeNode.getLine());
+				writeString(out, codeNode.makeDescString());
+			}
+		}
+	}
+
+	private static final class StoredLine {
+		private final int nodeId;
+		private final int lineNum;
+		private final StringRef text;
+
+		private StoredLine(int nodeId, int lineNum, StringRef text) {
+			this.nodeId = nodeId;
+			this.lineNum = lineNum;
+			this.text = text;
+		}
+	}
+
+	/**
+	 * Read only index with values converted on search
+	 */
+	private static final class ResolvingIndex<S, T> implements SearchIndex<T> {
+		private final SearchIndex<S> index;
+		private final Function<S, T> resolver;
+
+		private ResolvingIndex(SearchIndex<S> index, Function<S, T> resolver) {
+			this.index = index;
+			this.resolver = resolver;
+		}
+
+		@Override
+		public void put(String str, T value) {
+			throw new UnsupportedOperationException("Stored index is read only");
+		}
+
+		@Override
+		public void put(StringRef str, T value) {
+			throw new UnsupportedOperationException("Stored index is read only");
+		}
+
+		@Override
+		public void putAll(List<StringRef> strings, List<T> values) {
+			throw new UnsupportedOperationException("Stored index is read only");
+		}
+
+		@Override
+		public boolean isStringRefSupported() {
+			return index.isStringRefSupported();
+		}
+
+		@Override
+		public Flowable<T> search(String searchStr, boolean caseInsensitive) {
+			return index.search(searchStr, caseInsensitive).concatMap(value -> {
+				T result = resolver.apply(value);
+				return result == null ? Flowable.<T>empty() : Flowable.just(result);
+			});
+		}
+
+		@Override
+		public void forEach(BiConsumer<CharSequence, T> consumer) {
+			throw new UnsupportedOperationException("Values of stored index resolved only on search");
+		}
+
+		@Override
+		public int size() {
+			return index.size();
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) {
+		int len = in.getInt();
+		if (len < 0 || len > in.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[len];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -1,7 +1,8 @@
 package jadx.gui.utils.search;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,12 +12,35 @@ import io.reactivex.Flowable;
 
 import jadx.gui.utils.UiUtils;
 
+import static jadx.gui.utils.UiUtils.caseChar;
+
+/**
+ * Code lines index with trigrams filter.
+ * <p>
+ * Lines grouped into small blocks and for every (lower cased) trigram index stores sorted list of blocks ids
+ * with lines contains this trigram. Search intersects lists for all trigrams from search string
+ * and check only lines from remaining blocks.
+ * Trigrams hashed into fixed count of buckets, so collisions only add false candidates.
+ * <p>
+ * Lines can be added from several threads while search is running: line data stored in chunks
+ * which are never moved, and search reads only lines added before it started.
+ */
 public class CodeIndex<T> implements SearchIndex<T> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(CodeIndex.class);
 
-	private final List<StringRef> keys = new ArrayList<>();
-	private final List<T> values = new ArrayList<>();
+	private static final int BLOCK_SHIFT = 3;
+	private static final int BUCKETS_COUNT = 1 << 18;
+	private static final int CHUNK_SHIFT = 12;
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int[] NO_TRIGRAMS = new int[0];
+
+	private StringRef[][] keys = new StringRef[16][];
+	private Object[][] values = new Object[16][];
+	private int size;
+
+	private final int[][] postings = new int[BUCKETS_COUNT][];
+	private final int[] postingSizes = new int[BUCKETS_COUNT];
 
 	@Override
 	public void put(String str, T value) {
@@ -24,12 +48,14 @@ public class CodeIndex<T> implements SearchIndex<T> {
 	}
 
 	@Override
-	public synchronized void put(StringRef str, T value) {
+	public void put(StringRef str, T value) {
 		if (str == null || str.length() == 0) {
 			return;
 		}
-		keys.add(str);
-		values.add(value);
+		int[] trigrams = getTrigrams(str);
+		synchronized (this) {
+			addLine(str, value, trigrams);
+		}
 	}
 
 	@Override
@@ -37,18 +63,170 @@ public class CodeIndex<T> implements SearchIndex<T> {
 		return true;
 	}
 
+	/**
+	 * Add lines in one batch, trigrams calculated before taking a lock
+	 */
+	@Override
+	public void putAll(List<StringRef> lines, List<T> lineValues) {
+		int count = lines.size();
+		int[][] trigrams = new int[count][];
+		for (int i = 0; i < count; i++) {
+			trigrams[i] = getTrigrams(lines.get(i));
+		}
+		synchronized (this) {
+			for (int i = 0; i < count; i++) {
+				StringRef line = lines.get(i);
+				if (line != null && line.length() != 0) {
+					addLine(line, lineValues.get(i), trigrams[i]);
+				}
+			}
+		}
+	}
+
+	private void addLine(StringRef str, T value, int[] trigrams) {
+		int id = size;
+		int chunk = id >> CHUNK_SHIFT;
+		if (chunk == keys.length) {
+			keys = Arrays.copyOf(keys, chunk * 2);
+			values = Arrays.copyOf(values, chunk * 2);
+		}
+		if (keys[chunk] == null) {
+			keys[chunk] = new StringRef[CHUNK_SIZE];
+			values[chunk] = new Object[CHUNK_SIZE];
+		}
+		keys[chunk][id & (CHUNK_SIZE - 1)] = str;
+		values[chunk][id & (CHUNK_SIZE - 1)] = value;
+		size = id + 1;
+
+		int block = id >> BLOCK_SHIFT;
+		for (int bucket : trigrams) {
+			addPosting(bucket, block);
+		}
+	}
+
+	private void addPosting(int bucket, int block) {
+		int[] list = postings[bucket];
+		int listSize = postingSizes[bucket];
+		if (list == null) {
+			list = new int[4];
+			postings[bucket] = list;
+		} else if (list[listSize - 1] == block) {
+			return;
+		} else if (listSize == list.length) {
+			list = Arrays.copyOf(list, listSize * 2);
+			postings[bucket] = list;
+		}
+		list[listSize] = block;
+		postingSizes[bucket] = listSize + 1;
+	}
+
+	/**
+	 * @return buckets of all lower cased trigrams from string (can contain duplicates)
+	 */
+	private static int[] getTrigrams(CharSequence str) {
+		int len = str.length();
+		if (len < 3) {
+			return NO_TRIGRAMS;
+		}
+		int[] result = new int[len - 2];
+		char c1 = caseChar(str.charAt(0), true);
+		char c2 = caseChar(str.charAt(1), true);
+		for (int i = 2; i < len; i++) {
+			char c3 = caseChar(str.charAt(i), true);
+			result[i - 2] = bucket(c1, c2, c3);
+			c1 = c2;
+			c2 = c3;
+		}
+		return result;
+	}
+
+	private static int bucket(char c1, char c2, char c3) {
+		int h = (c1 * 31 + c2) * 31 + c3;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		return h & (BUCKETS_COUNT - 1);
+	}
+
+	/**
+	 * @return sorted ids of blocks which can contain search string or null if all blocks should be checked
+	 */
+	private int[] findBlocks(String searchStr) {
+		int[] trigrams = getTrigrams(searchStr);
+		if (trigrams.length == 0) {
+			return null;
+		}
+		int[] buckets = Arrays.stream(trigrams).distinct().toArray();
+		int minIdx = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			if (postingSizes[buckets[i]] < postingSizes[buckets[minIdx]]) {
+				minIdx = i;
+			}
+		}
+		int[] result = Arrays.copyOf(orEmpty(buckets[minIdx]), postingSizes[buckets[minIdx]]);
+		int count = result.length;
+		for (int i = 0; i < buckets.length && count != 0; i++) {
+			if (i != minIdx) {
+				count = intersect(result, count, orEmpty(buckets[i]), postingSizes[buckets[i]]);
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	private int[] orEmpty(int bucket) {
+		int[] list = postings[bucket];
+		return list == null ? NO_TRIGRAMS : list;
+	}
+
+	/**
+	 * Intersect two sorted lists, result placed into first list
+	 *
+	 * @return result size
+	 */
+	private static int intersect(int[] list, int size, int[] other, int otherSize) {
+		int k = 0;
+		int j = 0;
+		for (int i = 0; i < size && j < otherSize; i++) {
+			int v = list[i];
+			while (j < otherSize && other[j] < v) {
+				j++;
+			}
+			if (j < otherSize && other[j] == v) {
+				list[k++] = v;
+			}
+		}
+		return k;
+	}
+
 	private boolean isMatched(StringRef key, String str, boolean caseInsensitive) {
 		return key.indexOf(str, caseInsensitive) != -1;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public Flowable<T> search(final String searchStr, final boolean caseInsensitive) {
 		return Flowable.create(emitter -> {
-			int size = size();
 			LOG.debug("Code search started: {} ...", searchStr);
-			for (int i = 0; i < size; i++) {
-				if (isMatched(keys.get(i), searchStr, caseInsensitive)) {
-					emitter.onNext(values.get(i));
+			int linesCount;
+			int[] blocks;
+			StringRef[][] keysChunks;
+			Object[][] valuesChunks;
+			synchronized (this) {
+				linesCount = size;
+				blocks = findBlocks(searchStr);
+				keysChunks = keys;
+				valuesChunks = values;
+			}
+			int blocksCount = blocks == null ? (linesCount >> BLOCK_SHIFT) + 1 : blocks.length;
+			for (int b = 0; b < blocksCount; b++) {
+				int block = blocks == null ? b : blocks[b];
+				int start = block << BLOCK_SHIFT;
+				int end = Math.min(start + (1 << BLOCK_SHIFT), linesCount);
+				for (int i = start; i < end; i++) {
+					StringRef key = keysChunks[i >> CHUNK_SHIFT][i & (CHUNK_SIZE - 1)];
+					if (isMatched(key, searchStr, caseInsensitive)) {
+						emitter.onNext((T) valuesChunks[i >> CHUNK_SHIFT][i & (CHUNK_SIZE - 1)]);
+					}
 				}
 				if (emitter.isCancelled()) {
 					LOG.debug("Code search canceled: {}", searchStr);
@@ -60,8 +238,25 @@ public class CodeIndex<T> implements SearchIndex<T> {
 		}, BackpressureStrategy.LATEST);
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<CharSequence, T> consumer) {
+		int linesCount;
+		StringRef[][] keysChunks;
+		Object[][] valuesChunks;
+		synchronized (this) {
+			linesCount = size;
+			keysChunks = keys;
+			valuesChunks = values;
+		}
+		for (int i = 0; i < linesCount; i++) {
+			consumer.accept(keysChunks[i >> CHUNK_SHIFT][i & (CHUNK_SIZE - 1)],
+					(T) valuesChunks[i >> CHUNK_SHIFT][i & (CHUNK_SIZE - 1)]);
+		}
+	}
+
 	@Override
-	public int size() {
-		return keys.size();
+	public synchronized int size() {
+		return size;
 	}
 }
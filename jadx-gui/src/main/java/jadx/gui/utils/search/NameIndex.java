@@ -0,0 +1,328 @@
+package jadx.gui.utils.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+
+/**
+ * Index for full names of classes, methods and fields.
+ * <p>
+ * Search results ordered by relevance:
+ * <ol>
+ * <li>short name (part after last dot) starts with search string</li>
+ * <li>short name matched as camel case humps (e.g. 'NPE' or 'NulPoEx' for 'NullPointerException')</li>
+ * <li>full name contains search string</li>
+ * </ol>
+ * Names sorted by short name for prefix search by binary search, and lower cased full names
+ * packed into one char array to make substring search fast.
+ * <p>
+ * New names collected in pending lists and merged into immutable snapshot at next search,
+ * so names can be added while searching.
+ */
+public class NameIndex<T> implements SearchIndex<T> {
+
+	private static final char SEPARATOR = '\n';
+
+	private final List<String> newKeys = new ArrayList<>();
+	private final List<T> newValues = new ArrayList<>();
+
+	private Snapshot snapshot = new Snapshot(new Entry[0]);
+
+	private static final class Entry {
+		private final String name;
+		private final String lowerShortName;
+		private final Object value;
+
+		private Entry(String name, Object value) {
+			this.name = name;
+			this.lowerShortName = toLowerCase(getShortName(name));
+			this.value = value;
+		}
+	}
+
+	private static final class Snapshot {
+		private final Entry[] entries;
+		private final String[] lowerShortNames;
+		/**
+		 * Lower cased full names joined by {@link #SEPARATOR}
+		 */
+		private final char[] text;
+		private final int[] starts;
+
+		private Snapshot(Entry[] entries) {
+			int count = entries.length;
+			this.entries = entries;
+			this.lowerShortNames = new String[count];
+			this.starts = new int[count];
+			int len = 0;
+			for (Entry entry : entries) {
+				len += entry.name.length() + 1;
+			}
+			char[] chars = new char[len];
+			int pos = 0;
+			for (int i = 0; i < count; i++) {
+				Entry entry = entries[i];
+				lowerShortNames[i] = entry.lowerShortName;
+				starts[i] = pos;
+				String name = entry.name;
+				int nameLen = name.length();
+				for (int j = 0; j < nameLen; j++) {
+					chars[pos++] = Character.toLowerCase(name.charAt(j));
+				}
+				chars[pos++] = SEPARATOR;
+			}
+			this.text = chars;
+		}
+	}
+
+	@Override
+	public void put(String str, T value) {
+		synchronized (newKeys) {
+			newKeys.add(str);
+			newValues.add(value);
+		}
+	}
+
+	@Override
+	public void put(StringRef str, T value) {
+		throw new UnsupportedOperationException("StringRef not supported");
+	}
+
+	@Override
+	public void putAll(List<StringRef> strings, List<T> values) {
+		int count = strings.size();
+		synchronized (newKeys) {
+			for (int i = 0; i < count; i++) {
+				newKeys.add(strings.get(i).toString());
+				newValues.add(values.get(i));
+			}
+		}
+	}
+
+	@Override
+	public boolean isStringRefSupported() {
+		return false;
+	}
+
+	private Snapshot getSnapshot() {
+		synchronized (newKeys) {
+			int newCount = newKeys.size();
+			if (newCount == 0) {
+				return snapshot;
+			}
+			Entry[] oldEntries = snapshot.entries;
+			Entry[] entries = Arrays.copyOf(oldEntries, oldEntries.length + newCount);
+			for (int i = 0; i < newCount; i++) {
+				entries[oldEntries.length + i] = new Entry(newKeys.get(i), newValues.get(i));
+			}
+			newKeys.clear();
+			newValues.clear();
+			Arrays.sort(entries, (a, b) -> {
+				int cmp = a.lowerShortName.compareTo(b.lowerShortName);
+				return cmp != 0 ? cmp : a.name.compareTo(b.name);
+			});
+			snapshot = new Snapshot(entries);
+			return snapshot;
+		}
+	}
+
+	@Override
+	public Flowable<T> search(final String searchStr, final boolean caseInsensitive) {
+		return Flowable.create(emitter -> {
+			Snapshot data = getSnapshot();
+			boolean[] found = new boolean[data.entries.length];
+			if (searchPrefix(data, found, emitter, searchStr, caseInsensitive)
+					&& searchCamelCase(data, found, emitter, searchStr)
+					&& searchSubstring(data, found, emitter, searchStr, caseInsensitive)) {
+				emitter.onComplete();
+			}
+		}, BackpressureStrategy.LATEST);
+	}
+
+	/**
+	 * @return false if search canceled
+	 */
+	private boolean searchPrefix(Snapshot data, boolean[] found, FlowableEmitter<T> emitter,
+			String searchStr, boolean caseInsensitive) {
+		String lowerStr = toLowerCase(searchStr);
+		int start = lowerBound(data.lowerShortNames, lowerStr);
+		for (int i = start; i < data.entries.length; i++) {
+			if (!data.lowerShortNames[i].startsWith(lowerStr)) {
+				break;
+			}
+			if (caseInsensitive || getShortName(data.entries[i].name).startsWith(searchStr)) {
+				if (!emit(data, found, emitter, i)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Check only names with same first letter, camel case search make sense only for search strings
+	 * with several upper case letters
+	 */
+	private boolean searchCamelCase(Snapshot data, boolean[] found, FlowableEmitter<T> emitter, String searchStr) {
+		List<String> humps = splitHumps(searchStr);
+		if (humps.size() < 2 || searchStr.indexOf('.') != -1) {
+			return true;
+		}
+		String firstChar = toLowerCase(searchStr.substring(0, 1));
+		int start = lowerBound(data.lowerShortNames, firstChar);
+		for (int i = start; i < data.entries.length; i++) {
+			if (!data.lowerShortNames[i].startsWith(firstChar)) {
+				break;
+			}
+			String name = data.entries[i].name;
+			if (!found[i] && isHumpsMatched(name, name.lastIndexOf('.') + 1, humps)) {
+				if (!emit(data, found, emitter, i)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean searchSubstring(Snapshot data, boolean[] found, FlowableEmitter<T> emitter,
+			String searchStr, boolean caseInsensitive) {
+		char[] str = toLowerCase(searchStr).toCharArray();
+		int strLen = str.length;
+		if (strLen == 0) {
+			return true;
+		}
+		char[] text = data.text;
+		int[] starts = data.starts;
+		char first = str[0];
+		int max = text.length - strLen;
+		int i = 0;
+		while (i <= max) {
+			if (text[i] != first) {
+				i++;
+				continue;
+			}
+			int k = 1;
+			while (k < strLen && text[i + k] == str[k]) {
+				k++;
+			}
+			if (k != strLen) {
+				i++;
+				continue;
+			}
+			int idx = Arrays.binarySearch(starts, i);
+			if (idx < 0) {
+				idx = -idx - 2;
+			}
+			if (!found[idx] && (caseInsensitive || data.entries[idx].name.contains(searchStr))) {
+				if (!emit(data, found, emitter, idx)) {
+					return false;
+				}
+			}
+			// continue from next name
+			i = idx + 1 < starts.length ? starts[idx + 1] : text.length;
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean emit(Snapshot data, boolean[] found, FlowableEmitter<T> emitter, int idx) {
+		if (found[idx]) {
+			return true;
+		}
+		found[idx] = true;
+		emitter.onNext((T) data.entries[idx].value);
+		return !emitter.isCancelled();
+	}
+
+	private static int lowerBound(String[] arr, String key) {
+		int idx = Arrays.binarySearch(arr, key);
+		if (idx < 0) {
+			return -idx - 1;
+		}
+		while (idx > 0 && arr[idx - 1].equals(key)) {
+			idx--;
+		}
+		return idx;
+	}
+
+	static List<String> splitHumps(String name) {
+		List<String> humps = new ArrayList<>();
+		int start = 0;
+		int len = name.length();
+		for (int i = 1; i < len; i++) {
+			if (Character.isUpperCase(name.charAt(i))) {
+				humps.add(name.substring(start, i));
+				start = i;
+			}
+		}
+		if (start < len) {
+			humps.add(name.substring(start));
+		}
+		return humps;
+	}
+
+	/**
+	 * Every search hump should be a prefix of name hump (name humps starts at upper case letters),
+	 * first humps must match, other name humps can be skipped.
+	 *
+	 * @param start short name start in full name
+	 */
+	static boolean isHumpsMatched(String name, int start, List<String> searchHumps) {
+		String firstHump = searchHumps.get(0);
+		if (!name.regionMatches(true, start, firstHump, 0, firstHump.length())) {
+			return false;
+		}
+		int len = name.length();
+		int pos = start + 1;
+		for (int i = 1; i < searchHumps.size(); i++) {
+			String hump = searchHumps.get(i);
+			int humpLen = hump.length();
+			while (pos < len && !(Character.isUpperCase(name.charAt(pos))
+					&& name.regionMatches(true, pos, hump, 0, humpLen))) {
+				pos++;
+			}
+			if (pos == len) {
+				return false;
+			}
+			pos++;
+		}
+		return true;
+	}
+
+	static String getShortName(String name) {
+		int dot = name.lastIndexOf('.');
+		return dot == -1 ? name : name.substring(dot + 1);
+	}
+
+	/**
+	 * Per char conversion to keep string length
+	 */
+	static String toLowerCase(String str) {
+		int len = str.length();
+		char[] chars = new char[len];
+		for (int i = 0; i < len; i++) {
+			chars[i] = Character.toLowerCase(str.charAt(i));
+		}
+		return new String(chars);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<CharSequence, T> consumer) {
+		for (Entry entry : getSnapshot().entries) {
+			consumer.accept(entry.name, (T) entry.value);
+		}
+	}
+
+	@Override
+	public int size() {
+		synchronized (newKeys) {
+			return snapshot.entries.length + newKeys.size();
+		}
+	}
+}
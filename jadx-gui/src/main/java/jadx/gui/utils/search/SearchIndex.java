@@ -1,5 +1,8 @@
 package jadx.gui.utils.search;
 
+import java.util.List;
+import java.util.function.BiConsumer;
+
 import io.reactivex.Flowable;
 
 public interface SearchIndex<V> {
@@ -8,9 +11,16 @@ public interface SearchIndex<V> {
 
 	void put(StringRef str, V value);
 
+	void putAll(List<StringRef> strings, List<V> values);
+
 	boolean isStringRefSupported();
 
 	Flowable<V> search(String searchStr, boolean caseInsensitive);
 
+	/**
+	 * Visit all indexed entries (in undefined order)
+	 */
+	void forEach(BiConsumer<CharSequence, V> consumer);
+
 	int size();
 }
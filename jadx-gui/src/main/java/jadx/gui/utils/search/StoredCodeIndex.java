@@ -0,0 +1,113 @@
+package jadx.gui.utils.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+
+/**
+ * Code lines index stored in byte buffer.
+ * <p>
+ * Search compares UTF-8 bytes directly, lines decoded only for case insensitive search
+ * of non ASCII strings (or in lines with non ASCII chars), so results are same as
+ * from {@link StringRef#indexOf(String, boolean)}.
+ */
+public class StoredCodeIndex<T> extends StoredIndex<T> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(StoredCodeIndex.class);
+
+	private static final int CANCEL_CHECK_MASK = 0xFF;
+
+	public StoredCodeIndex(ByteBuffer buf, int[] offsets, IntFunction<T> values) {
+		super(buf, offsets, values);
+	}
+
+	@Override
+	public boolean isStringRefSupported() {
+		return true;
+	}
+
+	@Override
+	public Flowable<T> search(final String searchStr, final boolean caseInsensitive) {
+		return Flowable.create(emitter -> {
+			LOG.debug("Stored code search started: {} ...", searchStr);
+			if (searchStr.isEmpty()) {
+				emitter.onComplete();
+				return;
+			}
+			byte[] str = searchStr.getBytes(StandardCharsets.UTF_8);
+			boolean ascii = str.length == searchStr.length();
+			if (caseInsensitive && ascii) {
+				for (int k = 0; k < str.length; k++) {
+					str[k] = toLowerAscii(str[k]);
+				}
+			}
+			for (int i = 0; i < offsets.length; i++) {
+				if (isMatched(offsets[i], searchStr, str, ascii, caseInsensitive)) {
+					emitter.onNext(values.apply(i));
+				}
+				if ((i & CANCEL_CHECK_MASK) == 0 && emitter.isCancelled()) {
+					LOG.debug("Stored code search canceled: {}", searchStr);
+					return;
+				}
+			}
+			emitter.onComplete();
+		}, BackpressureStrategy.LATEST);
+	}
+
+	private boolean isMatched(int offset, String searchStr, byte[] str, boolean ascii, boolean caseInsensitive) {
+		int start = offset + 4;
+		int len = buf.getInt(offset);
+		if (!caseInsensitive) {
+			// UTF-8 is self-synchronizing, so bytes match only at chars boundaries
+			return indexOf(start, len, str, false);
+		}
+		if (ascii && isAscii(start, len)) {
+			return indexOf(start, len, str, true);
+		}
+		return StringRef.fromStr(readString(buf, offset)).indexOf(searchStr, true) != -1;
+	}
+
+	private boolean indexOf(int start, int len, byte[] str, boolean lowerCase) {
+		int strLen = str.length;
+		int max = start + len - strLen;
+		byte first = str[0];
+		for (int i = start; i <= max; i++) {
+			if (byteAt(i, lowerCase) != first) {
+				continue;
+			}
+			int k = 1;
+			while (k < strLen && byteAt(i + k, lowerCase) == str[k]) {
+				k++;
+			}
+			if (k == strLen) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private byte byteAt(int pos, boolean lowerCase) {
+		byte b = buf.get(pos);
+		return lowerCase ? toLowerAscii(b) : b;
+	}
+
+	private boolean isAscii(int start, int len) {
+		int end = start + len;
+		for (int i = start; i < end; i++) {
+			if (buf.get(i) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte toLowerAscii(byte b) {
+		return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+	}
+}
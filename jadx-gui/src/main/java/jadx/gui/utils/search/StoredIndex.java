@@ -0,0 +1,65 @@
+package jadx.gui.utils.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Read only index over strings stored in byte buffer (usually mapped file), strings not copied into heap.
+ * <p>
+ * Every entry is a string encoded as UTF-8 bytes with int length prefix,
+ * values created by entry number only for found entries.
+ */
+abstract class StoredIndex<T> implements SearchIndex<T> {
+
+	protected final ByteBuffer buf;
+	/**
+	 * Positions of strings length prefix in buffer
+	 */
+	protected final int[] offsets;
+	protected final IntFunction<T> values;
+
+	protected StoredIndex(ByteBuffer buf, int[] offsets, IntFunction<T> values) {
+		this.buf = buf;
+		this.offsets = offsets;
+		this.values = values;
+	}
+
+	protected static String readString(ByteBuffer in, int offset) {
+		int len = in.getInt(offset);
+		byte[] bytes = new byte[len];
+		ByteBuffer data = in.duplicate();
+		data.position(offset + 4);
+		data.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void put(String str, T value) {
+		throw new UnsupportedOperationException("Stored index is read only");
+	}
+
+	@Override
+	public void put(StringRef str, T value) {
+		throw new UnsupportedOperationException("Stored index is read only");
+	}
+
+	@Override
+	public void putAll(List<StringRef> strings, List<T> values) {
+		throw new UnsupportedOperationException("Stored index is read only");
+	}
+
+	@Override
+	public void forEach(BiConsumer<CharSequence, T> consumer) {
+		for (int i = 0; i < offsets.length; i++) {
+			consumer.accept(readString(buf, offsets[i]), values.apply(i));
+		}
+	}
+
+	@Override
+	public int size() {
+		return offsets.length;
+	}
+}
@@ -0,0 +1,74 @@
+package jadx.gui.utils.search;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+
+/**
+ * Names index stored in byte buffer, names decoded on search.
+ * <p>
+ * Entries should be in {@link NameIndex} order (sorted by short name),
+ * so results returned in same order as from {@link NameIndex}:
+ * prefix matches are emitted during scan, camel case and substring matches collected and emitted after it.
+ */
+public class StoredNameIndex<T> extends StoredIndex<T> {
+
+	public StoredNameIndex(ByteBuffer buf, int[] offsets, IntFunction<T> values) {
+		super(buf, offsets, values);
+	}
+
+	@Override
+	public boolean isStringRefSupported() {
+		return false;
+	}
+
+	@Override
+	public Flowable<T> search(final String searchStr, final boolean caseInsensitive) {
+		return Flowable.create(emitter -> {
+			String lowerStr = NameIndex.toLowerCase(searchStr);
+			List<String> humps = NameIndex.splitHumps(searchStr);
+			boolean camelCase = humps.size() >= 2 && searchStr.indexOf('.') == -1;
+			String firstChar = camelCase ? NameIndex.toLowerCase(searchStr.substring(0, 1)) : null;
+			List<Integer> camelCaseFound = new ArrayList<>();
+			List<Integer> substringFound = new ArrayList<>();
+			for (int i = 0; i < offsets.length; i++) {
+				String name = readString(buf, offsets[i]);
+				String shortName = NameIndex.getShortName(name);
+				String lowerShortName = NameIndex.toLowerCase(shortName);
+				if (lowerShortName.startsWith(lowerStr)
+						&& (caseInsensitive || shortName.startsWith(searchStr))) {
+					if (!emit(emitter, i)) {
+						return;
+					}
+				} else if (camelCase && lowerShortName.startsWith(firstChar)
+						&& NameIndex.isHumpsMatched(name, name.lastIndexOf('.') + 1, humps)) {
+					camelCaseFound.add(i);
+				} else if (!lowerStr.isEmpty() && NameIndex.toLowerCase(name).contains(lowerStr)
+						&& (caseInsensitive || name.contains(searchStr))) {
+					substringFound.add(i);
+				}
+			}
+			for (int i : camelCaseFound) {
+				if (!emit(emitter, i)) {
+					return;
+				}
+			}
+			for (int i : substringFound) {
+				if (!emit(emitter, i)) {
+					return;
+				}
+			}
+			emitter.onComplete();
+		}, BackpressureStrategy.LATEST);
+	}
+
+	private boolean emit(FlowableEmitter<T> emitter, int idx) {
+		emitter.onNext(values.apply(idx));
+		return !emitter.isCancelled();
+	}
+}
@@ -36,19 +36,27 @@ public class TextSearchIndex {
 
 	private final JNodeCache nodeCache;
 
-	private SearchIndex<JNode> clsNamesIndex;
-	private SearchIndex<JNode> mthNamesIndex;
-	private SearchIndex<JNode> fldNamesIndex;
-	private SearchIndex<CodeNode> codeIndex;
+	private final SearchIndex<JNode> clsNamesIndex;
+	private final SearchIndex<JNode> mthNamesIndex;
+	private final SearchIndex<JNode> fldNamesIndex;
+	private final SearchIndex<CodeNode> codeIndex;
 
 	private List<JavaClass> skippedClasses = new ArrayList<>();
 
 	public TextSearchIndex(JNodeCache nodeCache) {
+		this(nodeCache, new NameIndex<>(), new NameIndex<>(), new NameIndex<>(), new CodeIndex<>());
+	}
+
+	/**
+	 * Create with already filled indexes (loaded from project cache)
+	 */
+	public TextSearchIndex(JNodeCache nodeCache, SearchIndex<JNode> clsNamesIndex, SearchIndex<JNode> mthNamesIndex,
+			SearchIndex<JNode> fldNamesIndex, SearchIndex<CodeNode> codeIndex) {
 		this.nodeCache = nodeCache;
-		this.clsNamesIndex = new SimpleIndex<>();
-		this.mthNamesIndex = new SimpleIndex<>();
-		this.fldNamesIndex = new SimpleIndex<>();
-		this.codeIndex = new CodeIndex<>();
+		this.clsNamesIndex = clsNamesIndex;
+		this.mthNamesIndex = mthNamesIndex;
+		this.fldNamesIndex = fldNamesIndex;
+		this.codeIndex = codeIndex;
 	}
 
 	public void indexNames(JavaClass cls) {
@@ -66,8 +74,9 @@ public class TextSearchIndex {
 
 	public void indexCode(JavaClass cls, CodeLinesInfo linesInfo, List<StringRef> lines) {
 		try {
-			boolean strRefSupported = codeIndex.isStringRefSupported();
 			int count = lines.size();
+			List<StringRef> indexLines = new ArrayList<>(count);
+			List<CodeNode> codeNodes = new ArrayList<>(count);
 			for (int i = 0; i < count; i++) {
 				StringRef line = lines.get(i);
 				int lineLength = line.length();
@@ -76,13 +85,10 @@ public class TextSearchIndex {
 				}
 				int lineNum = i + 1;
 				JavaNode node = linesInfo.getJavaNodeByLine(lineNum);
-				CodeNode codeNode = new CodeNode(nodeCache.makeFrom(node == null ? cls : node), lineNum, line);
-				if (strRefSupported) {
-					codeIndex.put(line, codeNode);
-				} else {
-					codeIndex.put(line.toString(), codeNode);
-				}
+				indexLines.add(line);
+				codeNodes.add(new CodeNode(nodeCache.makeFrom(node == null ? cls : node), lineNum, line));
 			}
+			codeIndex.putAll(indexLines, codeNodes);
 		} catch (Exception e) {
 			LOG.warn("Failed to index class: {}", cls, e);
 		}
@@ -162,4 +168,20 @@ public class TextSearchIndex {
 	public int getSkippedCount() {
 		return skippedClasses.size();
 	}
+
+	public SearchIndex<JNode> getClsNamesIndex() {
+		return clsNamesIndex;
+	}
+
+	public SearchIndex<JNode> getMthNamesIndex() {
+		return mthNamesIndex;
+	}
+
+	public SearchIndex<JNode> getFldNamesIndex() {
+		return fldNamesIndex;
+	}
+
+	public SearchIndex<CodeNode> getCodeIndex() {
+		return codeIndex;
+	}
 }
@@ -0,0 +1,153 @@
+package jadx.gui.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.api.JavaClass;
+import jadx.api.JavaMethod;
+import jadx.api.JavaNode;
+import jadx.core.codegen.CodeWriter;
+import jadx.gui.JadxWrapper;
+import jadx.gui.treemodel.CodeNode;
+import jadx.gui.treemodel.JNode;
+import jadx.gui.utils.search.SearchIndex;
+import jadx.gui.utils.search.StringRef;
+import jadx.gui.utils.search.TextSearchIndex;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjectIndexTest {
+	private static final String TEST_INPUT = "project-index/TestCls.smali";
+
+	@TempDir
+	Path tempDir;
+
+	private JavaClass cls;
+	private JadxWrapper wrapper;
+	private JNodeCache nodeCache;
+	private TextSearchIndex textIndex;
+	private CodeUsageInfo usageInfo;
+
+	@BeforeEach
+	public void init() {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().add(new File(getResourcePath(TEST_INPUT)));
+		args.setSkipResources(true);
+		JadxDecompiler decompiler = new JadxDecompiler(args);
+		decompiler.load();
+		List<JavaClass> classes = decompiler.getClasses();
+		cls = classes.get(0);
+		wrapper = mock(JadxWrapper.class);
+		when(wrapper.getClasses()).thenReturn(classes);
+
+		nodeCache = new JNodeCache();
+		textIndex = new TextSearchIndex(nodeCache);
+		usageInfo = new CodeUsageInfo(nodeCache);
+		for (JavaClass javaClass : classes) {
+			textIndex.indexNames(javaClass);
+			CodeLinesInfo linesInfo = new CodeLinesInfo(javaClass);
+			List<StringRef> lines = StringRef.split(javaClass.getCode(), CodeWriter.NL);
+			lines.replaceAll(StringRef::trim);
+			usageInfo.processClass(javaClass, linesInfo, lines);
+			textIndex.indexCode(javaClass, linesInfo, lines);
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Path file = tempDir.resolve("index");
+		ProjectIndex.save(file, textIndex, usageInfo);
+		ProjectIndex index = ProjectIndex.load(file, wrapper, nodeCache);
+		assertThat(index, notNullValue());
+
+		TextSearchIndex loaded = index.buildTextIndex();
+		assertThat(codeLines(loaded.getCodeIndex(), "count", false), not(empty()));
+		for (String str : Arrays.asList("count", "COUNT", "getC", "GC", "test.", "Имя", "имя", "missing")) {
+			for (boolean ignoreCase : new boolean[] { false, true }) {
+				assertThat(names(loaded.getClsNamesIndex(), str, ignoreCase),
+						is(names(textIndex.getClsNamesIndex(), str, ignoreCase)));
+				assertThat(names(loaded.getMthNamesIndex(), str, ignoreCase),
+						is(names(textIndex.getMthNamesIndex(), str, ignoreCase)));
+				assertThat(names(loaded.getFldNamesIndex(), str, ignoreCase),
+						is(names(textIndex.getFldNamesIndex(), str, ignoreCase)));
+				assertThat(codeLines(loaded.getCodeIndex(), str, ignoreCase),
+						is(codeLines(textIndex.getCodeIndex(), str, ignoreCase)));
+			}
+		}
+
+		List<JavaNode> usedNodes = new ArrayList<>();
+		usedNodes.add(cls.getFields().get(0));
+		for (JavaMethod mth : cls.getMethods()) {
+			if (mth.getName().equals("increment")) {
+				usedNodes.add(mth);
+			}
+		}
+		assertThat(usedNodes.size(), is(2));
+		for (JavaNode node : usedNodes) {
+			JNode jNode = nodeCache.makeFrom(node);
+			List<CodeNode> expected = usageInfo.getUsageList(jNode);
+			assertThat(expected, not(empty()));
+			assertThat(toStrings(index.getUsageList(jNode)), is(toStrings(expected)));
+		}
+	}
+
+	@Test
+	public void testCorruptedFile() throws IOException {
+		Path file = tempDir.resolve("index");
+		ProjectIndex.save(file, textIndex, usageInfo);
+		byte[] data = Files.readAllBytes(file);
+
+		Path corrupted = tempDir.resolve("corrupted");
+		for (int len = 0; len < data.length; len++) {
+			Files.write(corrupted, Arrays.copyOf(data, len));
+			assertThat("Truncated to " + len, ProjectIndex.load(corrupted, wrapper, nodeCache), nullValue());
+		}
+		byte[] wrongMagic = data.clone();
+		wrongMagic[0] ^= 1;
+		Files.write(corrupted, wrongMagic);
+		assertThat(ProjectIndex.load(corrupted, wrapper, nodeCache), nullValue());
+	}
+
+	private static List<JNode> names(SearchIndex<JNode> index, String str, boolean ignoreCase) {
+		return index.search(str, ignoreCase).toList().blockingGet();
+	}
+
+	private static List<String> codeLines(SearchIndex<CodeNode> index, String str, boolean ignoreCase) {
+		return toStrings(index.search(str, ignoreCase).toList().blockingGet());
+	}
+
+	private static List<String> toStrings(List<CodeNode> list) {
+		List<String> result = new ArrayList<>(list.size());
+		for (CodeNode node : list) {
+			result.add(node.getJavaNode() + ":" + node.getLine() + ":" + node.makeDescString());
+		}
+		return result;
+	}
+
+	private String getResourcePath(String resName) {
+		URL resource = getClass().getClassLoader().getResource(resName);
+		if (resource == null) {
+			throw new RuntimeException("Resource not found: " + resName);
+		}
+		return resource.getPath();
+	}
+}
@@ -0,0 +1,51 @@
+package jadx.gui.utils.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static jadx.gui.utils.search.StringRef.fromStr;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+class CodeIndexTest {
+
+	@Test
+	public void testSearch() {
+		CodeIndex<Integer> index = new CodeIndex<>();
+		index.putAll(
+				Arrays.asList(fromStr("int a = 1;"), fromStr("String str = getStr();"), fromStr("return a;")),
+				Arrays.asList(1, 2, 3));
+		index.put(fromStr("return str.trim();"), 4);
+
+		assertThat(search(index, "str", false), contains(2, 4));
+		assertThat(search(index, "STR", false), empty());
+		assertThat(search(index, "STR", true), contains(2, 4));
+		assertThat(search(index, "return", false), contains(3, 4));
+		assertThat(search(index, "a", false), contains(1, 3));
+		assertThat(search(index, "getStr()", true), contains(2));
+		assertThat(search(index, "missing", true), empty());
+	}
+
+	@Test
+	public void testForEach() {
+		CodeIndex<Integer> index = new CodeIndex<>();
+		index.putAll(Arrays.asList(fromStr("a"), fromStr(""), fromStr("b")), Arrays.asList(1, 2, 3));
+
+		List<String> lines = new ArrayList<>();
+		List<Integer> values = new ArrayList<>();
+		index.forEach((line, value) -> {
+			lines.add(line.toString());
+			values.add(value);
+		});
+		assertThat(lines, contains("a", "b"));
+		assertThat(values, contains(1, 3));
+	}
+
+	private static List<Integer> search(CodeIndex<Integer> index, String str, boolean caseInsensitive) {
+		return index.search(str, caseInsensitive).toList().blockingGet();
+	}
+}
@@ -0,0 +1,60 @@
+package jadx.gui.utils.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+class NameIndexTest {
+
+	private NameIndex<String> index;
+
+	@BeforeEach
+	public void init() {
+		index = new NameIndex<>();
+		index.put("java.lang.NullPointerException", "NPE");
+		index.put("a.b.NumberFormatException", "NFE");
+		index.put("a.b.Nothing", "Nothing");
+		index.put("x.y.Foo.nullCheck", "nullCheck");
+	}
+
+	@Test
+	public void testPrefixFirst() {
+		assertThat(search("null", true), contains("nullCheck", "NPE"));
+		assertThat(search("Null", false), contains("NPE"));
+		assertThat(search("No", false), contains("Nothing"));
+	}
+
+	@Test
+	public void testCamelCase() {
+		assertThat(search("NPE", false), contains("NPE"));
+		assertThat(search("NulPoEx", false), contains("NPE"));
+		assertThat(search("NFE", false), contains("NFE"));
+		assertThat(search("PE", false), empty());
+	}
+
+	@Test
+	public void testSubstring() {
+		assertThat(search("Exception", false), contains("NPE", "NFE"));
+		assertThat(search("a.b.", false), contains("Nothing", "NFE"));
+		assertThat(search("LANG", true), contains("NPE"));
+		assertThat(search("LANG", false), empty());
+	}
+
+	@Test
+	public void testAddAfterSearch() {
+		assertThat(search("Some", true), empty());
+		index.put("c.SomeClass", "SomeClass");
+		assertThat(search("Some", true), contains("SomeClass"));
+		assertThat(index.size(), is(5));
+	}
+
+	private List<String> search(String str, boolean caseInsensitive) {
+		return index.search(str, caseInsensitive).toList().blockingGet();
+	}
+}